@@ -0,0 +1,72 @@
+package com.books.libraryapi.jmh;
+
+import com.books.libraryapi.service.impl.BookSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Search latency of the in-memory index at catalog sizes the seeded database does not reach. Words are picked
+// Zipf-like so a few are very common, as in real titles; sample mode reports the p50/p99 of single queries.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class BookSearchIndexBenchmark {
+
+    private static final int VOCABULARY = 50_000;
+    private static final int QUERIES = 1_024;
+
+    @Param({"100000", "1000000"})
+    public int books;
+
+    private BookSearchIndex index;
+    private String[] queries;
+    private int next;
+
+    @Setup
+    public void build() {
+        Random random = new Random(42);
+        String[] words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            words[i] = "word" + Integer.toString(i, 36);
+        }
+        // Filled through put, so the repository and transaction manager used by load are never needed.
+        index = new BookSearchIndex(null, null);
+        for (int i = 1; i <= books; i++) {
+            index.put((long) i, sentence(random, words, 4), sentence(random, words, 2));
+        }
+        queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = sentence(random, words, 1 + random.nextInt(2));
+        }
+    }
+
+    @Benchmark
+    public List<Long> search() {
+        next = (next + 1) % QUERIES;
+        return index.search(queries[next], 20);
+    }
+
+    private static String sentence(Random random, String[] words, int length) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            int rank = (int) Math.min(words.length - 1, Math.floor(Math.pow(words.length, random.nextDouble())) - 1);
+            sentence.append(words[rank]).append(' ');
+        }
+        return sentence.toString();
+    }
+}
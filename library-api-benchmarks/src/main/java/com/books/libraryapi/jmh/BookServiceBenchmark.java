@@ -0,0 +1,57 @@
+package com.books.libraryapi.jmh;
+
+import com.books.libraryapi.model.entity.Book;
+import com.books.libraryapi.service.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// BookServiceImpl read paths as the controllers call them, caches and indexes included.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookServiceBenchmark {
+
+    private int next;
+
+    @Benchmark
+    public Optional<Book> getById(LibraryState library) {
+        return library.bean(BookService.class).getById(library.books.get(next()).getId());
+    }
+
+    @Benchmark
+    public Optional<Book> getBookByIsbn(LibraryState library) {
+        return library.bean(BookService.class).getBookByIsbn(library.isbns.get(next()));
+    }
+
+    @Benchmark
+    public Page<Book> findByAuthor(LibraryState library) {
+        Book filter = Book.builder().author("autor " + next() % 2_000).build();
+        return library.bean(BookService.class).find(filter, PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public List<Book> search(LibraryState library) {
+        return library.bean(BookService.class).search(library.queries.get(next() % library.queries.size()), 20);
+    }
+
+    private int next() {
+        next = (next + 7_919) % LibraryState.BOOKS;
+        return next;
+    }
+}
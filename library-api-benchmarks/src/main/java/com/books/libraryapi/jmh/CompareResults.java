@@ -0,0 +1,75 @@
+package com.books.libraryapi.jmh;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Compares two JMH JSON result files, e.g. one per commit:
+//   java -cp ... com.books.libraryapi.jmh.CompareResults baseline.json candidate.json [threshold%]
+// Exits with 1 when a benchmark got slower than the threshold (default 10%) beyond both score errors.
+public class CompareResults {
+
+    record Score(double score, double error, String unit) {
+    }
+
+    record Change(String benchmark, Score baseline, Score candidate) {
+
+        double percent() {
+            return (candidate.score() - baseline.score()) / baseline.score() * 100;
+        }
+
+        // All modes here are time per operation, so a higher score is slower.
+        boolean regression(double threshold) {
+            double margin = baseline.error() + candidate.error();
+            return percent() > threshold && candidate.score() - baseline.score() > margin;
+        }
+    }
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: CompareResults <baseline.json> <candidate.json> [threshold%]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        List<Change> changes = compare(read(Path.of(args[0])), read(Path.of(args[1])));
+        boolean regressed = false;
+        for (Change change : changes) {
+            boolean regression = change.regression(threshold);
+            regressed |= regression;
+            System.out.printf("%-80s %12.3f -> %12.3f %s %+7.1f%%%s%n", change.benchmark(),
+                    change.baseline().score(), change.candidate().score(), change.candidate().unit(),
+                    change.percent(), regression ? "  REGRESSION" : "");
+        }
+        System.exit(regressed ? 1 : 0);
+    }
+
+    static Map<String, Score> read(Path file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : MAPPER.readTree(file.toFile())) {
+            JsonNode metric = run.path("primaryMetric");
+            scores.put(run.path("benchmark").asText(), new Score(metric.path("score").asDouble(),
+                    metric.path("scoreError").asDouble(0), metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    // Benchmarks present in only one of the files are skipped, they have nothing to compare against.
+    static List<Change> compare(Map<String, Score> baseline, Map<String, Score> candidate) {
+        List<Change> changes = new ArrayList<>();
+        baseline.forEach((benchmark, score) -> {
+            Score next = candidate.get(benchmark);
+            if (next != null) {
+                changes.add(new Change(benchmark, score, next));
+            }
+        });
+        return changes;
+    }
+}
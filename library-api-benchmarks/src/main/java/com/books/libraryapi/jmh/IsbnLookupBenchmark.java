@@ -0,0 +1,43 @@
+package com.books.libraryapi.jmh;
+
+import com.books.libraryapi.model.repository.BookRepository;
+import com.books.libraryapi.service.impl.IsbnBloomFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// The isbn existence check of a new book: the bloom filter, loaded from the seeded books at startup, against
+// the existsByIsbn query it lets the service skip. The isbns are never seeded, as for a book being registered.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IsbnLookupBenchmark {
+
+    private int next;
+
+    @Benchmark
+    public boolean bloomFilter(LibraryState library) {
+        return library.bean(IsbnBloomFilter.class).mightContain(nextIsbn());
+    }
+
+    @Benchmark
+    public boolean existsByIsbn(LibraryState library) {
+        return library.bean(BookRepository.class).existsByIsbn(nextIsbn());
+    }
+
+    private String nextIsbn() {
+        next = (next + 1) % 1_000_000;
+        return "new-isbn-" + next;
+    }
+}
@@ -0,0 +1,131 @@
+package com.books.libraryapi.jmh;
+
+import com.books.libraryapi.LibraryApiApplication;
+import com.books.libraryapi.model.entity.Book;
+import com.books.libraryapi.model.entity.Loan;
+import com.books.libraryapi.model.repository.BookRepository;
+import com.books.libraryapi.model.repository.LoanRepository;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+// The application on an embedded H2 seeded with a library's worth of data. Seeding runs in a first context that
+// is then closed, so the measured one starts like a production node on an existing database: its isbn cache,
+// bloom filter, availability and search indexes are loaded from the seeded rows.
+@State(Scope.Benchmark)
+public class LibraryState {
+
+    static final int BOOKS = 20_000;
+    static final int LOANS_PER_BOOK = 5;
+    static final int CUSTOMERS = 10_000;
+    // Share of books whose latest loan is still open; with loan dates spread over two months most are late.
+    static final double OPEN_SHARE = 0.15;
+    // Books that never get an open loan, so checkout benchmarks can lend and return them indefinitely.
+    static final int SHELF = 1_000;
+
+    private static final int CHUNK = 1_000;
+    private static final String[] WORDS = {"memórias", "casmurro", "sertão", "cortiço", "iracema", "guarani",
+            "capitães", "areia", "vidas", "secas", "quincas", "borba", "senhora", "lucíola", "macunaíma", "triste",
+            "fim", "policarpo", "quaresma", "grande", "veredas", "hora", "estrela", "paixão", "noite"};
+
+    ConfigurableApplicationContext context;
+    List<Book> books;
+    List<String> isbns;
+    List<String> customers;
+    List<String> queries;
+
+    @Setup
+    public void start() {
+        String url = "jdbc:h2:mem:jmh-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        try (ConfigurableApplicationContext seeding = application(url)) {
+            seed(seeding);
+        }
+        context = application(url);
+        books = context.getBean(BookRepository.class).findAll(Sort.by("isbn"));
+        isbns = books.stream().map(Book::getIsbn).toList();
+        customers = new ArrayList<>();
+        for (int i = 0; i < CUSTOMERS; i += CUSTOMERS / 100) {
+            customers.add("Customer " + i);
+        }
+        queries = List.of("memórias", "casmurro sertão", "vidas secas", "grande veredas", "autor 17", "estrela");
+    }
+
+    @TearDown
+    public void stop() {
+        context.close();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private ConfigurableApplicationContext application(String url) {
+        return new SpringApplicationBuilder(LibraryApiApplication.class)
+                .properties("spring.main.web-application-type=none",
+                        "spring.datasource.url=" + url,
+                        "spring.boot.admin.client.enabled=false",
+                        "application.mail.lateloans.takeover-interval=P1D",
+                        "logging.file.name=",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    private void seed(ConfigurableApplicationContext seeding) {
+        BookRepository bookRepository = seeding.getBean(BookRepository.class);
+        LoanRepository loanRepository = seeding.getBean(LoanRepository.class);
+        TransactionTemplate transaction = new TransactionTemplate(seeding.getBean(PlatformTransactionManager.class));
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+
+        for (int from = 0; from < BOOKS; from += CHUNK) {
+            int start = from;
+            transaction.executeWithoutResult(status -> {
+                List<Book> chunk = new ArrayList<>(CHUNK);
+                for (int i = start; i < start + CHUNK; i++) {
+                    chunk.add(Book.builder()
+                            .isbn(String.format("978%010d", i))
+                            .title(title(random))
+                            .author("Autor " + random.nextInt(2_000))
+                            .build());
+                }
+                List<Loan> loans = new ArrayList<>(CHUNK * LOANS_PER_BOOK);
+                for (Book book : bookRepository.saveAll(chunk)) {
+                    boolean shelf = Long.parseLong(book.getIsbn().substring(3)) < SHELF;
+                    boolean open = !shelf && random.nextDouble() < OPEN_SHARE;
+                    for (int n = 0; n < LOANS_PER_BOOK; n++) {
+                        int customer = random.nextInt(CUSTOMERS);
+                        loans.add(Loan.builder()
+                                .book(book)
+                                .customer("Customer " + customer)
+                                .customerEmail("customer" + customer + "@email.com")
+                                .loanDate(today.minusDays((LOANS_PER_BOOK - n) * 12L - random.nextInt(10)))
+                                .returned(!(open && n == LOANS_PER_BOOK - 1))
+                                .build());
+                    }
+                }
+                loanRepository.saveAll(loans);
+            });
+        }
+    }
+
+    private String title(Random random) {
+        int words = 1 + random.nextInt(4);
+        StringBuilder title = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            title.append(i == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return title.toString();
+    }
+}
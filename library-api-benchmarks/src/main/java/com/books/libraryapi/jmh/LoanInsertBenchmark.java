@@ -0,0 +1,155 @@
+package com.books.libraryapi.jmh;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Cost per loan row of persisting a chunk in one transaction, with IDENTITY keys (one round trip per row to read
+// the key back, never batched) against the pooled loan_seq the Loan entity uses, each with JDBC batching off and
+// at the shipped batch size. The two entities map copies of the loan table, so Loan itself keeps its mapping.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoanInsertBenchmark {
+
+    static final int ROWS = 1_000;
+
+    public enum Ids { IDENTITY, SEQUENCE }
+
+    @Param
+    public Ids ids;
+
+    // 0 turns JDBC batching off; 50 is spring.jpa.properties.hibernate.jdbc.batch_size in application.properties.
+    @Param({"0", "50"})
+    public int batchSize;
+
+    private HikariDataSource dataSource;
+    private SessionFactory sessionFactory;
+    private final LocalDate today = LocalDate.now();
+
+    @Setup
+    public void start() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:jmh-insert-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(IdentityLoan.class)
+                .addAnnotatedClass(SequenceLoan.class)
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(batchSize))
+                .setProperty(AvailableSettings.ORDER_INSERTS, "true");
+        configuration.getProperties().put(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource);
+        sessionFactory = configuration.buildSessionFactory();
+    }
+
+    // Every iteration starts on empty tables, so later iterations do not pay for a larger primary key index.
+    @Setup(Level.Iteration)
+    public void truncate() {
+        sessionFactory.getSchemaManager().truncateMappedObjects();
+    }
+
+    @TearDown
+    public void stop() {
+        sessionFactory.close();
+        dataSource.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void insert() {
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < ROWS; i++) {
+                long book = i % LibraryState.BOOKS;
+                String customer = "Customer " + i % LibraryState.CUSTOMERS;
+                session.persist(ids == Ids.IDENTITY
+                        ? new IdentityLoan(book, customer, today)
+                        : new SequenceLoan(book, customer, today));
+            }
+        });
+    }
+
+    @Entity
+    @Table(name = "loan_identity")
+    public static class IdentityLoan {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+        @Column(name = "book_id")
+        private Long bookId;
+        private String customer;
+        @Column(name = "customer_email")
+        private String customerEmail;
+        @Column(name = "loan_date")
+        private LocalDate loanDate;
+        private Boolean returned;
+
+        protected IdentityLoan() {
+        }
+
+        IdentityLoan(Long bookId, String customer, LocalDate loanDate) {
+            this.bookId = bookId;
+            this.customer = customer;
+            this.customerEmail = customer.replace(" ", "").toLowerCase() + "@email.com";
+            this.loanDate = loanDate;
+            this.returned = false;
+        }
+    }
+
+    @Entity
+    @Table(name = "loan_sequence")
+    public static class SequenceLoan {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_sequence_seq")
+        @SequenceGenerator(name = "loan_sequence_seq", sequenceName = "loan_sequence_seq", allocationSize = 50)
+        private Long id;
+        @Column(name = "book_id")
+        private Long bookId;
+        private String customer;
+        @Column(name = "customer_email")
+        private String customerEmail;
+        @Column(name = "loan_date")
+        private LocalDate loanDate;
+        private Boolean returned;
+
+        protected SequenceLoan() {
+        }
+
+        SequenceLoan(Long bookId, String customer, LocalDate loanDate) {
+            this.bookId = bookId;
+            this.customer = customer;
+            this.customerEmail = customer.replace(" ", "").toLowerCase() + "@email.com";
+            this.loanDate = loanDate;
+            this.returned = false;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.books.libraryapi.jmh;
+
+import com.books.libraryapi.model.entity.Loan;
+import com.books.libraryapi.model.repository.LateLoanView;
+import com.books.libraryapi.model.repository.LoanRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The JPQL of LoanRepository on its own, without the service-level caches and indexes in front of it.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoanRepositoryBenchmark {
+
+    private int next;
+
+    @Benchmark
+    public boolean existsByBookAndNotReturned(LibraryState library) {
+        return library.bean(LoanRepository.class).existsByBookAndNotReturned(library.books.get(next()));
+    }
+
+    @Benchmark
+    public Page<Loan> findByBook(LibraryState library) {
+        return library.bean(LoanRepository.class).findByBook(library.books.get(next()), PageRequest.of(0, 10));
+    }
+
+    @Benchmark
+    public Page<Loan> findByBookIsbnOrCustomer(LibraryState library) {
+        int i = next();
+        return library.bean(LoanRepository.class).findByBookIsbnOrCustomer(library.isbns.get(i),
+                library.customers.get(i % library.customers.size()), PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public List<LateLoanView> findLateLoansAfter(LibraryState library) {
+        return library.bean(LoanRepository.class).findLateLoansAfter(next() % Loan.CUSTOMER_PARTITIONS,
+                LocalDate.now().minusDays(4), "", 0L, Limit.of(500));
+    }
+
+    private int next() {
+        next = (next + 7_919) % LibraryState.BOOKS;
+        return next;
+    }
+}
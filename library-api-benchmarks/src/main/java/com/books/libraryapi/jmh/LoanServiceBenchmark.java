@@ -0,0 +1,74 @@
+package com.books.libraryapi.jmh;
+
+import com.books.libraryapi.api.dto.LoanFilterDTO;
+import com.books.libraryapi.model.entity.Book;
+import com.books.libraryapi.model.entity.Loan;
+import com.books.libraryapi.model.repository.LateLoanView;
+import com.books.libraryapi.service.LoanService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// LoanServiceImpl paths: the filter page, loans of a book, a late-loan chunk and a checkout followed by its return.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoanServiceBenchmark {
+
+    private int next;
+
+    @Benchmark
+    public Page<Loan> findByIsbnOrCustomer(LibraryState library) {
+        int i = next();
+        LoanFilterDTO filter = LoanFilterDTO.builder()
+                .isbn(library.isbns.get(i))
+                .customer(library.customers.get(i % library.customers.size()))
+                .build();
+        return library.bean(LoanService.class).find(filter, PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Page<Loan> loansByBook(LibraryState library) {
+        return library.bean(LoanService.class).getLoansByBook(library.books.get(next()), PageRequest.of(0, 10));
+    }
+
+    @Benchmark
+    public List<LateLoanView> lateLoanChunk(LibraryState library) {
+        return library.bean(LoanService.class).getLateLoans(next() % Loan.CUSTOMER_PARTITIONS, LocalDate.now(), "",
+                0L, 500);
+    }
+
+    @Benchmark
+    public Loan checkoutAndReturn(LibraryState library) {
+        LoanService service = library.bean(LoanService.class);
+        Book book = library.books.get(next() % LibraryState.SHELF);
+        Loan loan = service.save(Loan.builder()
+                .book(book)
+                .customer("Benchmark")
+                .customerEmail("benchmark@email.com")
+                .loanDate(LocalDate.now())
+                .build());
+        loan.setReturned(true);
+        return service.update(loan);
+    }
+
+    private int next() {
+        next = (next + 7_919) % LibraryState.BOOKS;
+        return next;
+    }
+}
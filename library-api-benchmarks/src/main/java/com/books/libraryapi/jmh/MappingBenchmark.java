@@ -0,0 +1,76 @@
+package com.books.libraryapi.jmh;
+
+import com.books.libraryapi.api.dto.BookDTO;
+import com.books.libraryapi.api.dto.LoanDTO;
+import com.books.libraryapi.api.mapper.BookMapperImpl;
+import com.books.libraryapi.api.mapper.LoanMapperImpl;
+import com.books.libraryapi.model.entity.Book;
+import com.books.libraryapi.model.entity.Loan;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// A 20-loan page mapped to DTOs by the generated MapStruct mappers the controllers use, and by the
+// reflective ModelMapper they replaced, so a mapping change shows up as a per-page cost. Run with -prof gc
+// (jmh.args) to see the bytes allocated per page as well.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    private static final int PAGE = 20;
+
+    private final List<Loan> loans = new ArrayList<>(PAGE);
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final LoanMapperImpl loanMapper = new LoanMapperImpl();
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        // Spring injects the nested mapper in the application; here it is wired by hand.
+        Field bookMapper = LoanMapperImpl.class.getDeclaredField("bookMapper");
+        bookMapper.setAccessible(true);
+        bookMapper.set(loanMapper, new BookMapperImpl());
+        for (int i = 0; i < PAGE; i++) {
+            Book book = Book.builder().id((long) i).isbn("isbn-" + i).title("Title " + i).author("Author").build();
+            loans.add(Loan.builder().id((long) i).book(book).customer("Customer " + i)
+                    .customerEmail("customer" + i + "@email.com").loanDate(LocalDate.now()).build());
+        }
+    }
+
+    @Benchmark
+    public List<LoanDTO> mapStruct() {
+        List<LoanDTO> page = new ArrayList<>(PAGE);
+        for (Loan loan : loans) {
+            page.add(loanMapper.toDTO(loan));
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<LoanDTO> modelMapper() {
+        List<LoanDTO> page = new ArrayList<>(PAGE);
+        for (Loan loan : loans) {
+            LoanDTO dto = modelMapper.map(loan, LoanDTO.class);
+            dto.setBook(modelMapper.map(loan.getBook(), BookDTO.class));
+            page.add(dto);
+        }
+        return page;
+    }
+}
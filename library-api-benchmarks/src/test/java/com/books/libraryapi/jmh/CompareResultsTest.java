@@ -0,0 +1,53 @@
+package com.books.libraryapi.jmh;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompareResultsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Should read the primary metric of each benchmark from a JMH JSON result")
+    void testRead() throws Exception {
+        Path file = dir.resolve("result.json");
+        Files.writeString(file, """
+                [{"benchmark": "com.books.libraryapi.jmh.MappingBenchmark.mapStruct", "mode": "avgt",
+                  "primaryMetric": {"score": 1.5, "scoreError": 0.1, "scoreUnit": "us/op"}}]
+                """);
+
+        Map<String, CompareResults.Score> scores = CompareResults.read(file);
+
+        assertEquals(Map.of("com.books.libraryapi.jmh.MappingBenchmark.mapStruct",
+                new CompareResults.Score(1.5, 0.1, "us/op")), scores);
+    }
+
+    @Test
+    @DisplayName("Should flag only slowdowns above the threshold and outside the score errors")
+    void testRegression() {
+        Map<String, CompareResults.Score> baseline = Map.of(
+                "slower", new CompareResults.Score(100, 1, "us/op"),
+                "noisy", new CompareResults.Score(100, 20, "us/op"),
+                "faster", new CompareResults.Score(100, 1, "us/op"),
+                "removed", new CompareResults.Score(100, 1, "us/op"));
+        Map<String, CompareResults.Score> candidate = Map.of(
+                "slower", new CompareResults.Score(120, 1, "us/op"),
+                "noisy", new CompareResults.Score(120, 20, "us/op"),
+                "faster", new CompareResults.Score(80, 1, "us/op"));
+
+        List<CompareResults.Change> changes = CompareResults.compare(baseline, candidate);
+
+        assertEquals(3, changes.size());
+        assertEquals(List.of("slower"), changes.stream().filter(change -> change.regression(10))
+                .map(CompareResults.Change::benchmark).toList());
+    }
+}
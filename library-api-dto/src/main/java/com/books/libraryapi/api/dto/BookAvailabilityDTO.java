@@ -0,0 +1,19 @@
+package com.books.libraryapi.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookAvailabilityDTO {
+
+    public enum Status { AVAILABLE, LOANED, NOT_FOUND }
+
+    private String isbn;
+    private Long bookId;
+    private Status status;
+}
@@ -0,0 +1,34 @@
+package com.books.libraryapi.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookImportReportDTO {
+
+    private long total;
+    private long created;
+    private long duplicated;
+    private long invalid;
+
+    @Builder.Default
+    private List<BookImportRowDTO> rows = new ArrayList<>();
+
+    public void add(BookImportRowDTO row) {
+        rows.add(row);
+        total++;
+        switch (row.getStatus()) {
+            case CREATED -> created++;
+            case DUPLICATED -> duplicated++;
+            case INVALID -> invalid++;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.books.libraryapi.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookImportRowDTO {
+
+    public enum Status { CREATED, DUPLICATED, INVALID }
+
+    private long line;
+    private String isbn;
+    private Status status;
+    private Long id;
+    private String message;
+}
@@ -0,0 +1,20 @@
+package com.books.libraryapi.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanBatchResultDTO {
+
+    public enum Status { CREATED, BOOK_NOT_FOUND, ALREADY_LOANED }
+
+    private String isbn;
+    private String customer;
+    private Status status;
+    private Long id;
+}
@@ -0,0 +1,23 @@
+package com.books.libraryapi.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// One row of the loans export. NDJSON writes it as is; the CSV columns are the same fields with the book flattened.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanExportDTO {
+
+    private Long id;
+    private String customer;
+    private String email;
+    private LocalDate loanDate;
+    private Boolean returned;
+    private BookDTO book;
+}
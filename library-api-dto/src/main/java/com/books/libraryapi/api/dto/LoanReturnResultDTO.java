@@ -0,0 +1,19 @@
+package com.books.libraryapi.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanReturnResultDTO {
+
+    public enum Status { RETURNED, NOT_FOUND, ALREADY_RETURNED }
+
+    private Long id;
+    private String isbn;
+    private Status status;
+}
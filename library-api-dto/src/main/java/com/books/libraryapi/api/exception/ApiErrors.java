@@ -27,4 +27,8 @@ public class ApiErrors {
         this.errors = Arrays.asList(businessException.getMessage());
     }
 
+    public ApiErrors(String message) {
+        this.errors = Arrays.asList(message);
+    }
+
 }
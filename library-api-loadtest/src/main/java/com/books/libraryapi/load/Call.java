@@ -0,0 +1,10 @@
+package com.books.libraryapi.load;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.function.Consumer;
+
+// One request of a scenario. onComplete gets the response, or null when the request failed or was dropped,
+// so the scenario can hand back what it took from the library.
+record Call(String name, HttpRequest request, Consumer<HttpResponse<String>> onComplete) {
+}
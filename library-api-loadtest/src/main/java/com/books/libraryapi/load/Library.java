@@ -0,0 +1,124 @@
+package com.books.libraryapi.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// The catalog a load run works on and the books currently free or lent. It is seeded through the API itself,
+// so the application's isbn cache, bloom filter and indexes see the books the way they see any other.
+class Library {
+
+    record OpenLoan(long id, String isbn) {
+    }
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final int CUSTOMERS = 500;
+    // Share of the seeded books that start out lent, so returns have work from the first second.
+    private static final double LENT_SHARE = 0.1;
+
+    private final URI base;
+    private final List<String> isbns = new ArrayList<>();
+    private final Queue<String> free = new ConcurrentLinkedQueue<>();
+    private final Queue<OpenLoan> lent = new ConcurrentLinkedQueue<>();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    Library(URI base) {
+        this.base = base;
+    }
+
+    void seed(HttpClient client, int books, Random random) throws IOException, InterruptedException {
+        for (int i = 0; i < books; i++) {
+            String isbn = String.format("978%010d", i);
+            String book = mapper.writeValueAsString(Map.of("isbn", isbn, "title", "Book " + i,
+                    "author", "Author " + random.nextInt(books / 10 + 1)));
+            expect(201, client.send(post("/api/books", book), HttpResponse.BodyHandlers.ofString()));
+            isbns.add(isbn);
+            free.add(isbn);
+        }
+        for (int i = 0; i < books * LENT_SHARE; i++) {
+            String isbn = free.poll();
+            String customer = randomCustomer(random);
+            HttpResponse<String> response = client.send(post("/api/loans", mapper.writeValueAsString(Map.of(
+                    "isbn", isbn, "customer", customer, "email", "seed@email.com"))),
+                    HttpResponse.BodyHandlers.ofString());
+            expect(201, response);
+            lent.add(new OpenLoan(Long.parseLong(response.body().trim()), isbn));
+        }
+    }
+
+    Call next(Map<Scenario, Integer> mix, Random random) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int pick = random.nextInt(total);
+        for (Map.Entry<Scenario, Integer> weight : mix.entrySet()) {
+            pick -= weight.getValue();
+            if (pick < 0) {
+                return weight.getKey().call(this, random);
+            }
+        }
+        throw new IllegalStateException("The mix weights changed while picking");
+    }
+
+    int books() {
+        return isbns.size();
+    }
+
+    String randomIsbn(Random random) {
+        return isbns.get(random.nextInt(isbns.size()));
+    }
+
+    String randomCustomer(Random random) {
+        return "Customer " + random.nextInt(CUSTOMERS);
+    }
+
+    String takeFreeBook() {
+        return free.poll();
+    }
+
+    OpenLoan takeOpenLoan() {
+        return lent.poll();
+    }
+
+    void lent(long loanId, String isbn) {
+        lent.add(new OpenLoan(loanId, isbn));
+    }
+
+    void returned(String isbn) {
+        free.add(isbn);
+    }
+
+    HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    HttpRequest post(String path, String json) {
+        return request(path).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    HttpRequest patch(String path, String json) {
+        return request(path).header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).timeout(TIMEOUT);
+    }
+
+    private static void expect(int status, HttpResponse<String> response) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException("Seeding failed: " + response.request().method() + " "
+                    + response.uri() + " answered " + response.statusCode() + " " + response.body());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.books.libraryapi.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Options of a load run, given as --name=value arguments. The mix weighs the scenarios, e.g.
+// --mix=browse:50,search:30,checkout:10,return:10; the rate is the arrival rate in requests per second.
+// --virtual-threads=true serves requests on virtual threads (Java 21, build with -Pjava21) and
+// --statement-delay=PT0.01S adds a round trip per SQL statement, so the two thread modes can be compared on
+// traffic that waits on the database.
+record LoadOptions(double rate, Duration warmup, Duration duration, Map<Scenario, Integer> mix, int books,
+                   int maxOutstanding, boolean virtualThreads, Duration statementDelay, Path report) {
+
+    static LoadOptions parse(String... args) {
+        double rate = 100;
+        Duration warmup = Duration.ofSeconds(10);
+        Duration duration = Duration.ofSeconds(30);
+        Map<Scenario, Integer> mix = mix("browse:50,search:30,checkout:10,return:10");
+        int books = 2_000;
+        int maxOutstanding = 1_000;
+        boolean virtualThreads = false;
+        Duration statementDelay = Duration.ZERO;
+        Path report = Path.of("target", "load");
+
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2 || !option[0].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            String value = option[1];
+            switch (option[0].substring(2)) {
+                case "rate" -> rate = Double.parseDouble(value);
+                case "warmup" -> warmup = Duration.parse(value);
+                case "duration" -> duration = Duration.parse(value);
+                case "mix" -> mix = mix(value);
+                case "books" -> books = Integer.parseInt(value);
+                case "max-outstanding" -> maxOutstanding = Integer.parseInt(value);
+                case "virtual-threads" -> virtualThreads = Boolean.parseBoolean(value);
+                case "statement-delay" -> statementDelay = Duration.parse(value);
+                case "report" -> report = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option " + option[0]);
+            }
+        }
+        if (rate <= 0) {
+            throw new IllegalArgumentException("The rate must be positive");
+        }
+        if (statementDelay.isNegative()) {
+            throw new IllegalArgumentException("The statement delay cannot be negative");
+        }
+        return new LoadOptions(rate, warmup, duration, mix, books, maxOutstanding, virtualThreads, statementDelay,
+                report);
+    }
+
+    private static Map<Scenario, Integer> mix(String value) {
+        Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+        for (String entry : value.split(",")) {
+            String[] weight = entry.trim().split(":");
+            mix.put(Scenario.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("The mix needs at least one positive weight");
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,86 @@
+package com.books.libraryapi.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency histograms per scenario, recorded in microseconds. Failed requests are kept apart from the latency
+// of successful ones so an error that answers fast cannot improve the percentiles.
+class LoadReport {
+
+    static final String ALL = "ALL";
+
+    private static final double MICROS_PER_MILLI = 1_000.0;
+
+    static final class Stats {
+
+        final Histogram latency = new ConcurrentHistogram(3);
+        final LongAdder errors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+    }
+
+    private final Duration duration;
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    LoadReport(Duration duration) {
+        this.duration = duration;
+    }
+
+    void record(String scenario, long latencyNanos, boolean success) {
+        long micros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        for (Stats target : new Stats[]{stats(scenario), stats(ALL)}) {
+            if (success) {
+                target.latency.recordValue(micros);
+            } else {
+                target.errors.increment();
+            }
+        }
+    }
+
+    void dropped(String scenario) {
+        stats(scenario).dropped.increment();
+        stats(ALL).dropped.increment();
+    }
+
+    Stats stats(String scenario) {
+        return stats.computeIfAbsent(scenario, name -> new Stats());
+    }
+
+    void print(PrintStream out) {
+        double seconds = duration.toMillis() / 1_000.0;
+        out.printf("%-10s %9s %8s %8s %10s %10s %10s %10s %10s%n", "scenario", "ok", "errors", "dropped", "req/s",
+                "p50 ms", "p99 ms", "p999 ms", "max ms");
+        new TreeMap<>(stats).forEach((name, stat) -> {
+            Histogram latency = stat.latency;
+            out.printf("%-10s %9d %8d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n", name, latency.getTotalCount(),
+                    stat.errors.sum(), stat.dropped.sum(), latency.getTotalCount() / seconds,
+                    millis(latency, 50), millis(latency, 99), millis(latency, 99.9),
+                    latency.getMaxValue() / MICROS_PER_MILLI);
+        });
+    }
+
+    // One percentile distribution per scenario in the .hgrm format, which the HdrHistogram plotter reads.
+    void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+            try (PrintStream out = new PrintStream(
+                    Files.newOutputStream(directory.resolve(entry.getKey().toLowerCase() + ".hgrm")))) {
+                entry.getValue().latency.outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    private static double millis(Histogram latency, double percentile) {
+        return latency.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+}
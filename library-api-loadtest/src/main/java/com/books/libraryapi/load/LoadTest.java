@@ -0,0 +1,54 @@
+package com.books.libraryapi.load;
+
+import com.books.libraryapi.LibraryApiApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.Random;
+import java.util.UUID;
+
+// Starts library-api on a random port over a fresh in-memory H2, seeds it through the API and drives the
+// scenario mix at the configured arrival rate. Other application properties can be varied with -D system
+// properties when main is run directly.
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        LoadReport report = run(options);
+        report.print(System.out);
+        report.write(options.report());
+        System.out.println("Histograms written to " + options.report().toAbsolutePath());
+    }
+
+    static LoadReport run(LoadOptions options) throws Exception {
+        SlowDatabase.delay = options.statementDelay();
+        try (ConfigurableApplicationContext context = application(options)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            Random random = new Random(42);
+            Library library = new Library(URI.create("http://localhost:" + port));
+            library.seed(client, options.books(), random);
+
+            OpenLoadGenerator generator = new OpenLoadGenerator(client, options.rate(), options.warmup(),
+                    options.duration(), options.maxOutstanding(), 7);
+            return generator.run(() -> library.next(options.mix(), random));
+        }
+    }
+
+    private static ConfigurableApplicationContext application(LoadOptions options) {
+        return new SpringApplicationBuilder(LibraryApiApplication.class)
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + options.virtualThreads(),
+                        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                                + SlowDatabase.class.getName(),
+                        "spring.datasource.url=jdbc:h2:mem:load-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "spring.boot.admin.client.enabled=false",
+                        "application.mail.lateloans.takeover-interval=P1D",
+                        "logging.file.name=",
+                        "logging.level.root=WARN")
+                .run();
+    }
+}
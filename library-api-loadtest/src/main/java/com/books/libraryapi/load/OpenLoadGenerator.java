@@ -0,0 +1,85 @@
+package com.books.libraryapi.load;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+// Open workload model: requests arrive as a Poisson process at the configured rate whether or not earlier ones
+// have answered, the way independent users do. Latency is measured from the moment a request was due, not from
+// when it was actually sent, so a stalled server or dispatcher shows up in the percentiles instead of quietly
+// lowering the offered load (coordinated omission).
+class OpenLoadGenerator {
+
+    private static final Duration DRAIN = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final double rate;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int maxOutstanding;
+    private final Random arrivals;
+
+    OpenLoadGenerator(HttpClient client, double rate, Duration warmup, Duration duration, int maxOutstanding,
+                      long seed) {
+        this.client = client;
+        this.rate = rate;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.maxOutstanding = maxOutstanding;
+        this.arrivals = new Random(seed);
+    }
+
+    LoadReport run(Supplier<Call> calls) throws InterruptedException {
+        LoadReport report = new LoadReport(duration);
+        AtomicInteger outstanding = new AtomicInteger();
+        double meanGap = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        for (long due = start; due < end; due += (long) (-Math.log(1 - arrivals.nextDouble()) * meanGap)) {
+            sleepUntil(due);
+            Call call = calls.get();
+            boolean measured = due >= measureFrom;
+            // Past the cap the client itself is the bottleneck; the arrival is counted as dropped, not delayed.
+            if (outstanding.incrementAndGet() > maxOutstanding) {
+                outstanding.decrementAndGet();
+                call.onComplete().accept(null);
+                if (measured) {
+                    report.dropped(call.name());
+                }
+                continue;
+            }
+            long sent = due;
+            client.sendAsync(call.request(), HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+                long latency = System.nanoTime() - sent;
+                call.onComplete().accept(error == null ? response : null);
+                if (measured) {
+                    report.record(call.name(), latency, error == null && response.statusCode() < 400);
+                }
+                outstanding.decrementAndGet();
+            });
+        }
+
+        long drainUntil = System.nanoTime() + DRAIN.toNanos();
+        while (outstanding.get() > 0 && System.nanoTime() < drainUntil) {
+            Thread.sleep(10);
+        }
+        return report;
+    }
+
+    private static void sleepUntil(long due) throws InterruptedException {
+        long wait;
+        while ((wait = due - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.books.libraryapi.load;
+
+import java.util.Random;
+
+// The traffic of a library branch. Checkouts lend a free book and returns bring an open loan back, so the two
+// keep cycling the same books; when one side has nothing to work on it falls back to the other, or to browsing.
+enum Scenario {
+
+    BROWSE {
+        @Override
+        Call call(Library library, Random random) {
+            int page = random.nextInt(Math.max(1, library.books() / 20));
+            return new Call(name(), library.get("/api/books?page=" + page + "&size=20"), response -> {
+            });
+        }
+    },
+
+    SEARCH {
+        @Override
+        Call call(Library library, Random random) {
+            return new Call(name(), library.get("/api/loans?isbn=" + library.randomIsbn(random)
+                    + "&customer=" + library.randomCustomer(random).replace(" ", "%20") + "&size=20"), response -> {
+            });
+        }
+    },
+
+    CHECKOUT {
+        @Override
+        Call call(Library library, Random random) {
+            String isbn = library.takeFreeBook();
+            if (isbn == null) {
+                return RETURN.call(library, random);
+            }
+            String customer = library.randomCustomer(random);
+            return new Call(name(), library.post("/api/loans", "{\"isbn\":\"" + isbn + "\",\"customer\":\""
+                    + customer + "\",\"email\":\"" + customer.replace(" ", ".").toLowerCase() + "@email.com\"}"),
+                    response -> {
+                        if (response != null && response.statusCode() == 201) {
+                            library.lent(Long.parseLong(response.body().trim()), isbn);
+                        } else {
+                            library.returned(isbn);
+                        }
+                    });
+        }
+    },
+
+    RETURN {
+        @Override
+        Call call(Library library, Random random) {
+            Library.OpenLoan loan = library.takeOpenLoan();
+            if (loan == null) {
+                return BROWSE.call(library, random);
+            }
+            return new Call(name(), library.patch("/api/loans/" + loan.id(), "{\"returned\":true}"), response -> {
+                if (response != null && response.statusCode() < 400) {
+                    library.returned(loan.isbn());
+                } else {
+                    library.lent(loan.id(), loan.isbn());
+                }
+            });
+        }
+    };
+
+    abstract Call call(Library library, Random random);
+}
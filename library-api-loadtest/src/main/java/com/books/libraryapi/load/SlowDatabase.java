@@ -0,0 +1,25 @@
+package com.books.libraryapi.load;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.time.Duration;
+
+// Sleeps before every SQL statement Hibernate sends, standing in for the network round trip of a real database
+// server; the in-memory H2 answers too fast for requests to spend their time waiting on it.
+public class SlowDatabase implements StatementInspector {
+
+    // Hibernate instantiates the inspector by class name, so the run sets the delay here before starting.
+    static volatile Duration delay = Duration.ZERO;
+
+    @Override
+    public String inspect(String sql) {
+        if (!delay.isZero()) {
+            try {
+                Thread.sleep(delay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return sql;
+    }
+}
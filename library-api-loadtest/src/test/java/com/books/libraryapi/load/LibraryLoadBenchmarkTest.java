@@ -0,0 +1,28 @@
+package com.books.libraryapi.load;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A short end-to-end run of every scenario against the real application; run with -Pbenchmark.
+@Tag("benchmark")
+class LibraryLoadBenchmarkTest {
+
+    @Test
+    @DisplayName("Should drive the mixed scenarios against the application without errors")
+    void testMixedTraffic() throws Exception {
+        LoadOptions options = LoadOptions.parse("--rate=50", "--warmup=PT2S", "--duration=PT10S", "--books=200",
+                "--mix=browse:40,search:20,checkout:20,return:20");
+
+        LoadReport report = LoadTest.run(options);
+        report.print(System.out);
+
+        for (Scenario scenario : Scenario.values()) {
+            assertTrue(report.stats(scenario.name()).latency.getTotalCount() > 0, scenario + " ran");
+        }
+        assertEquals(0, report.stats(LoadReport.ALL).errors.sum());
+        assertEquals(0, report.stats(LoadReport.ALL).dropped.sum());
+    }
+}
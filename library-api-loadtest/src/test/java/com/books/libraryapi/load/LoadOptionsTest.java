@@ -0,0 +1,43 @@
+package com.books.libraryapi.load;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadOptionsTest {
+
+    @Test
+    @DisplayName("Should parse the options and the scenario mix")
+    void testParse() {
+        LoadOptions options = LoadOptions.parse("--rate=250", "--duration=PT1M", "--mix=browse:3, Checkout:1");
+
+        assertEquals(250, options.rate());
+        assertEquals(Duration.ofMinutes(1), options.duration());
+        assertEquals(Duration.ofSeconds(10), options.warmup());
+        assertEquals(Map.of(Scenario.BROWSE, 3, Scenario.CHECKOUT, 1), options.mix());
+        assertFalse(options.virtualThreads());
+        assertEquals(Duration.ZERO, options.statementDelay());
+    }
+
+    @Test
+    @DisplayName("Should parse the thread mode and the statement delay")
+    void testParseThreadMode() {
+        LoadOptions options = LoadOptions.parse("--virtual-threads=true", "--statement-delay=PT0.01S");
+
+        assertTrue(options.virtualThreads());
+        assertEquals(Duration.ofMillis(10), options.statementDelay());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown options and mixes without weight")
+    void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> LoadOptions.parse("--threads=4"));
+        assertThrows(IllegalArgumentException.class, () -> LoadOptions.parse("--mix=browse:0"));
+        assertThrows(IllegalArgumentException.class, () -> LoadOptions.parse("--rate=0"));
+        assertThrows(IllegalArgumentException.class, () -> LoadOptions.parse("--statement-delay=PT-1S"));
+    }
+}
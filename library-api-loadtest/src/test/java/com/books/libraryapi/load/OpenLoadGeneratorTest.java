@@ -0,0 +1,89 @@
+package com.books.libraryapi.load;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenLoadGeneratorTest {
+
+    private HttpServer server;
+    private URI base;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/ok", exchange -> {
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/fail", exchange -> {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        base = URI.create("http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should offer the configured arrival rate and record only the measured window")
+    void testArrivalRate() throws Exception {
+        OpenLoadGenerator generator = new OpenLoadGenerator(HttpClient.newHttpClient(), 200,
+                Duration.ofMillis(500), Duration.ofSeconds(2), 1_000, 1);
+        AtomicInteger completed = new AtomicInteger();
+
+        LoadReport report = generator.run(() -> new Call("OK", HttpRequest.newBuilder(base.resolve("/ok")).build(),
+                response -> completed.incrementAndGet()));
+
+        // The arrivals follow the seed, not the server: about 400 in the two measured seconds.
+        LoadReport.Stats ok = report.stats("OK");
+        long measured = ok.latency.getTotalCount() + ok.errors.sum() + ok.dropped.sum();
+        assertTrue(measured > 300 && measured < 500, "measured " + measured);
+        assertTrue(completed.get() > measured, "the warmup requests complete but are not recorded");
+    }
+
+    @Test
+    @DisplayName("Should keep failures out of the latency and drop arrivals past the outstanding cap")
+    void testErrorsAndDrops() throws Exception {
+        OpenLoadGenerator generator = new OpenLoadGenerator(HttpClient.newHttpClient(), 100,
+                Duration.ZERO, Duration.ofSeconds(1), 5, 1);
+        AtomicInteger next = new AtomicInteger();
+
+        LoadReport report = generator.run(() -> next.getAndIncrement() % 2 == 0
+                ? new Call("FAIL", HttpRequest.newBuilder(base.resolve("/fail")).build(), response -> {
+                })
+                : new Call("SLOW", HttpRequest.newBuilder(base.resolve("/slow")).build(), response -> {
+                }));
+
+        assertEquals(0, report.stats("FAIL").latency.getTotalCount());
+        assertTrue(report.stats("FAIL").errors.sum() > 0);
+        assertTrue(report.stats("SLOW").dropped.sum() > 0);
+        assertTrue(report.stats("SLOW").latency.getMinValue() >= 200_000, "latency is recorded in microseconds");
+    }
+}
@@ -0,0 +1,40 @@
+package com.books.libraryapi.reactive.api;
+
+import com.books.libraryapi.api.exception.ApiErrors;
+import com.books.libraryapi.exception.BusinessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestControllerAdvice
+public class ApplicationControllerAdvice {
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiErrors handleValidationExceptions(WebExchangeBindException ex){
+        return new ApiErrors(ex.getBindingResult());
+    }
+
+    @ExceptionHandler(BusinessException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiErrors handleBusinessException(BusinessException businessException){
+        return new ApiErrors(businessException);
+    }
+
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ApiErrors> handlerResponseStatusException(ResponseStatusException ex){
+        return new ResponseEntity<>(new ApiErrors(ex), ex.getStatusCode());
+    }
+
+    // Another request changed the same row between this one's read and its write.
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ApiErrors handleOptimisticLockingFailure(OptimisticLockingFailureException ex){
+        return new ApiErrors("The resource was changed by another request, reload it and retry.");
+    }
+}
@@ -0,0 +1,27 @@
+package com.books.libraryapi.reactive.api.mapper;
+
+import com.books.libraryapi.api.dto.BookDTO;
+import com.books.libraryapi.reactive.model.entity.Book;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BookMapper {
+
+    public Book toEntity(BookDTO dto) {
+        return Book.builder()
+                .id(dto.getId())
+                .title(dto.getTitle())
+                .author(dto.getAuthor())
+                .isbn(dto.getIsbn())
+                .build();
+    }
+
+    public BookDTO toDTO(Book book) {
+        return BookDTO.builder()
+                .id(book.getId())
+                .title(book.getTitle())
+                .author(book.getAuthor())
+                .isbn(book.getIsbn())
+                .build();
+    }
+}
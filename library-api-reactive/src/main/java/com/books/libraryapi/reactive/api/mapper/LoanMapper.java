@@ -0,0 +1,25 @@
+package com.books.libraryapi.reactive.api.mapper;
+
+import com.books.libraryapi.api.dto.LoanDTO;
+import com.books.libraryapi.reactive.model.entity.Book;
+import com.books.libraryapi.reactive.model.entity.Loan;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LoanMapper {
+
+    private final BookMapper bookMapper;
+
+    public LoanMapper(BookMapper bookMapper) {
+        this.bookMapper = bookMapper;
+    }
+
+    // As in library-api, isbn stays empty on reads and the book travels in the nested BookDTO.
+    public LoanDTO toDTO(Loan loan, Book book) {
+        return LoanDTO.builder()
+                .id(loan.getId())
+                .customer(loan.getCustomer())
+                .book(book == null ? null : bookMapper.toDTO(book))
+                .build();
+    }
+}
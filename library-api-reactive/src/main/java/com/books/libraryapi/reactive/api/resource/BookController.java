@@ -0,0 +1,108 @@
+package com.books.libraryapi.reactive.api.resource;
+
+import com.books.libraryapi.api.dto.BookDTO;
+import com.books.libraryapi.api.dto.LoanDTO;
+import com.books.libraryapi.reactive.api.mapper.BookMapper;
+import com.books.libraryapi.reactive.api.mapper.LoanMapper;
+import com.books.libraryapi.reactive.model.entity.Book;
+import com.books.libraryapi.reactive.service.BookService;
+import com.books.libraryapi.reactive.service.LoanService;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// Mirrors the CRUD, filter and loans-by-book endpoints of library-api's BookController.
+@RestController
+@RequestMapping("/api/books")
+@Slf4j
+public class BookController {
+
+    private final BookService service;
+    private final BookMapper bookMapper;
+    private final LoanMapper loanMapper;
+    private final LoanService loanService;
+
+    public BookController(BookService service, BookMapper bookMapper, LoanMapper loanMapper,
+                          LoanService loanService) {
+        this.service = service;
+        this.bookMapper = bookMapper;
+        this.loanMapper = loanMapper;
+        this.loanService = loanService;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<BookDTO> create(@RequestBody @Valid BookDTO dto){
+        log.info("Create a book for ISBN: {}", dto.getIsbn());
+        return service.save(bookMapper.toEntity(dto)).map(bookMapper::toDTO);
+    }
+
+    @GetMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<BookDTO> get(@PathVariable Long id){
+        log.info("Getting a book with id: {}", id);
+        return service.getById(id).map(bookMapper::toDTO)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)));
+    }
+
+    @PutMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<BookDTO> update(@PathVariable Long id, @RequestBody @Valid BookDTO bookDTO){
+        log.info("Updating a book with id: {}", id);
+        return service.getById(id)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .flatMap(book -> {
+                    book.setAuthor(bookDTO.getAuthor());
+                    book.setTitle(bookDTO.getTitle());
+                    return service.update(book);
+                })
+                .map(bookMapper::toDTO);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> delete(@PathVariable long id){
+        log.info("Deleting a book with id: {}", id);
+        return service.getById(id)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .flatMap(service::delete);
+    }
+
+    @GetMapping
+    public Mono<PageImpl<BookDTO>> find(BookDTO dto, Pageable pageable){
+        log.info("Getting a list of books");
+        return service.find(bookMapper.toEntity(dto), pageable)
+                .map(result -> new PageImpl<>(result.getContent().stream().map(bookMapper::toDTO).toList(),
+                        pageable, result.getTotalElements()));
+    }
+
+    @GetMapping("/{id}/loans")
+    public Mono<Page<LoanDTO>> loansByBook(@PathVariable Long id, Pageable pageable){
+        log.info("Getting a list of loans for a specific book ");
+        return service.getById(id)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .flatMap(book -> loanService.getLoansByBook(book, pageable)
+                        .map(result -> {
+                            List<LoanDTO> list = result.getContent().stream()
+                                    .map(loan -> loanMapper.toDTO(loan, book))
+                                    .toList();
+                            return new PageImpl<>(list, pageable, result.getTotalElements());
+                        }));
+    }
+}
@@ -0,0 +1,85 @@
+package com.books.libraryapi.reactive.api.resource;
+
+import com.books.libraryapi.api.dto.LoanDTO;
+import com.books.libraryapi.api.dto.LoanFilterDTO;
+import com.books.libraryapi.api.dto.ReturnedLoanDTO;
+import com.books.libraryapi.reactive.api.mapper.LoanMapper;
+import com.books.libraryapi.reactive.model.entity.Book;
+import com.books.libraryapi.reactive.model.entity.Loan;
+import com.books.libraryapi.reactive.service.BookService;
+import com.books.libraryapi.reactive.service.LoanService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Mirrors the create, return and filter endpoints of library-api's LoanController.
+@RestController
+@RequestMapping("/api/loans")
+public class LoanController {
+
+    private final LoanService service;
+    private final BookService bookService;
+    private final LoanMapper loanMapper;
+
+    public LoanController(LoanService service, BookService bookService, LoanMapper loanMapper) {
+        this.service = service;
+        this.bookService = bookService;
+        this.loanMapper = loanMapper;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Long> create(@RequestBody LoanDTO dto){
+        return bookService.getBookByIsbn(dto.getIsbn())
+                .switchIfEmpty(Mono.error(
+                        () -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Book not found for this isbn")))
+                .flatMap(book -> service.save(Loan.builder()
+                        .bookId(book.getId())
+                        .customer(dto.getCustomer())
+                        .loanDate(LocalDate.now())
+                        .build()))
+                .map(Loan::getId);
+    }
+
+    @PatchMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<Void> returnBook(@PathVariable Long id, @RequestBody ReturnedLoanDTO dto){
+        return service.getById(id)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .flatMap(loan -> {
+                    loan.setReturned(dto.getReturned());
+                    return service.update(loan);
+                })
+                .then();
+    }
+
+    @GetMapping
+    public Mono<Page<LoanDTO>> find(LoanFilterDTO dto, Pageable pageable){
+        // One query for the page and one for its books, instead of a book lookup per loan.
+        return service.find(dto, pageable).flatMap(result -> {
+            Set<Long> bookIds = result.getContent().stream().map(Loan::getBookId).collect(Collectors.toSet());
+            return bookService.getByIds(bookIds)
+                    .collectMap(Book::getId, Function.identity())
+                    .map(books -> new PageImpl<>(result.getContent().stream()
+                            .map(loan -> loanMapper.toDTO(loan, books.get(loan.getBookId())))
+                            .toList(), pageable, result.getTotalElements()));
+        });
+    }
+}
@@ -0,0 +1,30 @@
+package com.books.libraryapi.reactive.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+// Same book table as library-api, whose Flyway migrations own the schema.
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table("book")
+public class Book {
+
+    @Id
+    private Long id;
+
+    private String title;
+
+    private String author;
+
+    private String isbn;
+
+    @Version
+    private Long version;
+}
@@ -0,0 +1,35 @@
+package com.books.libraryapi.reactive.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+
+// Same loan table as library-api. Without relationships in R2DBC the book is referenced by id, and
+// customer_email and customer_partition are left to library-api, which is the only writer of emails.
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table("loan")
+public class Loan {
+
+    @Id
+    private Long id;
+
+    private String customer;
+
+    private Long bookId;
+
+    private LocalDate loanDate;
+
+    private Boolean returned;
+
+    @Version
+    private Long version;
+}
@@ -0,0 +1,24 @@
+package com.books.libraryapi.reactive.model.repository;
+
+import com.books.libraryapi.reactive.model.entity.Book;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Mono;
+
+public interface BookRepository extends R2dbcRepository<Book, Long> {
+
+    Mono<Boolean> existsByIsbn(String isbn);
+
+    Mono<Book> findByIsbn(String isbn);
+
+    // Locks the book row until the transaction ends, so checkouts of the same book queue behind each other.
+    @Query("select * from book where id = :id for update")
+    Mono<Book> findForLoanById(@Param("id") Long id);
+
+    // The book_change row library-api's availability index refreshes from; written in the changing transaction.
+    @Modifying
+    @Query("insert into book_change (book_id) values (:bookId)")
+    Mono<Integer> recordChange(@Param("bookId") Long bookId);
+}
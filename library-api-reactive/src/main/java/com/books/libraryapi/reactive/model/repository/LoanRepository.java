@@ -0,0 +1,32 @@
+package com.books.libraryapi.reactive.model.repository;
+
+import com.books.libraryapi.reactive.model.entity.Loan;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface LoanRepository extends R2dbcRepository<Loan, Long> {
+
+    // The same union as library-api's LoanRepository, so each branch can use its own index.
+    String ISBN_OR_CUSTOMER_IDS = "select bl.id from loan bl join book b on b.id = bl.book_id where b.isbn = :isbn " +
+            "union select cl.id from loan cl where cl.customer = :customer";
+
+    @Query("select count(*) > 0 from loan where book_id = :bookId and (returned is null or returned is false)")
+    Mono<Boolean> existsByBookIdAndNotReturned(@Param("bookId") Long bookId);
+
+    Flux<Loan> findByBookId(Long bookId, Pageable pageable);
+
+    Mono<Long> countByBookId(Long bookId);
+
+    // String queries are not paged by Spring Data R2DBC, so limit and offset are bound explicitly.
+    @Query("select l.* from loan l where l.id in (" + ISBN_OR_CUSTOMER_IDS + ") order by l.id " +
+            "limit :limit offset :offset")
+    Flux<Loan> findByBookIsbnOrCustomer(@Param("isbn") String isbn, @Param("customer") String customer,
+                                        @Param("limit") int limit, @Param("offset") long offset);
+
+    @Query("select count(*) from loan l where l.id in (" + ISBN_OR_CUSTOMER_IDS + ")")
+    Mono<Long> countByBookIsbnOrCustomer(@Param("isbn") String isbn, @Param("customer") String customer);
+}
@@ -0,0 +1,64 @@
+package com.books.libraryapi.reactive.model.repository;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Ids from the book_seq and loan_seq sequences that library-api's Hibernate pooled optimizer also draws from:
+// a sequence value v reserves the ids (v - 50, v], so both applications can insert into the same tables.
+@Component
+public class SequenceIds {
+
+    static final int ALLOCATION_SIZE = 50;
+
+    private final DatabaseClient client;
+    private final Map<String, AtomicReference<Block>> blocks = new ConcurrentHashMap<>();
+
+    public SequenceIds(DatabaseClient client) {
+        this.client = client;
+    }
+
+    public Mono<Long> next(String sequence) {
+        AtomicReference<Block> current = blocks.computeIfAbsent(sequence, name -> new AtomicReference<>(Block.EMPTY));
+        return Mono.defer(() -> {
+            long id = current.get().next();
+            if (id > 0) {
+                return Mono.just(id);
+            }
+            // Concurrent callers may each reserve a block; the one that loses the race is left unused.
+            return client.sql("select next value for " + sequence)
+                    .map(row -> row.get(0, Long.class))
+                    .one()
+                    .map(hi -> {
+                        Block block = new Block(Math.max(1, hi - ALLOCATION_SIZE + 1), hi);
+                        long first = block.next();
+                        current.set(block);
+                        return first;
+                    });
+        });
+    }
+
+    private static class Block {
+
+        private static final Block EMPTY = new Block(1, 0);
+
+        private final AtomicLong next;
+        private final long hi;
+
+        Block(long lo, long hi) {
+            this.next = new AtomicLong(lo);
+            this.hi = hi;
+        }
+
+        // The next id of the block, or 0 once it is used up.
+        long next() {
+            long id = next.getAndIncrement();
+            return id <= hi ? id : 0;
+        }
+    }
+}
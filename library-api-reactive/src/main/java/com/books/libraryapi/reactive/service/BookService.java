@@ -0,0 +1,26 @@
+package com.books.libraryapi.reactive.service;
+
+import com.books.libraryapi.reactive.model.entity.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+public interface BookService {
+
+    Mono<Book> save(Book book);
+
+    Mono<Book> getById(Long id);
+
+    Flux<Book> getByIds(Collection<Long> ids);
+
+    Mono<Void> delete(Book book);
+
+    Mono<Book> update(Book book);
+
+    Mono<Page<Book>> find(Book filter, Pageable pageable);
+
+    Mono<Book> getBookByIsbn(String isbn);
+}
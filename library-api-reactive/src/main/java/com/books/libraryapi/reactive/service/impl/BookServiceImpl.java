@@ -0,0 +1,101 @@
+package com.books.libraryapi.reactive.service.impl;
+
+import com.books.libraryapi.exception.BusinessException;
+import com.books.libraryapi.reactive.model.entity.Book;
+import com.books.libraryapi.reactive.model.repository.BookRepository;
+import com.books.libraryapi.reactive.model.repository.SequenceIds;
+import com.books.libraryapi.reactive.service.BookService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+@Service
+public class BookServiceImpl implements BookService {
+
+    private final BookRepository repository;
+    private final R2dbcEntityTemplate template;
+    private final SequenceIds ids;
+    private final TransactionalOperator transactions;
+
+    public BookServiceImpl(BookRepository repository, R2dbcEntityTemplate template, SequenceIds ids,
+                           TransactionalOperator transactions) {
+        this.repository = repository;
+        this.template = template;
+        this.ids = ids;
+        this.transactions = transactions;
+    }
+
+    @Override
+    public Mono<Book> save(Book book) {
+        return repository.existsByIsbn(book.getIsbn())
+                .flatMap(exists -> exists
+                        ? Mono.<Book>error(new BusinessException("Isbn already exists."))
+                        : ids.next("book_seq").flatMap(id -> {
+                            book.setId(id);
+                            // The id is assigned up front, so the entity has to be inserted explicitly.
+                            return template.insert(book).flatMap(this::recordChange);
+                        }))
+                .as(transactions::transactional)
+                // A concurrent insert of the same isbn got past the check above; ux_book_isbn settles it.
+                .onErrorMap(DataIntegrityViolationException.class, e -> new BusinessException("Isbn already exists."));
+    }
+
+    @Override
+    public Mono<Book> getById(Long id) {
+        return repository.findById(id);
+    }
+
+    @Override
+    public Flux<Book> getByIds(Collection<Long> ids) {
+        return repository.findAllById(ids);
+    }
+
+    @Override
+    public Mono<Void> delete(Book book) {
+        if(book ==null || book.getId() == null){
+            return Mono.error(new IllegalArgumentException("Book or id can be null"));
+        }
+        return repository.recordChange(book.getId())
+                .then(repository.delete(book))
+                .as(transactions::transactional);
+    }
+
+    @Override
+    public Mono<Book> update(Book book) {
+        if(book ==null || book.getId() == null){
+            return Mono.error(new IllegalArgumentException("Book or id can be null"));
+        }
+        return repository.save(book)
+                .flatMap(this::recordChange)
+                .as(transactions::transactional);
+    }
+
+    private Mono<Book> recordChange(Book book) {
+        return repository.recordChange(book.getId()).thenReturn(book);
+    }
+
+    @Override
+    public Mono<Page<Book>> find(Book filter, Pageable pageable) {
+        Example<Book> example = Example.of(filter,
+                ExampleMatcher
+                        .matching()
+                        .withIgnoreCase()
+                        .withIgnoreNullValues()
+                        .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
+        return repository.findBy(example, query -> query.page(pageable));
+    }
+
+    @Override
+    public Mono<Book> getBookByIsbn(String isbn) {
+        return repository.findByIsbn(isbn);
+    }
+}
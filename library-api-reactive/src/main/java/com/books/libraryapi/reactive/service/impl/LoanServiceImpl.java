@@ -0,0 +1,98 @@
+package com.books.libraryapi.reactive.service.impl;
+
+import com.books.libraryapi.api.dto.LoanFilterDTO;
+import com.books.libraryapi.exception.BusinessException;
+import com.books.libraryapi.reactive.model.entity.Book;
+import com.books.libraryapi.reactive.model.entity.Loan;
+import com.books.libraryapi.reactive.model.repository.BookRepository;
+import com.books.libraryapi.reactive.model.repository.LoanRepository;
+import com.books.libraryapi.reactive.model.repository.SequenceIds;
+import com.books.libraryapi.reactive.service.LoanService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class LoanServiceImpl implements LoanService {
+
+    private final LoanRepository repository;
+    private final BookRepository bookRepository;
+    private final R2dbcEntityTemplate template;
+    private final SequenceIds ids;
+    private final TransactionalOperator transactions;
+    // Books with a checkout in flight on this node, the counterpart of library-api's CheckoutClaims.
+    private final Set<Long> checkouts = ConcurrentHashMap.newKeySet();
+
+    public LoanServiceImpl(LoanRepository repository, BookRepository bookRepository, R2dbcEntityTemplate template,
+                           SequenceIds ids, TransactionalOperator transactions) {
+        this.repository = repository;
+        this.bookRepository = bookRepository;
+        this.template = template;
+        this.ids = ids;
+        this.transactions = transactions;
+    }
+
+    @Override
+    public Mono<Loan> save(Loan loan) {
+        Long bookId = loan.getBookId();
+        return Mono.defer(() -> {
+            // The claim turns away a second checkout on this node before it queues on the book's row lock.
+            if (!checkouts.add(bookId)) {
+                return Mono.error(new BusinessException("Book already loaned"));
+            }
+            // The row lock serializes checkouts across nodes, so the open loan check is authoritative.
+            return bookRepository.findForLoanById(bookId)
+                    .switchIfEmpty(Mono.error(new BusinessException("Book not found")))
+                    .flatMap(book -> repository.existsByBookIdAndNotReturned(bookId))
+                    .flatMap(loaned -> loaned
+                            ? Mono.<Loan>error(new BusinessException("Book already loaned"))
+                            : ids.next("loan_seq").flatMap(id -> {
+                                loan.setId(id);
+                                return template.insert(loan);
+                            }))
+                    .flatMap(this::recordChange)
+                    .as(transactions::transactional)
+                    .doFinally(signal -> checkouts.remove(bookId));
+        });
+    }
+
+    @Override
+    public Mono<Loan> getById(Long id) {
+        return repository.findById(id);
+    }
+
+    @Override
+    public Mono<Loan> update(Loan loan) {
+        return repository.save(loan)
+                .flatMap(this::recordChange)
+                .as(transactions::transactional);
+    }
+
+    private Mono<Loan> recordChange(Loan loan) {
+        return bookRepository.recordChange(loan.getBookId()).thenReturn(loan);
+    }
+
+    @Override
+    public Mono<Page<Loan>> find(LoanFilterDTO filterDTO, Pageable pageable) {
+        return repository.findByBookIsbnOrCustomer(filterDTO.getIsbn(), filterDTO.getCustomer(),
+                        pageable.getPageSize(), pageable.getOffset())
+                .collectList()
+                .zipWith(repository.countByBookIsbnOrCustomer(filterDTO.getIsbn(), filterDTO.getCustomer()))
+                .map(page -> new PageImpl<>(page.getT1(), pageable, page.getT2()));
+    }
+
+    @Override
+    public Mono<Page<Loan>> getLoansByBook(Book book, Pageable pageable) {
+        return repository.findByBookId(book.getId(), pageable)
+                .collectList()
+                .zipWith(repository.countByBookId(book.getId()))
+                .map(page -> new PageImpl<>(page.getT1(), pageable, page.getT2()));
+    }
+}
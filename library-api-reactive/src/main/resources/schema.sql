@@ -0,0 +1,38 @@
+-- Local runs only: the tables of library-api's Flyway migrations (db/migration) that this module uses.
+CREATE SEQUENCE IF NOT EXISTS book_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS loan_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS book (
+    id BIGINT NOT NULL,
+    author VARCHAR(255),
+    title VARCHAR(255),
+    isbn VARCHAR(255),
+    version BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_book PRIMARY KEY (id),
+    CONSTRAINT ux_book_isbn UNIQUE (isbn)
+);
+
+CREATE TABLE IF NOT EXISTS loan (
+    id BIGINT NOT NULL,
+    customer VARCHAR(100),
+    customer_email VARCHAR(255),
+    book_id BIGINT,
+    loan_date DATE,
+    returned BOOLEAN,
+    customer_partition INT,
+    version BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_loan PRIMARY KEY (id),
+    CONSTRAINT fk_loan_book FOREIGN KEY (book_id) REFERENCES book (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_loan_book_returned ON loan (book_id, returned);
+CREATE INDEX IF NOT EXISTS idx_loan_customer ON loan (customer);
+
+CREATE TABLE IF NOT EXISTS book_change (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    book_id BIGINT NOT NULL,
+    changed_at TIMESTAMP(6) DEFAULT LOCALTIMESTAMP NOT NULL,
+    CONSTRAINT pk_book_change PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_book_change_changed_at ON book_change (changed_at);
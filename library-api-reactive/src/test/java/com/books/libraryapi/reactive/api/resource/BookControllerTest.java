@@ -0,0 +1,122 @@
+package com.books.libraryapi.reactive.api.resource;
+
+import com.books.libraryapi.api.dto.BookDTO;
+import com.books.libraryapi.api.dto.LoanDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import com.books.libraryapi.reactive.model.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs against the in-memory H2 of a local run, so the SQL and the id allocation are exercised as well.
+@SpringBootTest
+@AutoConfigureWebTestClient
+class BookControllerTest {
+
+    static final String BOOK_API = "/api/books";
+
+    @Autowired
+    WebTestClient client;
+
+    @Autowired
+    BookRepository repository;
+
+    @Test
+    @DisplayName("Should create a book and read it back")
+    void createAndGetBook() {
+        BookDTO created = create("Dom Casmurro", "Machado de Assis", isbn());
+
+        assertNotNull(created.getId());
+        client.get().uri(BOOK_API + "/" + created.getId()).exchange()
+                .expectStatus().isOk()
+                .expectBody(BookDTO.class).isEqualTo(created);
+    }
+
+    @Test
+    @DisplayName("Should reject an invalid book and a duplicated isbn")
+    void rejectInvalidAndDuplicatedBooks() {
+        client.post().uri(BOOK_API).bodyValue(new BookDTO()).exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("errors.length()").isEqualTo(3);
+
+        String isbn = isbn();
+        create("Iracema", "José de Alencar", isbn);
+        client.post().uri(BOOK_API).bodyValue(BookDTO.builder().title("Other").author("Other").isbn(isbn).build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("errors[0]").isEqualTo("Isbn already exists.");
+    }
+
+    @Test
+    @DisplayName("Should update and delete a book, and answer 404 for a missing one")
+    void updateAndDeleteBook() {
+        BookDTO book = create("Memórias", "Machado", isbn());
+
+        client.put().uri(BOOK_API + "/" + book.getId())
+                .bodyValue(BookDTO.builder().title("Memórias Póstumas").author("Machado de Assis").isbn("ignored").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("title").isEqualTo("Memórias Póstumas")
+                .jsonPath("isbn").isEqualTo(book.getIsbn());
+        assertEquals(1L, repository.findById(book.getId()).block().getVersion());
+
+        client.delete().uri(BOOK_API + "/" + book.getId()).exchange().expectStatus().isNoContent();
+        client.get().uri(BOOK_API + "/" + book.getId()).exchange().expectStatus().isNotFound();
+        client.delete().uri(BOOK_API + "/" + book.getId()).exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("Should filter books by example, one page at a time")
+    void findBooks() {
+        String author = "Author " + UUID.randomUUID();
+        for (int i = 0; i < 3; i++) {
+            create("Filtered " + i, author, isbn());
+        }
+
+        client.get().uri(BOOK_API + "?author={author}&page=0&size=2", author.toLowerCase()).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("content.length()").isEqualTo(2)
+                .jsonPath("totalElements").isEqualTo(3)
+                .jsonPath("pageable.pageSize").isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should list the loans of a book with the book nested")
+    void loansByBook() {
+        BookDTO book = create("O Cortiço", "Aluísio Azevedo", isbn());
+        client.post().uri("/api/loans")
+                .bodyValue(LoanDTO.builder().isbn(book.getIsbn()).customer("Fulano").build())
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CREATED);
+
+        client.get().uri(BOOK_API + "/" + book.getId() + "/loans?page=0&size=10").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("totalElements").isEqualTo(1)
+                .jsonPath("content[0].customer").isEqualTo("Fulano")
+                .jsonPath("content[0].book.isbn").isEqualTo(book.getIsbn());
+    }
+
+    private BookDTO create(String title, String author, String isbn) {
+        return client.post().uri(BOOK_API)
+                .bodyValue(BookDTO.builder().title(title).author(author).isbn(isbn).build())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(BookDTO.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    static String isbn() {
+        return UUID.randomUUID().toString().substring(0, 13);
+    }
+}
@@ -0,0 +1,116 @@
+package com.books.libraryapi.reactive.api.resource;
+
+import com.books.libraryapi.api.dto.BookDTO;
+import com.books.libraryapi.api.dto.LoanDTO;
+import com.books.libraryapi.api.dto.ReturnedLoanDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import com.books.libraryapi.reactive.model.repository.LoanRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+class LoanControllerTest {
+
+    static final String LOAN_API = "/api/loans";
+
+    @Autowired
+    WebTestClient client;
+
+    @Autowired
+    LoanRepository repository;
+
+    @Test
+    @DisplayName("Should lend a book once and again after it is returned")
+    void createAndReturnLoan() {
+        String isbn = book();
+
+        Long id = lend(isbn, "Fulano").expectStatus().isCreated().expectBody(Long.class).returnResult().getResponseBody();
+        assertNotNull(id);
+        lend(isbn, "Ciclano").expectStatus().isBadRequest()
+                .expectBody().jsonPath("errors[0]").isEqualTo("Book already loaned");
+
+        assertEquals(0L, repository.findById(id).block().getVersion());
+        client.patch().uri(LOAN_API + "/" + id).bodyValue(ReturnedLoanDTO.builder().returned(true).build())
+                .exchange()
+                .expectStatus().isOk();
+        // library-api's loan list ETags move with the version, so reactive writes must bump it too.
+        assertEquals(1L, repository.findById(id).block().getVersion());
+        lend(isbn, "Ciclano").expectStatus().isCreated();
+    }
+
+    @Test
+    @DisplayName("Should let only one of concurrent loans of the same book through")
+    void concurrentLoansOfOneBook() {
+        String isbn = book();
+
+        List<HttpStatusCode> statuses = Flux.range(0, 8)
+                .flatMap(i -> Mono.fromCallable(() -> lend(isbn, "Customer " + i).returnResult(Void.class).getStatus())
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .collectList()
+                .block();
+
+        assertEquals(1, statuses.stream().filter(HttpStatus.CREATED::equals).count(), statuses.toString());
+        assertTrue(statuses.stream().allMatch(status -> status.is2xxSuccessful() || status.value() == 400));
+        client.get().uri(LOAN_API + "?isbn={isbn}&page=0&size=10", isbn).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("totalElements").isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject a loan for an unknown isbn and a return of an unknown loan")
+    void unknownBookAndLoan() {
+        lend("unknown-isbn", "Fulano").expectStatus().isBadRequest()
+                .expectBody().jsonPath("errors[0]").isEqualTo("Book not found for this isbn");
+
+        client.patch().uri(LOAN_API + "/999999").bodyValue(ReturnedLoanDTO.builder().returned(true).build())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("Should find loans by isbn or customer with their books")
+    void findLoans() {
+        String isbn = book();
+        String otherIsbn = book();
+        String customer = "Customer " + UUID.randomUUID();
+        lend(isbn, "Someone").expectStatus().isCreated();
+        lend(otherIsbn, customer).expectStatus().isCreated();
+
+        client.get().uri(LOAN_API + "?isbn={isbn}&customer={customer}&page=0&size=10", isbn, customer).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("totalElements").isEqualTo(2)
+                .jsonPath("content[0].book.isbn").isEqualTo(isbn)
+                .jsonPath("content[1].customer").isEqualTo(customer)
+                .jsonPath("content[1].book.isbn").isEqualTo(otherIsbn);
+    }
+
+    private WebTestClient.ResponseSpec lend(String isbn, String customer) {
+        return client.post().uri(LOAN_API)
+                .bodyValue(LoanDTO.builder().isbn(isbn).customer(customer).build())
+                .exchange();
+    }
+
+    private String book() {
+        String isbn = BookControllerTest.isbn();
+        client.post().uri("/api/books")
+                .bodyValue(BookDTO.builder().title("Title").author("Author").isbn(isbn).build())
+                .exchange()
+                .expectStatus().isCreated();
+        return isbn;
+    }
+}
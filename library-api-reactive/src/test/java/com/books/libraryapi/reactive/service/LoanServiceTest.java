@@ -0,0 +1,86 @@
+package com.books.libraryapi.reactive.service;
+
+import com.books.libraryapi.exception.BusinessException;
+import com.books.libraryapi.reactive.model.entity.Book;
+import com.books.libraryapi.reactive.model.entity.Loan;
+import com.books.libraryapi.reactive.model.repository.BookRepository;
+import com.books.libraryapi.reactive.model.repository.LoanRepository;
+import com.books.libraryapi.reactive.model.repository.SequenceIds;
+import com.books.libraryapi.reactive.service.impl.LoanServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class LoanServiceTest {
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    LoanRepository loanRepository;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    R2dbcEntityTemplate template;
+
+    @Autowired
+    SequenceIds ids;
+
+    @Autowired
+    TransactionalOperator transactions;
+
+    @Test
+    @DisplayName("Should lend a book once when nodes check it out concurrently")
+    void concurrentLoansAcrossNodes() {
+        String isbn = UUID.randomUUID().toString().substring(0, 13);
+        Book book = bookService.save(Book.builder().title("Title").author("Author").isbn(isbn).build()).block();
+        // A slow open loan check lets every checkout reach it before any of them inserts.
+        LoanRepository slowLoans = mock(LoanRepository.class, delegatesTo(loanRepository));
+        doAnswer(invocation -> loanRepository.existsByBookIdAndNotReturned(invocation.getArgument(0))
+                .delayElement(Duration.ofMillis(20)))
+                .when(slowLoans).existsByBookIdAndNotReturned(anyLong());
+        // Each service stands for a node: its in-flight claims are its own, only the database is shared.
+        List<LoanService> nodes = Flux.range(0, 8)
+                .map(i -> (LoanService) new LoanServiceImpl(slowLoans, bookRepository, template, ids, transactions))
+                .collectList()
+                .block();
+
+        List<Optional<Throwable>> results = Flux.fromIterable(nodes)
+                .flatMap(node -> node.save(Loan.builder().bookId(book.getId()).customer("Customer")
+                                .loanDate(LocalDate.now()).build())
+                        .map(loan -> Optional.<Throwable>empty())
+                        .onErrorResume(e -> Mono.just(Optional.of(e)))
+                        // r2dbc-h2 blocks the subscribing thread while a statement waits for the row lock.
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .collectList()
+                .block();
+
+        assertEquals(1, results.stream().filter(Optional::isEmpty).count(), results.toString());
+        // H2 sometimes gives up on a contended row lock before its timeout; that fails the checkout, it never
+        // lets a second one through.
+        assertTrue(results.stream().flatMap(Optional::stream)
+                .allMatch(e -> e instanceof BusinessException || e instanceof TransientDataAccessException),
+                results.toString());
+        assertEquals(1L, loanRepository.countByBookId(book.getId()).block());
+    }
+}
@@ -2,6 +2,7 @@ package com.books.libraryapi.api;
 
 import com.books.libraryapi.api.exception.ApiErrors;
 import com.books.libraryapi.exception.BusinessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -28,8 +29,14 @@ public class ApplicationControllerAdvice {
     }
 
     @ExceptionHandler(ResponseStatusException.class)
-    public ResponseEntity handlerResponseStatusException(ResponseStatusException ex){
-        return new ResponseEntity(new ApiErrors(ex), ex.getStatusCode());
+    public ResponseEntity<ApiErrors> handlerResponseStatusException(ResponseStatusException ex){
+        return new ResponseEntity<>(new ApiErrors(ex), ex.getStatusCode());
+    }
 
+    // Another request changed the same row between this one's read and its write.
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ApiErrors handleOptimisticLockingFailure(OptimisticLockingFailureException ex){
+        return new ApiErrors("The resource was changed by another request, reload it and retry.");
     }
 }
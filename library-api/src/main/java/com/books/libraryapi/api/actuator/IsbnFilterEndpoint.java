@@ -0,0 +1,30 @@
+package com.books.libraryapi.api.actuator;
+
+import com.books.libraryapi.service.impl.IsbnBloomFilter;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@Endpoint(id = "isbnfilter")
+public class IsbnFilterEndpoint {
+
+    private final IsbnBloomFilter isbnFilter;
+
+    public IsbnFilterEndpoint(IsbnBloomFilter isbnFilter) {
+        this.isbnFilter = isbnFilter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return isbnFilter.stats();
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild() {
+        return isbnFilter.rebuild();
+    }
+}
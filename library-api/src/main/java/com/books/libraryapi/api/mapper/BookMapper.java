@@ -0,0 +1,17 @@
+package com.books.libraryapi.api.mapper;
+
+import com.books.libraryapi.api.dto.BookDTO;
+import com.books.libraryapi.model.entity.Book;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface BookMapper {
+
+    BookDTO toDTO(Book book);
+
+    @Mapping(target = "loans", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    Book toEntity(BookDTO dto);
+}
@@ -0,0 +1,20 @@
+package com.books.libraryapi.api.mapper;
+
+import com.books.libraryapi.api.dto.LoanDTO;
+import com.books.libraryapi.api.dto.LoanExportDTO;
+import com.books.libraryapi.model.entity.Loan;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, uses = BookMapper.class)
+public interface LoanMapper {
+
+    // isbn stays empty on reads, the book travels in the nested BookDTO.
+    @Mapping(target = "email", source = "customerEmail")
+    @Mapping(target = "isbn", ignore = true)
+    LoanDTO toDTO(Loan loan);
+
+    @Mapping(target = "email", source = "customerEmail")
+    LoanExportDTO toExportDTO(Loan loan);
+}
@@ -0,0 +1,251 @@
+package com.books.libraryapi.api.resource;
+
+import com.books.libraryapi.api.dto.BookAvailabilityDTO;
+import com.books.libraryapi.api.dto.BookDTO;
+import com.books.libraryapi.api.dto.BookImportReportDTO;
+import com.books.libraryapi.api.dto.CursorPageDTO;
+import com.books.libraryapi.api.dto.LoanDTO;
+import com.books.libraryapi.api.dto.SliceDTO;
+import com.books.libraryapi.api.mapper.BookMapper;
+import com.books.libraryapi.api.mapper.LoanMapper;
+import com.books.libraryapi.model.entity.Book;
+import com.books.libraryapi.model.entity.Loan;
+import com.books.libraryapi.service.BookImportService;
+import com.books.libraryapi.service.BookService;
+import com.books.libraryapi.service.ExportService;
+import com.books.libraryapi.service.LoanService;
+import com.books.libraryapi.service.RowFormat;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+
+@RestController
+@RequestMapping("/api/books")
+@Slf4j
+public class BookController {
+
+    private static final KeysetCursor CURSOR = new KeysetCursor(Map.of(
+            "id", Long::valueOf,
+            "isbn", value -> value));
+
+    private final BookService service;
+    private final BookMapper bookMapper;
+    private final LoanMapper loanMapper;
+    private final LoanService loanService;
+    private final BookImportService importService;
+    private final ExportService exportService;
+
+    public BookController(BookService service, BookMapper bookMapper, LoanMapper loanMapper,
+                          LoanService loanService, BookImportService importService, ExportService exportService) {
+        this.service = service;
+        this.bookMapper = bookMapper;
+        this.loanMapper = loanMapper;
+        this.loanService = loanService;
+        this.importService = importService;
+        this.exportService = exportService;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(description = "Create a new Book")
+    public BookDTO create(@RequestBody @Valid BookDTO dto){
+        log.info("Create a book for ISBN: {}", dto.getIsbn());
+        Book entity = bookMapper.toEntity(dto);
+        entity = service.save(entity);
+        return bookMapper.toDTO(entity);
+    }
+
+    @PostMapping(value = "/import", consumes = {RowFormat.NDJSON_VALUE, RowFormat.CSV_VALUE})
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(description = "Import Books from a NDJSON or CSV stream")
+    public BookImportReportDTO importBooks(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                           InputStream body) throws IOException {
+        RowFormat format = RowFormat.of(MediaType.parseMediaType(contentType));
+        log.info("Importing books from a {} stream", format);
+        return importService.importBooks(body, format);
+    }
+
+    @GetMapping(value = "/export", produces = {RowFormat.NDJSON_VALUE, RowFormat.CSV_VALUE})
+    @Operation(description = "Export all Books as a NDJSON or CSV stream")
+    public void exportBooks(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                            HttpServletResponse response) throws IOException {
+        RowFormat format = RowFormat.accepting(accept == null ? List.of() : MediaType.parseMediaTypes(accept));
+        log.info("Exporting books as a {} stream", format);
+        response.setContentType(format.getMediaType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("books." + format.getExtension()).build().toString());
+        long rows = exportService.exportBooks(format, response.getOutputStream());
+        log.info("Exported {} books", rows);
+    }
+
+    @PostMapping("/availability")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(description = "Get the availability of a list of isbns")
+    public List<BookAvailabilityDTO> availability(@RequestBody List<String> isbns){
+        log.info("Getting the availability of {} isbns", isbns.size());
+        return loanService.getAvailability(isbns);
+    }
+
+    @GetMapping("/search")
+    @Operation(description = "Search Books by words of the title or author, best matches first")
+    public List<BookDTO> search(@RequestParam("q") String query, @RequestParam(defaultValue = "20") int size){
+        log.info("Searching books for: {}", query);
+        if (size < 1 || size > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Size must be between 1 and 100");
+        }
+        return service.search(query, size).stream()
+                .map(bookMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    // A poll whose If-None-Match still holds is answered 304 from the version alone, before the book is loaded.
+    @GetMapping("/{id}")
+    @Operation(description = "Get book by Id")
+    public ResponseEntity<BookDTO> get(@PathVariable Long id, WebRequest request){
+        log.info("Getting a book with id: {}", id);
+        Optional<Long> version = service.getVersion(id);
+        if (version.isPresent() && request.checkNotModified(ETags.of(version.get()))) {
+            return null;
+        }
+        Book book = service.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        return ETags.ok(book.getVersion()).body(bookMapper.toDTO(book));
+    }
+
+    // With If-Match the update only applies to the version the client read, otherwise 412.
+    @PutMapping("/{id}")
+    @Operation(description = "Update Book by Id")
+    public ResponseEntity<BookDTO> update(@PathVariable Long id, @RequestBody @Valid BookDTO bookDTO,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        log.info("Updating a book with id: {}", id);
+        Book book = service.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        if (ifMatch != null && !ETags.matches(ifMatch, book.getVersion())) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED);
+        }
+        book.setAuthor(bookDTO.getAuthor());
+        book.setTitle(bookDTO.getTitle());
+        try {
+            book = service.update(book);
+        } catch (OptimisticLockingFailureException e) {
+            // Changed by someone else between the read above and the write.
+            throw new ResponseStatusException(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT);
+        }
+        return ETags.ok(book.getVersion()).body(bookMapper.toDTO(book));
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(description = "Delete book by Id")
+    public void delete(@PathVariable long id) throws Exception{
+        log.info("Deleting a book with id: {}", id);
+        Book book = service.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        service.delete(book);
+    }
+
+    @GetMapping
+    @Operation(description = "Get Books as list")
+    public PageImpl<BookDTO> find(BookDTO dto, Pageable pageable){
+        log.info("Getting a list of books");
+        Book filter = bookMapper.toEntity(dto);
+        Page<Book> result = service.find(filter, pageable);
+        List<BookDTO> list = result.getContent().stream()
+                .map(entity -> bookMapper.toDTO(entity))
+                .collect(Collectors.toList());
+
+        return new PageImpl<BookDTO>(list, pageable, result.getTotalElements());
+    }
+
+    @GetMapping(params = {"slice=true", "!cursor"})
+    @Operation(description = "Get Books as list without the total count")
+    public SliceDTO<BookDTO> findSlice(BookDTO dto, Pageable pageable){
+        log.info("Getting a slice of books");
+        Book filter = bookMapper.toEntity(dto);
+        Slice<Book> result = service.findSlice(filter, pageable);
+        return SliceDTO.of(result, bookMapper::toDTO);
+    }
+
+    @GetMapping(params = "cursor")
+    @Operation(description = "Get Books as list, paging with a continuation cursor")
+    public CursorPageDTO<BookDTO> findByCursor(BookDTO dto, @RequestParam(required = false) String cursor,
+                                               Pageable pageable){
+        log.info("Getting a list of books by cursor");
+        KeysetCursor.Request request = CURSOR.read(cursor, pageable.getSort());
+        Book filter = bookMapper.toEntity(dto);
+        Window<Book> result = service.scroll(filter, request.position(), request.sort(), pageable.getPageSize());
+        List<BookDTO> list = result.getContent().stream()
+                .map(entity -> bookMapper.toDTO(entity))
+                .collect(Collectors.toList());
+
+        return CursorPageDTO.<BookDTO>builder()
+                .content(list)
+                .size(list.size())
+                .hasNext(result.hasNext())
+                .nextCursor(CURSOR.next(result, request.sort()))
+                .build();
+    }
+
+    @GetMapping("/{id}/loans")
+    @Operation(description = "Get loans by Book")
+    public ResponseEntity<Page<LoanDTO>> loansByBook(@PathVariable Long id, Pageable pageable, WebRequest request){
+        log.info("Getting a list of loans for a specific book ");
+        Optional<String> etag = loansETag(id);
+        if (etag.isPresent() && request.checkNotModified(etag.get())) {
+            return null;
+        }
+        Book book = service.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        Page<Loan> result = loanService.getLoansByBook(book, pageable);
+        List<LoanDTO> list = result.getContent()
+                .stream()
+                .map(loanMapper::toDTO)
+                .collect(Collectors.toList());
+        return loansResponse(etag).body(new PageImpl<LoanDTO>(list, pageable, result.getTotalElements()));
+    }
+
+    @GetMapping(value = "/{id}/loans", params = "slice=true")
+    @Operation(description = "Get loans by Book without the total count")
+    public ResponseEntity<SliceDTO<LoanDTO>> loanSliceByBook(@PathVariable Long id, Pageable pageable,
+                                                             WebRequest request){
+        log.info("Getting a slice of loans for a specific book ");
+        Optional<String> etag = loansETag(id);
+        if (etag.isPresent() && request.checkNotModified(etag.get())) {
+            return null;
+        }
+        Book book = service.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        Slice<Loan> result = loanService.getLoanSliceByBook(book, pageable);
+        return loansResponse(etag).body(SliceDTO.of(result, loanMapper::toDTO));
+    }
+
+    // Each loan carries the book, so the list tag covers the book's version as well as its loans.
+    private Optional<String> loansETag(Long bookId) {
+        return service.getVersion(bookId).map(version -> ETags.of(version, loanService.getLoansChangeCount(bookId)));
+    }
+
+    private static ResponseEntity.BodyBuilder loansResponse(Optional<String> etag) {
+        return etag.map(tag -> ResponseEntity.ok().eTag(tag)).orElseGet(ResponseEntity::ok);
+    }
+
+}
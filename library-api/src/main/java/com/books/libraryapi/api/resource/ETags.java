@@ -0,0 +1,34 @@
+package com.books.libraryapi.api.resource;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+// Strong entity tags built from @Version values and change counts, e.g. "3" for a book or "3-12" for its loans.
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(long... parts) {
+        return Arrays.stream(parts).mapToObj(Long::toString).collect(Collectors.joining("-", "\"", "\""));
+    }
+
+    // 200 with the tag when the version is known; entities built outside JPA have none.
+    static ResponseEntity.BodyBuilder ok(Long version) {
+        return version == null ? ResponseEntity.ok() : ResponseEntity.ok().eTag(of(version));
+    }
+
+    // If-Match uses the strong comparison: weak tags never match, "*" matches any current representation.
+    static boolean matches(String ifMatch, Long version) {
+        if (version == null) {
+            return false;
+        }
+        String current = of(version);
+        return Arrays.stream(ifMatch.split(","))
+                .map(String::trim)
+                .anyMatch(tag -> tag.equals("*") || Objects.equals(tag, current));
+    }
+}
@@ -0,0 +1,111 @@
+package com.books.libraryapi.api.resource;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Function;
+
+// A cursor carries the sort it was issued for plus the sort key and id of the last row sent,
+// so the next page is a seek on an index instead of an offset scan.
+final class KeysetCursor {
+
+    private static final String ID = "id";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    // Sortable properties and how to read their key back; each one must be backed by an index ending in id.
+    private final Map<String, Function<String, Object>> properties;
+
+    KeysetCursor(Map<String, Function<String, Object>> properties) {
+        this.properties = properties;
+    }
+
+    Request read(String cursor, Sort requested) {
+        if (!StringUtils.hasText(cursor)) {
+            return new Request(sort(requested), ScrollPosition.keyset());
+        }
+        String[] parts;
+        try {
+            parts = new String(DECODER.decode(cursor), StandardCharsets.UTF_8).split("\n", -1);
+        } catch (IllegalArgumentException e) {
+            throw invalidCursor();
+        }
+        String[] order = parts[0].split(",");
+        if (order.length != 2 || !properties.containsKey(order[0])) {
+            throw invalidCursor();
+        }
+        Sort sort;
+        try {
+            sort = sort(Sort.by(Sort.Direction.valueOf(order[1]), order[0]));
+        } catch (IllegalArgumentException e) {
+            throw invalidCursor();
+        }
+        if (requested.isSorted() && !sort(requested).equals(sort)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor was issued for a different sort");
+        }
+        if (parts.length != sort.stream().count() + 1) {
+            throw invalidCursor();
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        int index = 1;
+        try {
+            for (Sort.Order sortOrder : sort) {
+                String value = URLDecoder.decode(parts[index++], StandardCharsets.UTF_8);
+                keys.put(sortOrder.getProperty(), properties.get(sortOrder.getProperty()).apply(value));
+            }
+        } catch (RuntimeException e) {
+            throw invalidCursor();
+        }
+        return new Request(sort, ScrollPosition.forward(keys));
+    }
+
+    String next(Window<?> window, Sort sort) {
+        if (!window.hasNext() || window.isEmpty()) {
+            return null;
+        }
+        KeysetScrollPosition position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+        Sort.Order primary = sort.iterator().next();
+        StringJoiner token = new StringJoiner("\n").add(primary.getProperty() + "," + primary.getDirection());
+        for (Sort.Order order : sort) {
+            token.add(URLEncoder.encode(String.valueOf(position.getKeys().get(order.getProperty())),
+                    StandardCharsets.UTF_8));
+        }
+        return ENCODER.encodeToString(token.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Sort sort(Sort requested) {
+        if (requested.isUnsorted()) {
+            return Sort.by(ID);
+        }
+        Iterator<Sort.Order> orders = requested.iterator();
+        Sort.Order order = orders.next();
+        if (orders.hasNext() || !properties.containsKey(order.getProperty())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Cursor pagination can only sort by one of " + properties.keySet());
+        }
+        // The id tie-breaker keeps the order total, so rows sharing a sort key are neither skipped nor repeated.
+        Sort sort = Sort.by(order.getDirection(), order.getProperty());
+        return ID.equals(order.getProperty()) ? sort : sort.and(Sort.by(order.getDirection(), ID));
+    }
+
+    private static ResponseStatusException invalidCursor() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+
+    record Request(Sort sort, ScrollPosition position) {
+    }
+}
@@ -0,0 +1,152 @@
+package com.books.libraryapi.api.resource;
+
+import com.books.libraryapi.api.dto.CursorPageDTO;
+import com.books.libraryapi.api.dto.LoanBatchResultDTO;
+import com.books.libraryapi.api.dto.LoanDTO;
+import com.books.libraryapi.api.dto.LoanFilterDTO;
+import com.books.libraryapi.api.dto.LoanReturnBatchDTO;
+import com.books.libraryapi.api.dto.LoanReturnResultDTO;
+import com.books.libraryapi.api.dto.ReturnedLoanDTO;
+import com.books.libraryapi.api.dto.SliceDTO;
+import com.books.libraryapi.api.mapper.LoanMapper;
+import com.books.libraryapi.model.entity.Book;
+import com.books.libraryapi.model.entity.Loan;
+import com.books.libraryapi.service.BookService;
+import com.books.libraryapi.service.ExportService;
+import com.books.libraryapi.service.LoanService;
+import com.books.libraryapi.service.RowFormat;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/loans")
+public class LoanController {
+
+    private static final KeysetCursor CURSOR = new KeysetCursor(Map.of(
+            "id", Long::valueOf,
+            "loanDate", LocalDate::parse));
+
+    private LoanService service;
+    private BookService bookService;
+    private LoanMapper loanMapper;
+    private ExportService exportService;
+
+    public LoanController(LoanService service, BookService bookService, LoanMapper loanMapper,
+                          ExportService exportService) {
+        this.service = service;
+        this.bookService = bookService;
+        this.loanMapper = loanMapper;
+        this.exportService = exportService;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(description = "Create a new Loan")
+    public Long create(@RequestBody LoanDTO dto){
+        Book book = bookService.getBookByIsbn(dto.getIsbn()).orElseThrow(
+                () -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Book not found for this isbn")
+        );
+
+        Loan entity = Loan.builder()
+                .book(book)
+                .customer(dto.getCustomer())
+                .loanDate(LocalDate.now())
+                .build();
+
+        entity = service.save(entity);
+
+        return entity.getId();
+    }
+
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(description = "Create a Loan for each isbn/customer pair")
+    public List<LoanBatchResultDTO> createBatch(@RequestBody List<LoanDTO> dtos){
+        return service.saveAll(dtos);
+    }
+
+    @PatchMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(description = "Get a loan by Id")
+    public void returnBook(@PathVariable Long id, @RequestBody ReturnedLoanDTO dto){
+        Loan loan = service.getByID(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        loan.setReturned(dto.getReturned());
+
+        service.update(loan);
+    }
+
+    @PostMapping("/returns")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(description = "Return the loans of a list of ids or isbns")
+    public List<LoanReturnResultDTO> returnBooks(@RequestBody LoanReturnBatchDTO dto){
+        return service.returnAll(dto);
+    }
+
+    @GetMapping
+    @Operation(description = "Get loans as list")
+    public Page<LoanDTO> find(LoanFilterDTO dto, Pageable pageable){
+        Page<Loan> result = service.find(dto, pageable);
+
+        List<LoanDTO> loans = result.getContent().stream()
+                .map(loanMapper::toDTO)
+                .collect(Collectors.toList());
+        return new PageImpl<LoanDTO>(loans, pageable, result.getTotalElements());
+    }
+
+    @GetMapping(params = {"slice=true", "!cursor"})
+    @Operation(description = "Get loans as list without the total count")
+    public SliceDTO<LoanDTO> findSlice(LoanFilterDTO dto, Pageable pageable){
+        Slice<Loan> result = service.findSlice(dto, pageable);
+        return SliceDTO.of(result, loanMapper::toDTO);
+    }
+
+    @GetMapping(params = "cursor")
+    @Operation(description = "Get loans as list, paging with a continuation cursor")
+    public CursorPageDTO<LoanDTO> findByCursor(LoanFilterDTO dto, @RequestParam(required = false) String cursor,
+                                               Pageable pageable){
+        KeysetCursor.Request request = CURSOR.read(cursor, pageable.getSort());
+        Window<Loan> result = service.scroll(dto, request.position(), request.sort(), pageable.getPageSize());
+
+        List<LoanDTO> loans = result.getContent().stream()
+                .map(loanMapper::toDTO)
+                .collect(Collectors.toList());
+        return CursorPageDTO.<LoanDTO>builder()
+                .content(loans)
+                .size(loans.size())
+                .hasNext(result.hasNext())
+                .nextCursor(CURSOR.next(result, request.sort()))
+                .build();
+    }
+
+    @GetMapping(value = "/export", produces = {RowFormat.NDJSON_VALUE, RowFormat.CSV_VALUE})
+    @Operation(description = "Export loans as a NDJSON or CSV stream")
+    public void exportLoans(LoanFilterDTO dto,
+                            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                            HttpServletResponse response) throws IOException {
+        RowFormat format = RowFormat.accepting(accept == null ? List.of() : MediaType.parseMediaTypes(accept));
+        response.setContentType(format.getMediaType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("loans." + format.getExtension()).build().toString());
+        exportService.exportLoans(dto, format, response.getOutputStream());
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.books.libraryapi.config;
+
+import com.books.libraryapi.diagnostics.DiagnosticDataSource;
+import com.books.libraryapi.diagnostics.EntityLoadCounter;
+import com.books.libraryapi.diagnostics.RequestStatementLogFilter;
+import com.books.libraryapi.diagnostics.SqlDiagnostics;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// SQL diagnostics behind /actuator/persistence: statement timing on the pool, entity load counting in
+// Hibernate and the per-request statement log. Hibernate statistics start from application.diagnostics.statistics.
+@Configuration
+public class DiagnosticsConfig {
+
+    @Bean
+    static BeanPostProcessor diagnosticDataSource(ObjectProvider<SqlDiagnostics> diagnostics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof DiagnosticDataSource)
+                        ? new DiagnosticDataSource(dataSource, diagnostics.getObject())
+                        : bean;
+            }
+        };
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer diagnosticHibernateProperties(
+            SqlDiagnostics diagnostics, @Value("${application.diagnostics.statistics:false}") boolean statistics) {
+        return properties -> {
+            properties.put(AvailableSettings.GENERATE_STATISTICS, statistics);
+            properties.put(AvailableSettings.INTERCEPTOR, new EntityLoadCounter(diagnostics));
+        };
+    }
+
+    @Bean
+    FilterRegistrationBean<RequestStatementLogFilter> requestStatementLogFilter(SqlDiagnostics diagnostics) {
+        return new FilterRegistrationBean<>(new RequestStatementLogFilter(diagnostics));
+    }
+}
@@ -0,0 +1,65 @@
+package com.books.libraryapi.config;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+// V2 adds ux_book_isbn, which the Hibernate generated schema that existing databases are baselined from
+// never had. Rather than let the ALTER fail on the first duplicate, this names the isbns to clean up.
+// Duplicates are not merged automatically: their loans would have to move to a book picked by guesswork.
+@Component
+public class DuplicateIsbnCheck implements Callback {
+
+    static final MigrationVersion UNIQUE_ISBN_VERSION = MigrationVersion.fromVersion("2");
+    private static final int EXAMPLES = 10;
+
+    @Override
+    public boolean supports(Event event, Context context) {
+        return event == Event.BEFORE_EACH_MIGRATE;
+    }
+
+    @Override
+    public boolean canHandleInTransaction(Event event, Context context) {
+        return true;
+    }
+
+    @Override
+    public void handle(Event event, Context context) {
+        MigrationInfo migration = context.getMigrationInfo();
+        if (migration == null || !UNIQUE_ISBN_VERSION.equals(migration.getVersion())) {
+            return;
+        }
+        List<String> duplicates = new ArrayList<>();
+        try (Statement statement = context.getConnection().createStatement();
+             ResultSet rows = statement.executeQuery(
+                     "SELECT isbn, COUNT(*) FROM book WHERE isbn IS NOT NULL GROUP BY isbn HAVING COUNT(*) > 1 " +
+                             "ORDER BY isbn")) {
+            while (rows.next()) {
+                duplicates.add(rows.getString(1) + " (" + rows.getLong(2) + " books)");
+            }
+        } catch (SQLException e) {
+            throw new FlywayException("Could not check book.isbn for duplicates before V2", e);
+        }
+        if (!duplicates.isEmpty()) {
+            throw new FlywayException(duplicates.size() + " isbns are shared by more than one book, so V2 cannot "
+                    + "add the unique constraint ux_book_isbn. Merge or renumber those books, moving their loans "
+                    + "to the book that is kept, and restart. First ones: "
+                    + String.join(", ", duplicates.subList(0, Math.min(EXAMPLES, duplicates.size()))));
+        }
+    }
+
+    @Override
+    public String getCallbackName() {
+        return "duplicate-isbn-check";
+    }
+}
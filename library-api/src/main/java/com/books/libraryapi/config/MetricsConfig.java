@@ -0,0 +1,42 @@
+package com.books.libraryapi.config;
+
+import com.books.libraryapi.exception.BusinessException;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Service methods are timed by @Timed(SERVICE_TIMER) on the service implementations and repository methods by
+// Spring Data's invocation listener; histograms and SLO buckets for both are set in application.properties.
+// This adds the same outcome tag to both, so a slow or failing call can be followed from service to query.
+@Configuration
+public class MetricsConfig {
+
+    public static final String SERVICE_TIMER = "library.service";
+    static final String REPOSITORY_TIMER = "spring.data.repository.invocations";
+
+    @Bean
+    MeterFilter outcomeTag() {
+        return new MeterFilter() {
+            @Override
+            public Meter.Id map(Meter.Id id) {
+                if (SERVICE_TIMER.equals(id.getName())) {
+                    return id.withTag(Tag.of("outcome", outcome(id.getTag("exception"))));
+                }
+                if (REPOSITORY_TIMER.equals(id.getName()) && id.getTag("state") != null) {
+                    return id.withTag(Tag.of("outcome", id.getTag("state")));
+                }
+                return id;
+            }
+        };
+    }
+
+    // TimedAspect tags the simple name of the thrown exception, or "none".
+    static String outcome(String exception) {
+        if (exception == null || "none".equals(exception)) {
+            return "SUCCESS";
+        }
+        return BusinessException.class.getSimpleName().equals(exception) ? "BUSINESS_ERROR" : "ERROR";
+    }
+}
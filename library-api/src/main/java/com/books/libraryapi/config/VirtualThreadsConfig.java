@@ -0,0 +1,31 @@
+package com.books.libraryapi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+// spring.threads.virtual.enabled=true on Java 21+ moves Tomcat requests, @Scheduled tasks and the application
+// task executor onto virtual threads (MailDispatcher follows the same switch). Blocking threads are then
+// free, but the connection pool is not: the requests allowed in flight are sized from it here. Only /api is
+// limited, so health probes still answer while a busy node sheds API requests.
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    @Bean
+    FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            @Value("${application.http.max-concurrent-requests:64}") int maxConcurrentRequests,
+            @Value("${application.http.queue-timeout:2s}") Duration queueTimeout) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(maxConcurrentRequests, queueTimeout));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
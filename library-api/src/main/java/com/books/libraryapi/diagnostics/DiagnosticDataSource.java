@@ -0,0 +1,126 @@
+package com.books.libraryapi.diagnostics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+// Times and counts every statement executed through the pool and, while the slow-query log is on, records the
+// shape of its bound parameters. Connections and statements are JDK proxies over the pool's own; unwrap still
+// reaches Hikari, so its metrics and JMX beans are unaffected.
+public class DiagnosticDataSource extends DelegatingDataSource {
+
+    private final SqlDiagnostics diagnostics;
+
+    public DiagnosticDataSource(DataSource target, SqlDiagnostics diagnostics) {
+        super(target);
+        this.diagnostics = diagnostics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection connection(Connection target) {
+        return proxy(Connection.class, target, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                // prepareStatement and prepareCall take the SQL first; createStatement gets it on execute.
+                String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                return proxy(method.getReturnType(), statement, new StatementHandler(statement, sql));
+            }
+            return result;
+        });
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String sql;
+        private final List<String> parameters = new ArrayList<>();
+        private int batchSize;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                String executed = sql != null || args == null || args.length == 0 || !(args[0] instanceof String text)
+                        ? sql : text;
+                boolean batch = name.equals("executeBatch");
+                long start = System.nanoTime();
+                try {
+                    return DiagnosticDataSource.invoke(target, method, args);
+                } finally {
+                    diagnostics.executed(executed, parameters, batch ? batchSize : 1, System.nanoTime() - start);
+                    if (batch) {
+                        batchSize = 0;
+                    }
+                }
+            }
+            if (name.equals("addBatch")) {
+                batchSize++;
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index
+                    && diagnostics.isSlowQueryLog()) {
+                while (parameters.size() < index) {
+                    parameters.add("?");
+                }
+                parameters.set(index - 1, shape(name, args[1]));
+            }
+            return DiagnosticDataSource.invoke(target, method, args);
+        }
+    }
+
+    static String shape(String setter, Object value) {
+        if (value == null || setter.equals("setNull")) {
+            return "null";
+        }
+        String type = setter.equals("setObject") ? value.getClass().getSimpleName() : setter.substring(3);
+        if (value instanceof CharSequence text) {
+            return type + "(" + text.length() + ")";
+        }
+        if (value instanceof byte[] bytes) {
+            return type + "(" + bytes.length + ")";
+        }
+        return type;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(DiagnosticDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> args[0] == proxy;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "Diagnostic[" + target + "]";
+                    default -> handler.invoke(proxy, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.books.libraryapi.diagnostics;
+
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+// Counts the entities each request loads into its persistence context.
+public class EntityLoadCounter implements Interceptor {
+
+    private final SqlDiagnostics diagnostics;
+
+    public EntityLoadCounter(SqlDiagnostics diagnostics) {
+        this.diagnostics = diagnostics;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        diagnostics.entityLoaded();
+        return false;
+    }
+}
@@ -0,0 +1,108 @@
+package com.books.libraryapi.diagnostics;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// /actuator/persistence: Hibernate session and per-query statistics plus the slow-query log. A POST changes the
+// switches without a restart, e.g. {"statistics": true, "slowQueryThreshold": "50ms", "requestLog": true};
+// a DELETE clears what was collected so far.
+@Component
+@Endpoint(id = "persistence")
+public class PersistenceEndpoint {
+
+    public record Settings(boolean statistics, boolean slowQueryLog, Duration slowQueryThreshold,
+                           boolean requestLog) {
+    }
+
+    public record QueryStats(long executions, long rows, long averageMillis, long maxMillis, long minMillis,
+                             long cacheHits, long cacheMisses) {
+    }
+
+    public record Report(Settings settings, Map<String, Long> session, Map<String, QueryStats> queries,
+                         List<SqlDiagnostics.SlowQuery> slowQueries) {
+    }
+
+    private final Statistics statistics;
+    private final SqlDiagnostics diagnostics;
+
+    public PersistenceEndpoint(EntityManagerFactory entityManagerFactory, SqlDiagnostics diagnostics) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.diagnostics = diagnostics;
+    }
+
+    @ReadOperation
+    public Report report() {
+        Map<String, QueryStats> queries = new TreeMap<>();
+        for (String query : statistics.getQueries()) {
+            QueryStatistics stats = statistics.getQueryStatistics(query);
+            queries.put(query, new QueryStats(stats.getExecutionCount(), stats.getExecutionRowCount(),
+                    stats.getExecutionAvgTime(), stats.getExecutionMaxTime(), stats.getExecutionMinTime(),
+                    stats.getCacheHitCount(), stats.getCacheMissCount()));
+        }
+        return new Report(settings(), session(), queries, diagnostics.slowQueries());
+    }
+
+    @WriteOperation
+    public Settings configure(@Nullable Boolean statistics, @Nullable Boolean slowQueryLog,
+                              @Nullable Duration slowQueryThreshold, @Nullable Boolean requestLog) {
+        if (statistics != null) {
+            this.statistics.setStatisticsEnabled(statistics);
+        }
+        if (slowQueryLog != null) {
+            diagnostics.setSlowQueryLog(slowQueryLog);
+        }
+        if (slowQueryThreshold != null) {
+            diagnostics.setSlowQueryThreshold(slowQueryThreshold);
+        }
+        if (requestLog != null) {
+            diagnostics.setRequestLog(requestLog);
+        }
+        return settings();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        statistics.clear();
+        diagnostics.clearSlowQueries();
+    }
+
+    private Settings settings() {
+        return new Settings(statistics.isStatisticsEnabled(), diagnostics.isSlowQueryLog(),
+                diagnostics.getSlowQueryThreshold(), diagnostics.isRequestLog());
+    }
+
+    private Map<String, Long> session() {
+        Map<String, Long> session = new LinkedHashMap<>();
+        session.put("sessionsOpened", statistics.getSessionOpenCount());
+        session.put("sessionsClosed", statistics.getSessionCloseCount());
+        session.put("transactions", statistics.getTransactionCount());
+        session.put("connectionsObtained", statistics.getConnectCount());
+        session.put("statementsPrepared", statistics.getPrepareStatementCount());
+        session.put("flushes", statistics.getFlushCount());
+        session.put("entitiesLoaded", statistics.getEntityLoadCount());
+        session.put("entitiesFetched", statistics.getEntityFetchCount());
+        session.put("entitiesInserted", statistics.getEntityInsertCount());
+        session.put("entitiesUpdated", statistics.getEntityUpdateCount());
+        session.put("entitiesDeleted", statistics.getEntityDeleteCount());
+        session.put("collectionsLoaded", statistics.getCollectionLoadCount());
+        session.put("collectionsFetched", statistics.getCollectionFetchCount());
+        session.put("queriesExecuted", statistics.getQueryExecutionCount());
+        session.put("queryMaxMillis", statistics.getQueryExecutionMaxTime());
+        session.put("optimisticFailures", statistics.getOptimisticFailureCount());
+        return session;
+    }
+}
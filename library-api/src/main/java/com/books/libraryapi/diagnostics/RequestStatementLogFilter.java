@@ -0,0 +1,43 @@
+package com.books.libraryapi.diagnostics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// While the request log is on, writes one line per request with the statements it issued and the entities it
+// loaded, e.g. to find the endpoint behind an N+1 pattern in appfile.log.
+@Slf4j
+public class RequestStatementLogFilter extends OncePerRequestFilter {
+
+    private final SqlDiagnostics diagnostics;
+
+    public RequestStatementLogFilter(SqlDiagnostics diagnostics) {
+        this.diagnostics = diagnostics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!diagnostics.isRequestLog()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        SqlDiagnostics.RequestStats stats = diagnostics.beginRequest();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            diagnostics.endRequest();
+            log.info("{} {} {}: {} statements in {} ms, {} entities loaded, {} ms total", request.getMethod(),
+                    request.getRequestURI(), response.getStatus(), stats.getStatements(),
+                    TimeUnit.NANOSECONDS.toMillis(stats.getStatementNanos()), stats.getEntitiesLoaded(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+}
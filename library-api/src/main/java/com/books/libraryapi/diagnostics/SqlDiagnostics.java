@@ -0,0 +1,109 @@
+package com.books.libraryapi.diagnostics;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// What DiagnosticDataSource and EntityLoadCounter see of the SQL a node runs, and the switches deciding what is
+// kept of it. The switches start from application.diagnostics.* and are flipped at runtime through the
+// persistence actuator endpoint.
+@Component
+@Slf4j
+public class SqlDiagnostics {
+
+    public record SlowQuery(Instant at, long millis, String sql, List<String> parameters, int batchSize) {
+    }
+
+    // Counts of the request running on the current thread, see RequestStatementLogFilter.
+    @Getter
+    public static final class RequestStats {
+
+        private int statements;
+        private long statementNanos;
+        private int entitiesLoaded;
+    }
+
+    private final ThreadLocal<RequestStats> request = new ThreadLocal<>();
+    private final Deque<SlowQuery> slowQueries = new ArrayDeque<>();
+    private final int slowQueryCapacity;
+
+    @Getter
+    @Setter
+    private volatile boolean slowQueryLog;
+    @Getter
+    @Setter
+    private volatile Duration slowQueryThreshold;
+    @Getter
+    @Setter
+    private volatile boolean requestLog;
+
+    public SqlDiagnostics(@Value("${application.diagnostics.slow-query-log:true}") boolean slowQueryLog,
+                          @Value("${application.diagnostics.slow-query-threshold:200ms}") Duration slowQueryThreshold,
+                          @Value("${application.diagnostics.slow-query-capacity:100}") int slowQueryCapacity,
+                          @Value("${application.diagnostics.request-log:false}") boolean requestLog) {
+        this.slowQueryLog = slowQueryLog;
+        this.slowQueryThreshold = slowQueryThreshold;
+        this.slowQueryCapacity = slowQueryCapacity;
+        this.requestLog = requestLog;
+    }
+
+    // Parameter shapes are types and lengths only, never values, so the log carries no customer data.
+    void executed(String sql, List<String> parameters, int batchSize, long nanos) {
+        RequestStats stats = request.get();
+        if (stats != null) {
+            stats.statements++;
+            stats.statementNanos += nanos;
+        }
+        if (slowQueryLog && nanos >= slowQueryThreshold.toNanos()) {
+            SlowQuery slowQuery = new SlowQuery(Instant.now(), TimeUnit.NANOSECONDS.toMillis(nanos), sql,
+                    List.copyOf(parameters), batchSize);
+            log.warn("Slow query took {} ms with parameters {} (batch of {}): {}", slowQuery.millis(),
+                    slowQuery.parameters(), batchSize, sql);
+            synchronized (slowQueries) {
+                if (slowQueries.size() == slowQueryCapacity) {
+                    slowQueries.removeFirst();
+                }
+                slowQueries.addLast(slowQuery);
+            }
+        }
+    }
+
+    void entityLoaded() {
+        RequestStats stats = request.get();
+        if (stats != null) {
+            stats.entitiesLoaded++;
+        }
+    }
+
+    RequestStats beginRequest() {
+        RequestStats stats = new RequestStats();
+        request.set(stats);
+        return stats;
+    }
+
+    void endRequest() {
+        request.remove();
+    }
+
+    public List<SlowQuery> slowQueries() {
+        synchronized (slowQueries) {
+            return new ArrayList<>(slowQueries);
+        }
+    }
+
+    public void clearSlowQueries() {
+        synchronized (slowQueries) {
+            slowQueries.clear();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.books.libraryapi.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+// Rows are written by BookChangeRepository.record and only read back by the availability refresh.
+public class BookChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long bookId;
+
+    // Set by the database, so nodes with skewed clocks agree on the order of changes.
+    @Column(nullable = false, insertable = false, updatable = false)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,45 @@
+package com.books.libraryapi.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+public class JobCheckpoint {
+
+    @Id
+    @Column(length = 100)
+    private String job;
+
+    @Column(nullable = false)
+    private LocalDate runDate;
+
+    // Keyset position of the last row handled by a committed chunk of this run: (lastKey, lastId) for jobs
+    // ordered by a string key, lastId alone otherwise.
+    @Column
+    private String lastKey;
+
+    @Column(nullable = false)
+    private Long lastId;
+
+    @Column(nullable = false)
+    private Boolean completed;
+
+    // Node holding the lease on this partition of the job, and until when; see JobLeases.
+    @Column(length = 100)
+    private String owner;
+
+    @Column
+    private LocalDateTime leaseUntil;
+}
@@ -0,0 +1,70 @@
+package com.books.libraryapi.model.entity;
+
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+// The schema, indexes included, is owned by the Flyway migrations in db/migration.
+public class Loan implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // Stored in customer_partition, so changing it requires a migration that recomputes the column.
+    public static final int CUSTOMER_PARTITIONS = 16;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_seq")
+    @SequenceGenerator(name = "loan_seq", sequenceName = "loan_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(length = 100)
+    private String customer;
+
+    @Column(name = "customer_email")
+    private String customerEmail;
+
+    // Read paths ask for the book through an entity graph or fetch join when they need it.
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @JoinColumn(name = "book_id")
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Book book;
+
+    @Column
+    private LocalDate loanDate;
+
+    @Column
+    private Boolean returned;
+
+    @Version
+    private Long version;
+
+    // Late-loan partition of the customer, kept in step with customerEmail.
+    @Column
+    private Integer customerPartition;
+
+    @PrePersist
+    @PreUpdate
+    void assignCustomerPartition() {
+        customerPartition = customerEmail == null ? null : partitionOf(customerEmail);
+    }
+
+    public static int partitionOf(String customerEmail) {
+        return Math.floorMod(customerEmail.hashCode(), CUSTOMER_PARTITIONS);
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.books.libraryapi.model.repository;
+
+import com.books.libraryapi.model.entity.BookChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+
+// The change log behind BookAvailabilityIndex. record has to run in the transaction that changes the books,
+// before a delete, since it copies the ids of the book rows that still exist.
+public interface BookChangeRepository extends JpaRepository<BookChange, Long> {
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying(flushAutomatically = true)
+    @Query(value = "insert into book_change (book_id) select b.id from book b where b.id in (:bookIds)",
+            nativeQuery = true)
+    int record(@Param("bookIds") Collection<Long> bookIds);
+
+    @Query(value = "select localtimestamp", nativeQuery = true)
+    LocalDateTime now();
+
+    @Query(value = "select distinct c.bookId from BookChange c where c.changedAt > :since")
+    Set<Long> findBookIdsChangedAfter(@Param("since") LocalDateTime since);
+
+    @Transactional
+    @Modifying
+    @Query(value = "delete from BookChange c where c.changedAt < :before")
+    int deleteChangedBefore(@Param("before") LocalDateTime before);
+}
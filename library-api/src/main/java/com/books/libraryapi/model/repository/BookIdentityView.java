@@ -0,0 +1,8 @@
+package com.books.libraryapi.model.repository;
+
+public interface BookIdentityView {
+
+    Long getId();
+
+    String getIsbn();
+}
@@ -0,0 +1,58 @@
+package com.books.libraryapi.model.repository;
+
+import com.books.libraryapi.model.entity.Book;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public interface BookRepository extends JpaRepository<Book, Long>, BookRepositoryCustom {
+
+    boolean existsByIsbn(String isbn);
+
+    Optional<Book> findByIsbn(String isbn);
+
+    @Query("select b.version from Book b where b.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query(value = "select b.isbn from Book b where b.isbn in :isbns")
+    Set<String> findIsbnsByIsbnIn(@Param("isbns") Collection<String> isbns);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "select b.isbn from Book b")
+    Stream<String> streamAllIsbns();
+
+    @Query(value = "select b.id as id, b.isbn as isbn from Book b where b.id in :ids")
+    List<BookIdentityView> findIdentitiesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "select b.id as id, b.isbn as isbn from Book b")
+    Stream<BookIdentityView> streamAllIdentities();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "select b.id as id, b.title as title, b.author as author from Book b")
+    Stream<BookTextView> streamAllTexts();
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query(value = "select b from Book b order by b.id")
+    Stream<Book> streamAll();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Book> findForLoanByIsbnIn(Collection<String> isbns);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Book> findForLoanById(Long id);
+
+}
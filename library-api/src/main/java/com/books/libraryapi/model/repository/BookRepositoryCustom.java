@@ -0,0 +1,15 @@
+package com.books.libraryapi.model.repository;
+
+import com.books.libraryapi.model.entity.Book;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+public interface BookRepositoryCustom {
+
+    void saveAllInBatch(List<Book> books);
+
+    Slice<Book> findSlice(Example<Book> example, Pageable pageable);
+}
@@ -0,0 +1,10 @@
+package com.books.libraryapi.model.repository;
+
+public interface BookTextView {
+
+    Long getId();
+
+    String getTitle();
+
+    String getAuthor();
+}
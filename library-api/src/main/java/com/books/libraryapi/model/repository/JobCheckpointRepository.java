@@ -0,0 +1,58 @@
+package com.books.libraryapi.model.repository;
+
+import com.books.libraryapi.model.entity.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// The updates below are conditional so that concurrent nodes coordinate through the rows they change:
+// an update that matches no row lost the race and leaves the checkpoint alone.
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+
+    long countByJobStartingWithAndRunDate(String prefix, LocalDate runDate);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "insert into JobCheckpoint (job, runDate, lastKey, lastId, completed) " +
+            "values (:job, :runDate, '', 0, false)")
+    int create(@Param("job") String job, @Param("runDate") LocalDate runDate);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update JobCheckpoint c set c.runDate = :runDate, c.lastKey = '', c.lastId = 0, " +
+            "c.completed = false, c.owner = null, c.leaseUntil = null where c.job = :job and c.runDate < :runDate")
+    int restart(@Param("job") String job, @Param("runDate") LocalDate runDate);
+
+    @Query(value = "select c.job from JobCheckpoint c where c.job like :prefix and c.runDate = :runDate " +
+            "and c.completed = false and (c.owner is null or c.leaseUntil < :now)")
+    List<String> findClaimable(@Param("prefix") String prefix, @Param("runDate") LocalDate runDate,
+                               @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update JobCheckpoint c set c.owner = :owner, c.leaseUntil = :leaseUntil " +
+            "where c.job = :job and c.runDate = :runDate and c.completed = false " +
+            "and (c.owner is null or c.leaseUntil < :now)")
+    int claim(@Param("job") String job, @Param("runDate") LocalDate runDate, @Param("owner") String owner,
+              @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update JobCheckpoint c set c.leaseUntil = :leaseUntil " +
+            "where c.job = :job and c.owner = :owner and c.completed = false")
+    int renew(@Param("job") String job, @Param("owner") String owner, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update JobCheckpoint c set c.lastKey = :lastKey, c.lastId = :lastId, c.completed = :completed, " +
+            "c.leaseUntil = :leaseUntil where c.job = :job and c.owner = :owner")
+    int advance(@Param("job") String job, @Param("owner") String owner, @Param("lastKey") String lastKey,
+                @Param("lastId") long lastId, @Param("completed") boolean completed,
+                @Param("leaseUntil") LocalDateTime leaseUntil);
+}
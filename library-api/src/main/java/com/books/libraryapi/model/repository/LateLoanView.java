@@ -0,0 +1,16 @@
+package com.books.libraryapi.model.repository;
+
+import java.time.LocalDate;
+
+public interface LateLoanView {
+
+    Long getId();
+
+    String getCustomer();
+
+    String getCustomerEmail();
+
+    String getBookTitle();
+
+    LocalDate getLoanDate();
+}
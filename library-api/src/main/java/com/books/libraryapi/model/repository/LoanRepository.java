@@ -0,0 +1,146 @@
+package com.books.libraryapi.model.repository;
+
+import com.books.libraryapi.model.entity.Book;
+import com.books.libraryapi.model.entity.Loan;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public interface LoanRepository extends JpaRepository<Loan, Long>, JpaSpecificationExecutor<Loan> {
+
+    String ISBN_OR_CUSTOMER_IDS = "select bl.id from Loan bl join bl.book b where b.isbn = :isbn "
+            + "union select cl.id from Loan cl where cl.customer = :customer";
+
+    @Query(value = " select case when (count(l.id) > 0 ) then true else false end " +
+            "from Loan l where l.book =:book and (l.returned is null or l.returned is not true)")
+    boolean existsByBookAndNotReturned(@Param("book") Book book);
+
+    // Grows with every loan added to the book and every change to one of them (each bumps the loan's version),
+    // so it tags the book's loan list. Loans are never deleted on their own, which would make it shrink.
+    @Query(value = "select count(l) + coalesce(sum(l.version), 0) from Loan l where l.book.id = :bookId")
+    long changeCountByBookId(@Param("bookId") Long bookId);
+
+    @Query(value = "select l.book.id from Loan l where l.book.id in :bookIds and (l.returned is null or l.returned is not true)")
+    Set<Long> findBookIdsNotReturned(@Param("bookIds") Collection<Long> bookIds);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "select l.book.id from Loan l where l.returned is null or l.returned is not true")
+    Stream<Long> streamBookIdsNotReturned();
+
+    // The union lets each branch use its own index; a plain "or" across loan and book scans every loan.
+    @EntityGraph(attributePaths = "book")
+    @Query(value = "select l from Loan as l where l.id in (" + ISBN_OR_CUSTOMER_IDS + ")",
+            countQuery = "select count(l) from Loan as l where l.id in (" + ISBN_OR_CUSTOMER_IDS + ")")
+    Page<Loan> findByBookIsbnOrCustomer(
+            @Param("isbn") String isbn,
+            @Param("customer") String customer,
+            Pageable pageable);
+
+    @EntityGraph(attributePaths = "book")
+    @Query(value = "select l from Loan as l where l.id in (" + ISBN_OR_CUSTOMER_IDS + ")")
+    Slice<Loan> findSliceByBookIsbnOrCustomer(
+            @Param("isbn") String isbn,
+            @Param("customer") String customer,
+            Pageable pageable);
+
+    @EntityGraph(attributePaths = "book")
+    Page<Loan> findByBook(Book book, Pageable pageable);
+
+    @EntityGraph(attributePaths = "book")
+    Slice<Loan> findSliceByBook(Book book, Pageable pageable);
+
+    // Missing filters are ignored, so without isbn and customer this walks the whole loan history.
+    default Window<Loan> scrollByBookIsbnOrCustomer(String isbn, String customer, ScrollPosition position,
+                                                     Sort sort, int limit) {
+        Specification<Loan> filter = (root, query, cb) -> {
+            if (Loan.class.equals(query.getResultType())) {
+                root.fetch("book", JoinType.INNER);
+            }
+            // The ISBN_OR_CUSTOMER_IDS union, so each filter seeks its own index under the keyset predicate.
+            List<Subquery<Long>> branches = new ArrayList<>();
+            if (isbn != null) {
+                Subquery<Long> byIsbn = query.subquery(Long.class);
+                Root<Loan> loan = byIsbn.from(Loan.class);
+                branches.add(byIsbn.select(loan.get("id")).where(cb.equal(loan.join("book").get("isbn"), isbn)));
+            }
+            if (customer != null) {
+                Subquery<Long> byCustomer = query.subquery(Long.class);
+                Root<Loan> loan = byCustomer.from(Loan.class);
+                branches.add(byCustomer.select(loan.get("id")).where(cb.equal(loan.get("customer"), customer)));
+            }
+            return switch (branches.size()) {
+                case 0 -> cb.conjunction();
+                case 1 -> root.get("id").in(branches.get(0));
+                default -> root.get("id").in(((HibernateCriteriaBuilder) cb).union(branches.get(0), branches.get(1)));
+            };
+        };
+        return findBy(filter, query -> query.sortBy(sort).limit(limit).scroll(position));
+    }
+
+    // Keyset chunk of one customer partition's mailable open loans due on or before dueDate, in
+    // (customerEmail, id) order so that each customer's loans arrive together. The row value comparison lets
+    // the database seek idx_loan_customer_partition and read it in order instead of sorting every late loan;
+    // the constant partition leads the order by only so that it matches the index.
+    @Query(value = "select l.id as id, l.customer as customer, l.customerEmail as customerEmail, " +
+            "b.title as bookTitle, l.loanDate as loanDate from Loan l join l.book b " +
+            "where l.customerPartition = :partition and (l.customerEmail, l.id) > (:afterEmail, :afterId) " +
+            "and l.loanDate <= :dueDate and (l.returned is null or l.returned is false) " +
+            "order by l.customerPartition, l.customerEmail, l.id")
+    List<LateLoanView> findLateLoansAfter(@Param("partition") int partition, @Param("dueDate") LocalDate dueDate,
+                                          @Param("afterEmail") String afterEmail, @Param("afterId") long afterId,
+                                          Limit limit);
+
+    // Same filters as findByBookIsbnOrCustomer, except that without isbn and customer every loan is streamed.
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query(value = "select l from Loan l join fetch l.book b " +
+            "where (:isbn is null and :customer is null) or b.isbn = :isbn or l.customer = :customer order by l.id")
+    Stream<Loan> streamByBookIsbnOrCustomer(@Param("isbn") String isbn, @Param("customer") String customer);
+
+    @Query(value = "select l.id as id, l.book.id as bookId, b.isbn as isbn, l.returned as returned from Loan l join l.book b where l.id in :ids")
+    List<LoanReturnView> findReturnViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "select l.id as id, l.book.id as bookId, b.isbn as isbn, l.returned as returned from Loan l join l.book b " +
+            "where b.isbn in :isbns and (l.returned is null or l.returned is not true)")
+    List<LoanReturnView> findReturnViewsNotReturnedByIsbnIn(@Param("isbns") Collection<String> isbns);
+
+    // Locks the loans still open among ids; a loan returned by another transaction since it was read drops out.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "select l.id from Loan l where l.id in :ids and (l.returned is null or l.returned is not true)")
+    List<Long> lockNotReturnedByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Bulk updates skip @Version, so the version is bumped here to keep the loan list ETags moving.
+    @Modifying
+    @Query(value = "update Loan l set l.returned = true, l.version = l.version + 1 "
+            + "where l.id in :ids and (l.returned is null or l.returned is not true)")
+    int markReturned(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,12 @@
+package com.books.libraryapi.model.repository;
+
+public interface LoanReturnView {
+
+    Long getId();
+
+    Long getBookId();
+
+    String getIsbn();
+
+    Boolean getReturned();
+}
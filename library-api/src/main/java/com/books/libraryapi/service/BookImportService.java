@@ -0,0 +1,11 @@
+package com.books.libraryapi.service;
+
+import com.books.libraryapi.api.dto.BookImportReportDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface BookImportService {
+
+    BookImportReportDTO importBooks(InputStream input, RowFormat format) throws IOException;
+}
@@ -0,0 +1,36 @@
+package com.books.libraryapi.service;
+
+import com.books.libraryapi.model.entity.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+
+import java.util.List;
+import java.util.Optional;
+
+public interface BookService {
+    Book save(Book any);
+
+    Optional<Book> getById(Long id);
+
+    // The book's current @Version, without loading it; empty when there is no such book.
+    Optional<Long> getVersion(Long id);
+
+    void delete(Book book);
+
+    Book update(Book book);
+
+    Page<Book> find(Book filter, Pageable pageable);
+
+    Slice<Book> findSlice(Book filter, Pageable pageable);
+
+    Window<Book> scroll(Book filter, ScrollPosition position, Sort sort, int limit);
+
+    Optional<Book> getBookByIsbn(String isbn);
+
+    List<Book> search(String query, int limit);
+}
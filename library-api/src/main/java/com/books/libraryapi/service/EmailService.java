@@ -0,0 +1,14 @@
+package com.books.libraryapi.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+public interface EmailService {
+    void sendEmails(String message, List<String> mailList);
+
+    // One message per recipient, each with its own text; completes with the recipients whose message was sent.
+    // Cancelling it drops the messages that have not been handed to the mail server yet.
+    CompletableFuture<Set<String>> sendEmails(Map<String, String> messageByRecipient);
+}
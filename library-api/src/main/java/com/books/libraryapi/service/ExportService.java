@@ -0,0 +1,13 @@
+package com.books.libraryapi.service;
+
+import com.books.libraryapi.api.dto.LoanFilterDTO;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+
+    long exportBooks(RowFormat format, OutputStream output) throws IOException;
+
+    long exportLoans(LoanFilterDTO filter, RowFormat format, OutputStream output) throws IOException;
+}
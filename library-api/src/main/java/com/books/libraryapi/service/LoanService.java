@@ -0,0 +1,53 @@
+package com.books.libraryapi.service;
+
+import com.books.libraryapi.api.dto.BookAvailabilityDTO;
+import com.books.libraryapi.api.dto.LoanBatchResultDTO;
+import com.books.libraryapi.api.dto.LoanDTO;
+import com.books.libraryapi.api.dto.LoanFilterDTO;
+import com.books.libraryapi.api.dto.LoanReturnBatchDTO;
+import com.books.libraryapi.api.dto.LoanReturnResultDTO;
+import com.books.libraryapi.model.entity.Book;
+import com.books.libraryapi.model.entity.Loan;
+import com.books.libraryapi.model.repository.LateLoanView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface LoanService {
+
+    int LOAN_DAYS = 4;
+
+    Loan save(Loan loan);
+
+    List<LoanBatchResultDTO> saveAll(List<LoanDTO> loans);
+
+    Optional<Loan> getByID(Long id);
+
+    Loan update(Loan loan);
+
+    List<LoanReturnResultDTO> returnAll(LoanReturnBatchDTO loanReturnBatchDTO);
+
+    Page<Loan> find(LoanFilterDTO loanFilterDTO, Pageable pageable);
+
+    Slice<Loan> findSlice(LoanFilterDTO loanFilterDTO, Pageable pageable);
+
+    Window<Loan> scroll(LoanFilterDTO loanFilterDTO, ScrollPosition position, Sort sort, int limit);
+
+    Page<Loan> getLoansByBook(Book book, Pageable pageable);
+
+    Slice<Loan> getLoanSliceByBook(Book book, Pageable pageable);
+
+    // Changes whenever a loan of the book is added or changed, so it can tag the book's loan list.
+    long getLoansChangeCount(Long bookId);
+
+    List<LateLoanView> getLateLoans(int partition, LocalDate today, String afterEmail, long afterId, int limit);
+
+    List<BookAvailabilityDTO> getAvailability(List<String> isbns);
+}
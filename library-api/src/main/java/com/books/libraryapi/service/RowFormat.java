@@ -0,0 +1,52 @@
+package com.books.libraryapi.service;
+
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+public enum RowFormat {
+    NDJSON(RowFormat.NDJSON_VALUE, "ndjson"),
+    CSV(RowFormat.CSV_VALUE, "csv");
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+    public static final String CSV_VALUE = "text/csv";
+
+    private final String mediaType;
+    private final String extension;
+
+    RowFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static RowFormat of(MediaType mediaType) {
+        if (MediaType.valueOf(CSV_VALUE).isCompatibleWith(mediaType)) {
+            return CSV;
+        }
+        return NDJSON;
+    }
+
+    // Wildcards fall through to NDJSON, so only an explicit text/csv or text/* selects CSV.
+    public static RowFormat accepting(List<MediaType> accepted) {
+        for (MediaType mediaType : accepted) {
+            if (mediaType.isWildcardType()) {
+                continue;
+            }
+            if (mediaType.isCompatibleWith(MediaType.valueOf(CSV_VALUE))) {
+                return CSV;
+            }
+            if (mediaType.isCompatibleWith(MediaType.valueOf(NDJSON_VALUE))) {
+                return NDJSON;
+            }
+        }
+        return NDJSON;
+    }
+}
@@ -0,0 +1,231 @@
+package com.books.libraryapi.service;
+
+import com.books.libraryapi.model.entity.JobCheckpoint;
+import com.books.libraryapi.model.entity.Loan;
+import com.books.libraryapi.model.repository.LateLoanView;
+import com.books.libraryapi.service.impl.JobLeases;
+import com.books.libraryapi.service.impl.LateLoanDigest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+@Slf4j
+public class ScheduleService {
+
+    private static final String CRON_LATE_LOANS = "0 0 0 1/1 * ?";
+    static final String LATE_LOANS_JOB = "late-loans";
+    // Each send already retries in the mail dispatcher; a digest that still fails is read and sent again this
+    // many times in all before the checkpoint moves past it.
+    static final int DIGEST_ATTEMPTS = 3;
+
+    private final LoanService loanService;
+    private final EmailService emailService;
+    private final LateLoanDigest digest;
+    private final JobLeases leases;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Counter emailsSent;
+    private final Counter emailsFailed;
+
+    public ScheduleService(LoanService loanService, EmailService emailService, LateLoanDigest digest,
+                           JobLeases leases, TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+                           @Value("${application.mail.lateloans.chunk-size:500}") int chunkSize) {
+        this.loanService = loanService;
+        this.emailService = emailService;
+        this.digest = digest;
+        this.leases = leases;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.emailsSent = meterRegistry.counter("library.lateloans.emails", "result", "sent");
+        this.emailsFailed = meterRegistry.counter("library.lateloans.emails", "result", "failed");
+    }
+
+
+    // Every replica fires this at midnight. The run is split into one partition per customer partition,
+    // and each node works through the partitions it manages to claim, so the run is shared across the
+    // cluster. Delivery is at least once: a node that crashes, or stalls past its lease, after handing
+    // digests to the mail server but before checkpointing them leaves them to be sent again by whoever
+    // resumes the partition.
+    @Scheduled(cron = CRON_LATE_LOANS)
+    public void sendEmailToLateLoans(){
+        LocalDate today = LocalDate.now();
+        leases.prepare(LATE_LOANS_JOB, Loan.CUSTOMER_PARTITIONS, today);
+        Optional<JobCheckpoint> claimed;
+        while ((claimed = leases.claimNext(LATE_LOANS_JOB, today)).isPresent()) {
+            sendPartition(claimed.get());
+        }
+    }
+
+    // Picks up partitions whose node died or was down at midnight, once their lease has run out.
+    @Scheduled(initialDelayString = "${application.mail.lateloans.takeover-interval:PT1M}",
+            fixedDelayString = "${application.mail.lateloans.takeover-interval:PT1M}")
+    public void takeOverLateLoans(){
+        sendEmailToLateLoans();
+    }
+
+    private void sendPartition(JobCheckpoint checkpoint) {
+        if (checkpoint.getLastId() > 0) {
+            log.info("Resuming {} after {}", checkpoint.getJob(), checkpoint.getLastKey());
+        }
+
+        // Loans arrive ordered by customer email, so a customer's loans are contiguous and only the last
+        // group of a full chunk can continue into the next one; it is held back until it is complete.
+        // A crash re-sends what went out after the last checkpoint, which is one chunk unless a digest failed.
+        LateLoanScan scan = new LateLoanScan(checkpoint);
+        while (!checkpoint.getCompleted()) {
+            if (!sendChunk(scan)) {
+                log.warn("Lease on {} was taken over by another node, leaving it", checkpoint.getJob());
+                return;
+            }
+        }
+    }
+
+    // The chunk is read and checkpointed in two short transactions; the mail in between waits on SMTP round
+    // trips and retry backoff, so it is sent without holding a pooled connection. The lease is renewed right
+    // before sending and then every renew interval until the mail is out, so a node that lost it stops mailing.
+    private boolean sendChunk(LateLoanScan scan) {
+        JobCheckpoint checkpoint = scan.checkpoint;
+        List<LateLoanView> chunk = transactionTemplate.execute(status -> loanService.getLateLoans(scan.partition,
+                checkpoint.getRunDate(), scan.afterEmail, scan.afterId, chunkSize));
+        boolean last = chunk.size() < chunkSize;
+        if (!chunk.isEmpty()) {
+            LateLoanView end = chunk.get(chunk.size() - 1);
+            scan.afterEmail = end.getCustomerEmail();
+            scan.afterId = end.getId();
+        }
+
+        List<Digest> digests = new ArrayList<>();
+        for (LateLoanView loan : chunk) {
+            if (!scan.group.isEmpty() && !scan.group.get(0).getCustomerEmail().equals(loan.getCustomerEmail())) {
+                addDigest(digests, scan);
+            }
+            scan.group.add(loan);
+        }
+        if (last && !scan.group.isEmpty()) {
+            addDigest(digests, scan);
+        }
+
+        Map<String, String> unsent = new LinkedHashMap<>();
+        digests.stream().filter(digest -> !scan.sent.contains(digest.email()))
+                .forEach(digest -> unsent.put(digest.email(), digest.text()));
+        if (!unsent.isEmpty()) {
+            if (!leases.renew(checkpoint)) {
+                return false;
+            }
+            Optional<Set<String>> delivered = send(unsent, checkpoint);
+            if (delivered.isEmpty()) {
+                return false;
+            }
+            Set<String> sent = delivered.get();
+            emailsSent.increment(sent.size());
+            scan.sent.addAll(sent);
+            unsent.keySet().stream().filter(email -> !sent.contains(email))
+                    .forEach(email -> scan.attempts.merge(email, 1, Integer::sum));
+        }
+
+        if (!advance(scan, digests)) {
+            // Read again from the first failed digest; the ones already sent after it are skipped.
+            scan.rewind();
+            last = false;
+        }
+        checkpoint.setCompleted(last);
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> leases.checkpoint(checkpoint)));
+    }
+
+    // Empty when the lease was lost while waiting; the digests still queued are cancelled then, only the ones
+    // a mail worker had already picked up still go out.
+    private Optional<Set<String>> send(Map<String, String> digests, JobCheckpoint checkpoint) {
+        CompletableFuture<Set<String>> sending = emailService.sendEmails(digests);
+        long renewMillis = leases.renewInterval().toMillis();
+        while (true) {
+            try {
+                return Optional.of(sending.get(renewMillis, TimeUnit.MILLISECONDS));
+            } catch (TimeoutException e) {
+                if (!leases.renew(checkpoint)) {
+                    sending.cancel(false);
+                    return Optional.empty();
+                }
+            } catch (InterruptedException e) {
+                sending.cancel(false);
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while sending late loan digests", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Sending late loan digests failed", e.getCause());
+            }
+        }
+    }
+
+    // Moves the checkpoint past the digests that were sent or given up on, stopping at the first one that still
+    // has attempts left; false when it stopped there.
+    private boolean advance(LateLoanScan scan, List<Digest> digests) {
+        for (Digest digest : digests) {
+            if (!scan.sent.remove(digest.email())) {
+                if (scan.attempts.getOrDefault(digest.email(), 0) < DIGEST_ATTEMPTS) {
+                    return false;
+                }
+                log.warn("Giving up on the late loan digest for {} after {} attempts", digest.email(), DIGEST_ATTEMPTS);
+                emailsFailed.increment();
+                scan.attempts.remove(digest.email());
+            }
+            scan.checkpoint.setLastKey(digest.email());
+            scan.checkpoint.setLastId(digest.lastId());
+        }
+        return true;
+    }
+
+    private void addDigest(List<Digest> digests, LateLoanScan scan) {
+        LateLoanView end = scan.group.get(scan.group.size() - 1);
+        digests.add(new Digest(end.getCustomerEmail(), digest.render(scan.group, scan.checkpoint.getRunDate()),
+                end.getId()));
+        scan.group = new ArrayList<>();
+    }
+
+    // A customer's digest and the id of their last loan, which with the email is the checkpoint after it.
+    private record Digest(String email, String text, long lastId) {
+    }
+
+    // The checkpoint only moves past customers whose digest was sent or given up on; the read position runs
+    // ahead of it and goes back to it when a digest failed.
+    private static class LateLoanScan {
+
+        private final JobCheckpoint checkpoint;
+        private final int partition;
+        private String afterEmail;
+        private long afterId;
+        private List<LateLoanView> group = new ArrayList<>();
+        // Recipients sent ahead of the checkpoint, and failed sends per recipient not yet given up on.
+        private final Set<String> sent = new HashSet<>();
+        private final Map<String, Integer> attempts = new HashMap<>();
+
+        LateLoanScan(JobCheckpoint checkpoint) {
+            this.checkpoint = checkpoint;
+            this.partition = JobLeases.partitionOf(checkpoint.getJob());
+            rewind();
+        }
+
+        void rewind() {
+            afterEmail = checkpoint.getLastKey() == null ? "" : checkpoint.getLastKey();
+            afterId = checkpoint.getLastId();
+            group = new ArrayList<>();
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.books.libraryapi.service.impl;
+
+import com.books.libraryapi.model.repository.BookChangeRepository;
+import com.books.libraryapi.model.repository.BookIdentityView;
+import com.books.libraryapi.model.repository.BookRepository;
+import com.books.libraryapi.model.repository.LoanRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Which books exist and which are loaned, answered from memory. This node's commits are applied as they happen;
+// commits made by other nodes reach it through the book_change log, which refresh reads every refresh-interval.
+// A change is only missed if its transaction ran longer than the grace period, since refresh looks back that far
+// from the database time of the previous refresh. Checkouts still decide on the database row, not on this index.
+@Component
+@Slf4j
+public class BookAvailabilityIndex {
+
+    // Loaned flags live in 8 KB pages of 65536 bits, allocated only for id ranges that exist.
+    private static final int PAGE_BITS = 16;
+    private static final int WORDS_PER_PAGE = (1 << PAGE_BITS) / Long.SIZE;
+    private static final int CHUNK_SIZE = 500;
+
+    private final BookRepository bookRepository;
+    private final LoanRepository loanRepository;
+    private final BookChangeRepository changeRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration grace;
+    private final Duration retention;
+
+    // Swapped whole by load, so a rebuild never shows a half-filled index.
+    private volatile State state = new State();
+    // Database time at which the last load or refresh started reading.
+    private volatile LocalDateTime since;
+
+    public BookAvailabilityIndex(BookRepository bookRepository,
+                                 LoanRepository loanRepository,
+                                 BookChangeRepository changeRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${application.books.availability.grace:1m}") Duration grace,
+                                 @Value("${application.books.availability.retention:1h}") Duration retention) {
+        if (retention.compareTo(grace) <= 0) {
+            throw new IllegalArgumentException("application.books.availability.retention must exceed the grace period");
+        }
+        this.bookRepository = bookRepository;
+        this.loanRepository = loanRepository;
+        this.changeRepository = changeRepository;
+        // Runs after commit callbacks too, when the finished transaction is still bound to the thread.
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.grace = grace;
+        this.retention = retention;
+    }
+
+    @PostConstruct
+    public synchronized void load() {
+        long start = System.currentTimeMillis();
+        State loaded = new State();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            LocalDateTime now = changeRepository.now();
+            try (Stream<BookIdentityView> books = bookRepository.streamAllIdentities()) {
+                books.forEach(book -> loaded.putBook(book.getId(), book.getIsbn()));
+            }
+            try (Stream<Long> loaned = loanRepository.streamBookIdsNotReturned()) {
+                loaned.forEach(loaded::markLoaned);
+            }
+            state = loaded;
+            since = now;
+        });
+        log.info("Availability index loaded with {} books in {} ms",
+                loaded.isbnsByBookId.size(), System.currentTimeMillis() - start);
+    }
+
+    @Scheduled(initialDelayString = "${application.books.availability.refresh-interval:PT1S}",
+            fixedDelayString = "${application.books.availability.refresh-interval:PT1S}")
+    public synchronized void refresh() {
+        boolean complete = Boolean.TRUE.equals(readOnlyTransaction.execute(status -> {
+            LocalDateTime from = since.minus(grace);
+            LocalDateTime now = changeRepository.now();
+            if (from.isBefore(now.minus(retention))) {
+                return false;
+            }
+            apply(changeRepository.findBookIdsChangedAfter(from));
+            since = now;
+            return true;
+        }));
+        if (!complete) {
+            // The log no longer reaches back to the last refresh, so only a rebuild is sure to be complete.
+            load();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${application.books.availability.prune-interval:PT10M}",
+            fixedDelayString = "${application.books.availability.prune-interval:PT10M}")
+    public void prune() {
+        int pruned = changeRepository.deleteChangedBefore(changeRepository.now().minus(retention));
+        log.debug("Pruned {} book changes", pruned);
+    }
+
+    // Reads the books back from the database, for changes whose effect on availability is not known up front.
+    public void reload(Collection<Long> bookIds) {
+        readOnlyTransaction.executeWithoutResult(status -> apply(bookIds));
+    }
+
+    public Optional<Long> getBookId(String isbn) {
+        return isbn == null ? Optional.empty() : Optional.ofNullable(state.bookIdsByIsbn.get(isbn));
+    }
+
+    public boolean isLoaned(long bookId) {
+        return state.isLoaned(bookId);
+    }
+
+    public void putBook(Long id, String isbn) {
+        if (id != null && isbn != null) {
+            state.putBook(id, isbn);
+        }
+    }
+
+    public void removeBook(Long id) {
+        if (id != null) {
+            state.removeBook(id);
+        }
+    }
+
+    public void markLoaned(long bookId) {
+        state.markLoaned(bookId);
+    }
+
+    public void markAvailable(long bookId) {
+        state.markAvailable(bookId);
+    }
+
+    private void apply(Collection<Long> bookIds) {
+        List<Long> ids = new ArrayList<>(Set.copyOf(bookIds));
+        for (int i = 0; i < ids.size(); i += CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(i, Math.min(i + CHUNK_SIZE, ids.size()));
+            Map<Long, String> isbns = bookRepository.findIdentitiesByIdIn(chunk).stream()
+                    .collect(Collectors.toMap(BookIdentityView::getId, BookIdentityView::getIsbn));
+            Set<Long> loaned = loanRepository.findBookIdsNotReturned(chunk);
+            for (Long id : chunk) {
+                String isbn = isbns.get(id);
+                if (isbn == null) {
+                    removeBook(id);
+                    continue;
+                }
+                putBook(id, isbn);
+                if (loaned.contains(id)) {
+                    markLoaned(id);
+                } else {
+                    markAvailable(id);
+                }
+            }
+        }
+    }
+
+    private static final class State {
+
+        private final Map<String, Long> bookIdsByIsbn = new ConcurrentHashMap<>();
+        // The reverse map finds the old isbn when a book's isbn changes or the book is deleted.
+        private final Map<Long, String> isbnsByBookId = new ConcurrentHashMap<>();
+        private final Map<Long, AtomicLongArray> loanedPages = new ConcurrentHashMap<>();
+
+        void putBook(Long id, String isbn) {
+            String previous = isbnsByBookId.put(id, isbn);
+            if (previous != null && !previous.equals(isbn)) {
+                bookIdsByIsbn.remove(previous, id);
+            }
+            bookIdsByIsbn.put(isbn, id);
+        }
+
+        void removeBook(Long id) {
+            String isbn = isbnsByBookId.remove(id);
+            if (isbn != null) {
+                bookIdsByIsbn.remove(isbn, id);
+            }
+            markAvailable(id);
+        }
+
+        boolean isLoaned(long bookId) {
+            AtomicLongArray page = loanedPages.get(bookId >>> PAGE_BITS);
+            return page != null && (page.get(word(bookId)) & mask(bookId)) != 0;
+        }
+
+        void markLoaned(long bookId) {
+            loanedPages.computeIfAbsent(bookId >>> PAGE_BITS, key -> new AtomicLongArray(WORDS_PER_PAGE))
+                    .getAndUpdate(word(bookId), current -> current | mask(bookId));
+        }
+
+        void markAvailable(long bookId) {
+            AtomicLongArray page = loanedPages.get(bookId >>> PAGE_BITS);
+            if (page != null) {
+                page.getAndUpdate(word(bookId), current -> current & ~mask(bookId));
+            }
+        }
+
+        private static int word(long bookId) {
+            return (int) (bookId & ((1 << PAGE_BITS) - 1)) / Long.SIZE;
+        }
+
+        private static long mask(long bookId) {
+            return 1L << (bookId & (Long.SIZE - 1));
+        }
+    }
+}
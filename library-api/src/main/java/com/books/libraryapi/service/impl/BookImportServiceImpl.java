@@ -0,0 +1,270 @@
+package com.books.libraryapi.service.impl;
+
+import com.books.libraryapi.api.dto.BookDTO;
+import com.books.libraryapi.api.dto.BookImportReportDTO;
+import com.books.libraryapi.api.dto.BookImportRowDTO;
+import com.books.libraryapi.model.entity.Book;
+import com.books.libraryapi.model.repository.BookChangeRepository;
+import com.books.libraryapi.model.repository.BookRepository;
+import com.books.libraryapi.service.BookImportService;
+import com.books.libraryapi.service.RowFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class BookImportServiceImpl implements BookImportService {
+
+    private final BookRepository repository;
+    private final BookChangeRepository changeRepository;
+    private final IsbnBloomFilter isbnFilter;
+    private final BookSearchIndex searchIndex;
+    private final BookAvailabilityIndex availabilityIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public BookImportServiceImpl(BookRepository repository,
+                                 BookChangeRepository changeRepository,
+                                 IsbnBloomFilter isbnFilter,
+                                 BookSearchIndex searchIndex,
+                                 BookAvailabilityIndex availabilityIndex,
+                                 TransactionTemplate transactionTemplate,
+                                 ObjectMapper objectMapper,
+                                 @Value("${application.books.import.chunk-size:1000}") int chunkSize) {
+        this.repository = repository;
+        this.changeRepository = changeRepository;
+        this.isbnFilter = isbnFilter;
+        this.searchIndex = searchIndex;
+        this.availabilityIndex = availabilityIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public BookImportReportDTO importBooks(InputStream input, RowFormat format) throws IOException {
+        BookImportReportDTO report = new BookImportReportDTO();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        long lineNumber = 0;
+        RowParser parser;
+        if (format == RowFormat.CSV) {
+            String header = reader.readLine();
+            lineNumber++;
+            if (header == null) {
+                return report;
+            }
+            parser = new CsvRowParser(header);
+        } else {
+            parser = line -> objectMapper.readValue(line, BookDTO.class);
+        }
+
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.add(parse(parser, line, lineNumber));
+            if (chunk.size() >= chunkSize) {
+                writeChunk(chunk, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, report);
+        }
+        return report;
+    }
+
+    private ImportRow parse(RowParser parser, String line, long lineNumber) {
+        BookDTO dto;
+        try {
+            dto = parser.parse(line);
+        } catch (Exception e) {
+            return new ImportRow(null, invalid(lineNumber, null, "Malformed row"));
+        }
+        if (dto == null) {
+            return new ImportRow(null, invalid(lineNumber, null, "Malformed row"));
+        }
+        if (!StringUtils.hasText(dto.getIsbn())
+                || !StringUtils.hasText(dto.getTitle())
+                || !StringUtils.hasText(dto.getAuthor())) {
+            return new ImportRow(null, invalid(lineNumber, dto.getIsbn(), "Title, author and isbn are required"));
+        }
+        return new ImportRow(dto, BookImportRowDTO.builder().line(lineNumber).isbn(dto.getIsbn()).build());
+    }
+
+    private void writeChunk(List<ImportRow> chunk, BookImportReportDTO report) {
+        List<ImportRow> inserting = new ArrayList<>();
+        List<Book> books = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Only ISBNs the filter might know about need the database lookup.
+                Set<String> isbns = chunk.stream()
+                        .filter(row -> row.book() != null)
+                        .map(row -> row.book().getIsbn())
+                        .filter(isbnFilter::mightContain)
+                        .collect(Collectors.toSet());
+                Set<String> existing = isbns.isEmpty() ? Set.of() : repository.findIsbnsByIsbnIn(isbns);
+
+                Set<String> seen = new HashSet<>();
+                for (ImportRow row : chunk) {
+                    if (row.book() == null) {
+                        continue;
+                    }
+                    String isbn = row.book().getIsbn();
+                    if (existing.contains(isbn) || !seen.add(isbn)) {
+                        duplicated(row);
+                        continue;
+                    }
+                    inserting.add(row);
+                    books.add(book(row));
+                }
+                insert(books);
+            });
+            for (int i = 0; i < books.size(); i++) {
+                created(inserting.get(i), books.get(i));
+            }
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent insert took one of these isbns after the lookup and ux_book_isbn rolled the whole
+            // chunk back, so its rows are retried one by one to tell which of them are the duplicates.
+            inserting.forEach(this::insertRow);
+        }
+        chunk.forEach(row -> report.add(row.result()));
+    }
+
+    private void insertRow(ImportRow row) {
+        Book book = book(row);
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(List.of(book)));
+            created(row, book);
+        } catch (DataIntegrityViolationException e) {
+            duplicated(row);
+        }
+    }
+
+    private void insert(List<Book> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+        repository.saveAllInBatch(books);
+        changeRepository.record(books.stream().map(Book::getId).toList());
+    }
+
+    private Book book(ImportRow row) {
+        return Book.builder()
+                .isbn(row.book().getIsbn())
+                .title(row.book().getTitle())
+                .author(row.book().getAuthor())
+                .build();
+    }
+
+    private void created(ImportRow row, Book book) {
+        isbnFilter.put(book.getIsbn());
+        searchIndex.put(book.getId(), book.getTitle(), book.getAuthor());
+        availabilityIndex.putBook(book.getId(), book.getIsbn());
+        row.result().setStatus(BookImportRowDTO.Status.CREATED);
+        row.result().setId(book.getId());
+    }
+
+    private void duplicated(ImportRow row) {
+        row.result().setStatus(BookImportRowDTO.Status.DUPLICATED);
+        row.result().setMessage("Isbn already exists.");
+    }
+
+    private BookImportRowDTO invalid(long line, String isbn, String message) {
+        return BookImportRowDTO.builder()
+                .line(line)
+                .isbn(isbn)
+                .status(BookImportRowDTO.Status.INVALID)
+                .message(message)
+                .build();
+    }
+
+    private record ImportRow(BookDTO book, BookImportRowDTO result) {
+    }
+
+    @FunctionalInterface
+    private interface RowParser {
+        BookDTO parse(String line) throws Exception;
+    }
+
+    private static class CsvRowParser implements RowParser {
+
+        private final int isbnIndex;
+        private final int titleIndex;
+        private final int authorIndex;
+
+        CsvRowParser(String header) {
+            List<String> columns = split(header).stream()
+                    .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                    .toList();
+            this.isbnIndex = columns.indexOf("isbn");
+            this.titleIndex = columns.indexOf("title");
+            this.authorIndex = columns.indexOf("author");
+        }
+
+        @Override
+        public BookDTO parse(String line) {
+            List<String> fields = split(line);
+            return BookDTO.builder()
+                    .isbn(field(fields, isbnIndex))
+                    .title(field(fields, titleIndex))
+                    .author(field(fields, authorIndex))
+                    .build();
+        }
+
+        private static String field(List<String> fields, int index) {
+            return index >= 0 && index < fields.size() ? fields.get(index).trim() : null;
+        }
+
+        private static List<String> split(String line) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        current.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(c);
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("Unterminated quoted field");
+            }
+            fields.add(current.toString());
+            return fields;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.books.libraryapi.service.impl;
+
+import com.books.libraryapi.model.entity.Book;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+// Holds immutable snapshots rather than entities: a cached Book would be one detached, mutable instance shared
+// by every request, with a version that goes stale on the first update.
+@Component
+public class BookIsbnCache {
+
+    public static final String CACHE_NAME = "booksByIsbn";
+
+    public record CachedBook(Long id, String isbn, String title, String author) {
+
+        static CachedBook of(Book book) {
+            return new CachedBook(book.getId(), book.getIsbn(), book.getTitle(), book.getAuthor());
+        }
+    }
+
+    private final Cache<String, CachedBook> cache;
+
+    public BookIsbnCache(@Value("${application.books.cache.enabled:true}") boolean enabled,
+                         @Value("${application.books.cache.maximum-size:10000}") long maximumSize,
+                         @Value("${application.books.cache.expire-after-write:10m}") Duration expireAfterWrite,
+                         MeterRegistry meterRegistry) {
+        if (!enabled) {
+            this.cache = null;
+            return;
+        }
+        // Caffeine evicts by W-TinyLFU, so a burst of one-off lookups does not push out the hot ISBNs.
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Optional<CachedBook> get(String isbn, Function<String, Optional<Book>> loader) {
+        if (cache == null || isbn == null) {
+            return loader.apply(isbn).map(CachedBook::of);
+        }
+        // Misses load under the key's lock and are not cached, so an evict racing a load always wins.
+        return Optional.ofNullable(cache.get(isbn, key -> loader.apply(key).map(CachedBook::of).orElse(null)));
+    }
+
+    public boolean contains(String isbn) {
+        return cache != null && isbn != null && cache.getIfPresent(isbn) != null;
+    }
+
+    public void put(Book book) {
+        if (cache != null && book != null && book.getIsbn() != null) {
+            cache.put(book.getIsbn(), CachedBook.of(book));
+        }
+    }
+
+    public void evict(String isbn) {
+        if (cache != null && isbn != null) {
+            cache.invalidate(isbn);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.books.libraryapi.service.impl;
+
+import com.books.libraryapi.model.repository.BookRepository;
+import com.books.libraryapi.model.repository.BookTextView;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+@Component
+@Slf4j
+public class BookSearchIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final int MAX_TERMS = 10;
+    private static final int TITLE = 0;
+    private static final int AUTHOR = 1;
+
+    private final BookRepository repository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    // Terms are interned to ids; postings hold (bookId << 1 | field) in ascending order and each book
+    // keeps its (termId << 1 | field) entries so an update or delete can find what to unindex.
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<Postings> postings = new ArrayList<>();
+    private final Map<Long, int[]> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public BookSearchIndex(BookRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @PostConstruct
+    public void load() {
+        long start = System.currentTimeMillis();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<BookTextView> books = repository.streamAllTexts()) {
+                books.forEach(book -> put(book.getId(), book.getTitle(), book.getAuthor()));
+            }
+        });
+        log.info("Search index loaded with {} books and {} terms in {} ms",
+                size(), termIds.size(), System.currentTimeMillis() - start);
+    }
+
+    public void put(Long id, String title, String author) {
+        if (id == null) {
+            return;
+        }
+        List<String> titleTerms = terms(title);
+        List<String> authorTerms = terms(author);
+        lock.writeLock().lock();
+        try {
+            int[] previous = documents.get(id);
+            if (previous != null) {
+                unindex(id, previous);
+            }
+            int[] document = new int[titleTerms.size() + authorTerms.size()];
+            int i = 0;
+            for (String term : titleTerms) {
+                document[i++] = termId(term) << 1 | TITLE;
+            }
+            for (String term : authorTerms) {
+                document[i++] = termId(term) << 1 | AUTHOR;
+            }
+            for (int entry : document) {
+                postings.get(entry >>> 1).add(id << 1 | (entry & 1));
+            }
+            documents.put(id, document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        if (id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int[] previous = documents.remove(id);
+            if (previous != null) {
+                unindex(id, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Every query term must match the title or the author. A title match weighs twice an author match and
+    // rarer terms weigh more; equal scores keep the oldest book first.
+    public List<Long> search(String query, int limit) {
+        List<String> terms = terms(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        if (terms.size() > MAX_TERMS) {
+            terms = terms.subList(0, MAX_TERMS);
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Integer termId = termIds.get(term);
+                if (termId == null || postings.get(termId).size == 0) {
+                    return List.of();
+                }
+                lists.add(postings.get(termId));
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            double[] idf = new double[lists.size()];
+            double best = 0;
+            for (int i = 0; i < idf.length; i++) {
+                idf[i] = Math.log(1 + documents.size() / (double) lists.get(i).size);
+                best += 2 * idf[i];
+            }
+
+            PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, Hit.ORDER.reversed());
+            Postings rarest = lists.get(0);
+            long previous = -1;
+            for (int i = 0; i < rarest.size; i++) {
+                long id = rarest.values[i] >>> 1;
+                if (id == previous) {
+                    continue;
+                }
+                previous = id;
+                double score = score(id, lists, idf);
+                if (score > 0) {
+                    top.offer(new Hit(id, score));
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                    // Ids only grow from here, so once the page is full of best-possible scores nothing can enter.
+                    if (top.size() == limit && top.peek().score() >= best) {
+                        break;
+                    }
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(Hit.ORDER);
+            return hits.stream().map(Hit::id).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> terms(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = isAscii(text)
+                ? text
+                : MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        Set<String> terms = new LinkedHashSet<>();
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i < folded.length(); ) {
+            int codePoint = folded.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isLetterOrDigit(codePoint)) {
+                term.appendCodePoint(Character.toLowerCase(codePoint));
+            } else if (!term.isEmpty()) {
+                terms.add(term.toString());
+                term.setLength(0);
+            }
+        }
+        if (!term.isEmpty()) {
+            terms.add(term.toString());
+        }
+        return new ArrayList<>(terms);
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private double score(long id, List<Postings> lists, double[] idf) {
+        double score = 0;
+        for (int i = 0; i < lists.size(); i++) {
+            Postings list = lists.get(i);
+            if (list.contains(id << 1 | TITLE)) {
+                score += 2 * idf[i];
+            } else if (list.contains(id << 1 | AUTHOR)) {
+                score += idf[i];
+            } else {
+                return 0;
+            }
+        }
+        return score;
+    }
+
+    private int termId(String term) {
+        Integer termId = termIds.get(term);
+        if (termId == null) {
+            termId = postings.size();
+            termIds.put(term, termId);
+            postings.add(new Postings());
+        }
+        return termId;
+    }
+
+    private void unindex(long id, int[] document) {
+        for (int entry : document) {
+            postings.get(entry >>> 1).remove(id << 1 | (entry & 1));
+        }
+    }
+
+    private record Hit(long id, double score) {
+        static final Comparator<Hit> ORDER = Comparator.comparingDouble(Hit::score).reversed()
+                .thenComparingLong(Hit::id);
+    }
+
+    // A sorted, growable long array; ids come from a sequence, so most inserts are appends.
+    private static final class Postings {
+
+        private long[] values = new long[4];
+        private int size;
+
+        void add(long value) {
+            int index = size == 0 || values[size - 1] < value ? size : Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0 && index < size) {
+                return;
+            }
+            int insertAt = index >= 0 ? index : -index - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size + (size >> 1) + 1);
+            }
+            System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+            values[insertAt] = value;
+            size++;
+        }
+
+        boolean remove(long value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(long value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.books.libraryapi.service.impl;
+
+import com.books.libraryapi.config.MetricsConfig;
+import com.books.libraryapi.exception.BusinessException;
+import com.books.libraryapi.model.entity.Book;
+import com.books.libraryapi.model.repository.BookChangeRepository;
+import com.books.libraryapi.model.repository.BookRepository;
+import com.books.libraryapi.service.BookService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.books.libraryapi.service.impl.TransactionCallbacks.onCommit;
+
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class BookServiceImpl implements BookService {
+
+    private BookRepository repository;
+    private BookChangeRepository changeRepository;
+    private BookIsbnCache isbnCache;
+    private IsbnBloomFilter isbnFilter;
+    private BookSearchIndex searchIndex;
+    private BookAvailabilityIndex availabilityIndex;
+
+    public BookServiceImpl(BookRepository repository, BookChangeRepository changeRepository,
+                           BookIsbnCache isbnCache, IsbnBloomFilter isbnFilter, BookSearchIndex searchIndex,
+                           BookAvailabilityIndex availabilityIndex) {
+        this.repository = repository;
+        this.changeRepository = changeRepository;
+        this.isbnCache = isbnCache;
+        this.isbnFilter = isbnFilter;
+        this.searchIndex = searchIndex;
+        this.availabilityIndex = availabilityIndex;
+    }
+
+    @Override
+    @Transactional
+    public Book save(Book book) {
+        if(isbnCache.contains(book.getIsbn())
+                || (isbnFilter.mightContain(book.getIsbn()) && repository.existsByIsbn(book.getIsbn()))){
+            throw new BusinessException("Isbn already exists.");
+        }
+        Book saved;
+        try {
+            saved = repository.save(book);
+            // Flushes the insert, so a duplicate isbn fails here.
+            changeRepository.record(List.of(saved.getId()));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent insert of the same isbn got past the checks above; ux_book_isbn settles it.
+            throw new BusinessException("Isbn already exists.");
+        }
+        onCommit(() -> {
+            isbnFilter.put(saved.getIsbn());
+            isbnCache.put(saved);
+            searchIndex.put(saved.getId(), saved.getTitle(), saved.getAuthor());
+            availabilityIndex.putBook(saved.getId(), saved.getIsbn());
+        });
+        return saved;
+    }
+
+    @Override
+    public Optional<Book> getById(Long id) {
+        return repository.findById(id);
+    }
+
+    @Override
+    public Optional<Long> getVersion(Long id) {
+        // A primary key lookup on every call, so the strong ETag built from it is current whichever node wrote last.
+        return repository.findVersionById(id);
+    }
+
+    @Override
+    @Transactional
+    public void delete(Book book) {
+        if(book ==null || book.getId() == null){
+            throw new IllegalArgumentException("Book or id can be null");
+        }
+        // Recorded first, while the row the change log copies the id from still exists.
+        changeRepository.record(List.of(book.getId()));
+        repository.delete(book);
+        onCommit(() -> {
+            isbnCache.evict(book.getIsbn());
+            isbnFilter.remove(book.getIsbn());
+            searchIndex.remove(book.getId());
+            availabilityIndex.removeBook(book.getId());
+        });
+    }
+
+    @Override
+    @Transactional
+    public Book update(Book book) {
+        if(book ==null || book.getId() == null){
+            throw new IllegalArgumentException("Book or id can be null");
+        }
+        Book updated = repository.save(book);
+        changeRepository.record(List.of(updated.getId()));
+        onCommit(() -> {
+            isbnCache.evict(book.getIsbn());
+            searchIndex.put(updated.getId(), updated.getTitle(), updated.getAuthor());
+            availabilityIndex.putBook(updated.getId(), updated.getIsbn());
+        });
+        return updated;
+    }
+
+    @Override
+    public Page<Book> find(Book filter, Pageable pageable) {
+        return repository.findAll(example(filter), pageable);
+    }
+
+    @Override
+    public Slice<Book> findSlice(Book filter, Pageable pageable) {
+        return repository.findSlice(example(filter), pageable);
+    }
+
+    @Override
+    public Window<Book> scroll(Book filter, ScrollPosition position, Sort sort, int limit) {
+        return repository.findBy(example(filter), query -> query.sortBy(sort).limit(limit).scroll(position));
+    }
+
+    private Example<Book> example(Book filter) {
+        return Example.of(filter,
+                ExampleMatcher
+                        .matching()
+                        .withIgnoreCase()
+                        .withIgnoreNullValues()
+                        .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
+    }
+
+    @Override
+    public Optional<Book> getBookByIsbn(String isbn) {
+        // Each caller gets its own copy without a version; LoanServiceImpl attaches the managed book on save.
+        return isbnCache.get(isbn, repository::findByIsbn)
+                .map(cached -> Book.builder().id(cached.id()).isbn(cached.isbn()).title(cached.title())
+                        .author(cached.author()).build());
+    }
+
+    @Override
+    public List<Book> search(String query, int limit) {
+        List<Long> ids = searchIndex.search(query, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Book> books = repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return ids.stream().map(books::get).filter(Objects::nonNull).toList();
+    }
+}
@@ -0,0 +1,61 @@
+package com.books.libraryapi.service.impl;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Books with a checkout in flight on this node. A claim only turns away a second checkout of the same book
+// before it queues on the book's row lock; whether a book is loaned is always decided by the database.
+@Component
+public class CheckoutClaims {
+
+    // Claim flags live in 8 KB pages of 65536 bits, allocated only for id ranges that see checkouts.
+    private static final int PAGE_BITS = 16;
+    private static final int WORDS_PER_PAGE = (1 << PAGE_BITS) / Long.SIZE;
+
+    private final Map<Long, AtomicLongArray> claimedPages = new ConcurrentHashMap<>();
+
+    public boolean isClaimed(long bookId) {
+        AtomicLongArray page = claimedPages.get(bookId >>> PAGE_BITS);
+        return page != null && (page.get(word(bookId)) & mask(bookId)) != 0;
+    }
+
+    // Returns false when the book is already claimed, so only one of two concurrent checkouts goes ahead.
+    public boolean tryClaim(long bookId) {
+        AtomicLongArray page = claimedPages.computeIfAbsent(bookId >>> PAGE_BITS,
+                key -> new AtomicLongArray(WORDS_PER_PAGE));
+        int word = word(bookId);
+        long mask = mask(bookId);
+        long current;
+        do {
+            current = page.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+        } while (!page.compareAndSet(word, current, current | mask));
+        return true;
+    }
+
+    public void release(long bookId) {
+        AtomicLongArray page = claimedPages.get(bookId >>> PAGE_BITS);
+        if (page == null) {
+            return;
+        }
+        int word = word(bookId);
+        long mask = mask(bookId);
+        long current;
+        do {
+            current = page.get(word);
+        } while ((current & mask) != 0 && !page.compareAndSet(word, current, current & ~mask));
+    }
+
+    private static int word(long bookId) {
+        return (int) (bookId & ((1 << PAGE_BITS) - 1)) / Long.SIZE;
+    }
+
+    private static long mask(long bookId) {
+        return 1L << (bookId & (Long.SIZE - 1));
+    }
+}
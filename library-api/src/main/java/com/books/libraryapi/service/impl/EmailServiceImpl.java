@@ -0,0 +1,87 @@
+package com.books.libraryapi.service.impl;
+
+import com.books.libraryapi.config.MetricsConfig;
+import com.books.libraryapi.service.EmailService;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+@RequiredArgsConstructor
+@Slf4j
+public class EmailServiceImpl implements EmailService {
+
+    private final MailDispatcher mailDispatcher;
+    @Value("${application.mail.default-sender}")
+    private String sender;
+    @Value("${application.mail.dispatch.recipients-per-message:50}")
+    private int recipientsPerMessage;
+
+    @Override
+    public void sendEmails(String message, List<String> mailList) {
+        long start = System.nanoTime();
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < mailList.size(); i += recipientsPerMessage) {
+            List<String> recipients = mailList.subList(i, Math.min(i + recipientsPerMessage, mailList.size()));
+            results.add(mailDispatcher.submit(mailMessage(message, recipients.toArray(new String[0]))));
+        }
+        await(results, mailList.size(), start);
+    }
+
+    @Override
+    public CompletableFuture<Set<String>> sendEmails(Map<String, String> messageByRecipient) {
+        long start = System.nanoTime();
+        Map<String, CompletableFuture<Boolean>> results = new LinkedHashMap<>();
+        messageByRecipient.forEach((recipient, message) ->
+                results.put(recipient, mailDispatcher.submit(mailMessage(message, recipient))));
+        CompletableFuture<Set<String>> sent = CompletableFuture.allOf(results.values().toArray(new CompletableFuture[0]))
+                .thenApply(done -> {
+                    logSent(results.values(), messageByRecipient.size(), start);
+                    return results.entrySet().stream()
+                            .filter(result -> result.getValue().join())
+                            .map(Map.Entry::getKey)
+                            .collect(Collectors.toSet());
+                });
+        sent.whenComplete((recipients, e) -> {
+            if (sent.isCancelled()) {
+                results.values().forEach(result -> result.cancel(false));
+            }
+        });
+        return sent;
+    }
+
+    private SimpleMailMessage mailMessage(String message, String... recipients) {
+        SimpleMailMessage mailMessage = new SimpleMailMessage();
+
+        mailMessage.setFrom(sender);
+        mailMessage.setSubject("Late book return");
+        mailMessage.setText(message);
+        mailMessage.setTo(recipients);
+        return mailMessage;
+    }
+
+    // Waits for the messages so the caller knows they were handed over before it returns.
+    private void await(List<CompletableFuture<Boolean>> results, int recipients, long start) {
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).join();
+        logSent(results, recipients, start);
+    }
+
+    private void logSent(Collection<CompletableFuture<Boolean>> results, int recipients, long start) {
+        long failed = results.stream().filter(result -> !result.join()).count();
+        log.info("Sent {} of {} mail messages to {} recipients in {} ms", results.size() - failed, results.size(),
+                recipients, (System.nanoTime() - start) / 1_000_000);
+    }
+}
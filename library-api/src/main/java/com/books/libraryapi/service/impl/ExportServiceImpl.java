@@ -0,0 +1,134 @@
+package com.books.libraryapi.service.impl;
+
+import com.books.libraryapi.api.dto.BookDTO;
+import com.books.libraryapi.api.dto.LoanExportDTO;
+import com.books.libraryapi.api.dto.LoanFilterDTO;
+import com.books.libraryapi.api.mapper.BookMapper;
+import com.books.libraryapi.api.mapper.LoanMapper;
+import com.books.libraryapi.model.entity.Book;
+import com.books.libraryapi.model.entity.Loan;
+import com.books.libraryapi.model.repository.BookRepository;
+import com.books.libraryapi.model.repository.LoanRepository;
+import com.books.libraryapi.service.ExportService;
+import com.books.libraryapi.service.RowFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final List<String> BOOK_HEADER = List.of("id", "isbn", "title", "author");
+    private static final List<String> LOAN_HEADER = List.of("id", "customer", "email", "loan_date", "returned",
+            "book_id", "isbn", "title", "author");
+
+    private final BookRepository bookRepository;
+    private final LoanRepository loanRepository;
+    private final BookMapper bookMapper;
+    private final LoanMapper loanMapper;
+    private final EntityManager entityManager;
+    private final ObjectWriter jsonWriter;
+
+    public ExportServiceImpl(BookRepository bookRepository,
+                             LoanRepository loanRepository,
+                             BookMapper bookMapper,
+                             LoanMapper loanMapper,
+                             EntityManager entityManager,
+                             ObjectMapper objectMapper) {
+        this.bookRepository = bookRepository;
+        this.loanRepository = loanRepository;
+        this.bookMapper = bookMapper;
+        this.loanMapper = loanMapper;
+        this.entityManager = entityManager;
+        // Rows go into our own buffer; flushing or closing it per row would defeat the buffering.
+        this.jsonWriter = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportBooks(RowFormat format, OutputStream output) throws IOException {
+        try (Stream<Book> books = bookRepository.streamAll()) {
+            return write(books, format, output, BOOK_HEADER, book -> {
+                entityManager.detach(book);
+                return bookMapper.toDTO(book);
+            }, this::bookRow);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportLoans(LoanFilterDTO filter, RowFormat format, OutputStream output) throws IOException {
+        try (Stream<Loan> loans = loanRepository.streamByBookIsbnOrCustomer(filter.getIsbn(), filter.getCustomer())) {
+            return write(loans, format, output, LOAN_HEADER, loan -> {
+                entityManager.detach(loan);
+                entityManager.detach(loan.getBook());
+                return loanMapper.toExportDTO(loan);
+            }, this::loanRow);
+        }
+    }
+
+    private <E, D> long write(Stream<E> rows, RowFormat format, OutputStream output, List<String> header,
+                              Function<E, D> toDTO, Function<D, List<Object>> toCsv) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == RowFormat.CSV) {
+            writer.write(csvLine(header));
+        }
+        long count = 0;
+        for (Iterator<E> iterator = rows.iterator(); iterator.hasNext(); count++) {
+            D dto = toDTO.apply(iterator.next());
+            if (format == RowFormat.CSV) {
+                writer.write(csvLine(toCsv.apply(dto)));
+            } else {
+                jsonWriter.writeValue(writer, dto);
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private List<Object> bookRow(BookDTO book) {
+        return Arrays.asList(book.getId(), book.getIsbn(), book.getTitle(), book.getAuthor());
+    }
+
+    private List<Object> loanRow(LoanExportDTO loan) {
+        BookDTO book = loan.getBook();
+        return Arrays.asList(loan.getId(), loan.getCustomer(), loan.getEmail(), loan.getLoanDate(), loan.getReturned(),
+                book.getId(), book.getIsbn(), book.getTitle(), book.getAuthor());
+    }
+
+    private static String csvLine(List<?> values) {
+        return values.stream().map(ExportServiceImpl::csvField).collect(Collectors.joining(",", "", "\n"));
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String field = value.toString();
+        if (field.contains(",") || field.contains("\"") || field.contains("\n") || field.contains("\r")) {
+            return "\"" + field.replace("\"", "\"\"") + "\"";
+        }
+        return field;
+    }
+}
@@ -0,0 +1,128 @@
+package com.books.libraryapi.service.impl;
+
+import com.books.libraryapi.model.repository.BookRepository;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+@Component
+@Slf4j
+public class IsbnBloomFilter {
+
+    private final BookRepository repository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter<CharSequence> current;
+    private volatile BloomFilter<CharSequence> building;
+    private final AtomicLong staleEntries = new AtomicLong();
+
+    public IsbnBloomFilter(BookRepository repository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${application.books.isbn-filter.enabled:true}") boolean enabled,
+                           @Value("${application.books.isbn-filter.expected-insertions:1000000}") long expectedInsertions,
+                           @Value("${application.books.isbn-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.repository = repository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public boolean mightContain(String isbn) {
+        BloomFilter<CharSequence> filter = current;
+        return filter == null || isbn == null || filter.mightContain(isbn);
+    }
+
+    public void put(String isbn) {
+        if (isbn == null) {
+            return;
+        }
+        // Read building before current: once building is cleared, current is already the rebuilt filter.
+        BloomFilter<CharSequence> pending = building;
+        BloomFilter<CharSequence> filter = current;
+        if (filter != null) {
+            filter.put(isbn);
+        }
+        if (pending != null) {
+            pending.put(isbn);
+        }
+    }
+
+    public void remove(String isbn) {
+        if (isbn != null && current != null) {
+            staleEntries.incrementAndGet();
+        }
+    }
+
+    public synchronized Map<String, Object> rebuild() {
+        if (!enabled) {
+            return stats();
+        }
+        long start = System.currentTimeMillis();
+        BloomFilter<CharSequence> fresh = create();
+        building = fresh;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<String> isbns = repository.streamAllIsbns()) {
+                    isbns.forEach(fresh::put);
+                }
+            });
+            current = fresh;
+            staleEntries.set(0);
+        } finally {
+            building = null;
+        }
+        log.info("Isbn filter rebuilt with ~{} entries in {} ms",
+                fresh.approximateElementCount(), System.currentTimeMillis() - start);
+        return stats();
+    }
+
+    public Map<String, Object> stats() {
+        BloomFilter<CharSequence> filter = current;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("ready", filter != null);
+        stats.put("expectedInsertions", expectedInsertions);
+        stats.put("falsePositiveRate", falsePositiveRate);
+        stats.put("sizeInBytes", sizeInBytes(expectedInsertions, falsePositiveRate));
+        if (filter != null) {
+            stats.put("approximateElementCount", filter.approximateElementCount());
+            stats.put("expectedFalsePositiveRate", filter.expectedFpp());
+            stats.put("staleEntries", staleEntries.get());
+        }
+        return stats;
+    }
+
+    BloomFilter<CharSequence> create() {
+        return BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), expectedInsertions, falsePositiveRate);
+    }
+
+    static long sizeInBytes(long expectedInsertions, double falsePositiveRate) {
+        // Same sizing formula Guava applies: m = -n ln(p) / (ln 2)^2 bits.
+        double bits = -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        return (long) Math.ceil(bits / Long.SIZE) * Long.BYTES;
+    }
+}
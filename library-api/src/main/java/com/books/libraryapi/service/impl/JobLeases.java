@@ -0,0 +1,98 @@
+package com.books.libraryapi.service.impl;
+
+import com.books.libraryapi.model.entity.JobCheckpoint;
+import com.books.libraryapi.model.repository.JobCheckpointRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+// Splits a job into partitions, one job_checkpoint row each, that the nodes sharing the database claim
+// with time-limited leases. A node renews its lease before each unit of work and with every checkpoint;
+// when it stops, the lease runs out and another node takes the partition over from the last checkpoint.
+@Component
+@Slf4j
+public class JobLeases {
+
+    private final JobCheckpointRepository repository;
+    private final Duration leaseDuration;
+    private final String owner;
+
+    public JobLeases(JobCheckpointRepository repository,
+                     @Value("${application.jobs.lease-duration:5m}") Duration leaseDuration) {
+        this.repository = repository;
+        this.leaseDuration = leaseDuration;
+        // pid@host names the node in the table; the suffix tells a restarted process from its predecessor.
+        this.owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public String owner() {
+        return owner;
+    }
+
+    public static String partitionJob(String job, int partition) {
+        return job + ":" + partition;
+    }
+
+    public static int partitionOf(String partitionJob) {
+        return Integer.parseInt(partitionJob.substring(partitionJob.lastIndexOf(':') + 1));
+    }
+
+    // Idempotent: every node may call it, the first one on a new day resets the partitions for that day.
+    public void prepare(String job, int partitions, LocalDate runDate) {
+        if (repository.countByJobStartingWithAndRunDate(job + ":", runDate) == partitions) {
+            return;
+        }
+        for (int partition = 0; partition < partitions; partition++) {
+            String partitionJob = partitionJob(job, partition);
+            if (repository.restart(partitionJob, runDate) == 0 && !repository.existsById(partitionJob)) {
+                try {
+                    repository.create(partitionJob, runDate);
+                } catch (DataIntegrityViolationException e) {
+                    log.debug("Partition {} was created by another node", partitionJob);
+                }
+            }
+        }
+    }
+
+    // Claims an unfinished partition of the run that nobody holds or whose lease has run out.
+    public Optional<JobCheckpoint> claimNext(String job, LocalDate runDate) {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> claimable = new ArrayList<>(repository.findClaimable(job + ":%", runDate, now));
+        // Nodes sweeping at the same moment try the partitions in different orders instead of racing for each.
+        Collections.shuffle(claimable);
+        for (String partitionJob : claimable) {
+            if (repository.claim(partitionJob, runDate, owner, now, now.plus(leaseDuration)) == 1) {
+                log.info("Claimed {} for {}", partitionJob, runDate);
+                return repository.findById(partitionJob);
+            }
+        }
+        return Optional.empty();
+    }
+
+    // How often a node working on a long unit renews its lease, leaving two renewals of slack before it runs out.
+    public Duration renewInterval() {
+        return leaseDuration.dividedBy(3);
+    }
+
+    // Extends the lease by a full duration from now; false once another node has taken the partition over.
+    public boolean renew(JobCheckpoint checkpoint) {
+        return repository.renew(checkpoint.getJob(), owner, LocalDateTime.now().plus(leaseDuration)) == 1;
+    }
+
+    // Saves the progress and renews the lease; false once another node has taken the partition over.
+    public boolean checkpoint(JobCheckpoint checkpoint) {
+        return repository.advance(checkpoint.getJob(), owner, checkpoint.getLastKey(), checkpoint.getLastId(),
+                checkpoint.getCompleted(), LocalDateTime.now().plus(leaseDuration)) == 1;
+    }
+}
@@ -0,0 +1,49 @@
+package com.books.libraryapi.service.impl;
+
+import com.books.libraryapi.model.repository.LateLoanView;
+import com.books.libraryapi.service.LoanService;
+import com.samskivert.mustache.Mustache;
+import com.samskivert.mustache.Template;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Component
+public class LateLoanDigest {
+
+    // Compiled once; Template.execute is thread-safe, so every digest reuses it.
+    private final Template template;
+    private final String message;
+
+    public LateLoanDigest(@Value("classpath:templates/mail/late-loans-digest.mustache") Resource template,
+                          @Value("${application.mail.lateloans.message}") String message) throws IOException {
+        try (Reader reader = new InputStreamReader(template.getInputStream(), StandardCharsets.UTF_8)) {
+            this.template = Mustache.compiler().escapeHTML(false).compile(reader);
+        }
+        this.message = message;
+    }
+
+    // The loans of one customer, all with the same email.
+    public String render(List<LateLoanView> loans, LocalDate today) {
+        List<Map<String, Object>> lines = loans.stream()
+                .map(loan -> Map.<String, Object>of(
+                        "title", Objects.requireNonNullElse(loan.getBookTitle(), ""),
+                        "daysOverdue", ChronoUnit.DAYS.between(loan.getLoanDate().plusDays(LoanService.LOAN_DAYS), today)))
+                .toList();
+        String customer = loans.get(0).getCustomer();
+        return template.execute(Map.of(
+                "customer", Objects.requireNonNullElse(customer, ""),
+                "message", message,
+                "loans", lines));
+    }
+}
@@ -0,0 +1,315 @@
+package com.books.libraryapi.service.impl;
+
+import com.books.libraryapi.config.MetricsConfig;
+import com.books.libraryapi.api.dto.BookAvailabilityDTO;
+import com.books.libraryapi.api.dto.LoanBatchResultDTO;
+import com.books.libraryapi.api.dto.LoanDTO;
+import com.books.libraryapi.api.dto.LoanFilterDTO;
+import com.books.libraryapi.api.dto.LoanReturnBatchDTO;
+import com.books.libraryapi.api.dto.LoanReturnResultDTO;
+import com.books.libraryapi.exception.BusinessException;
+import com.books.libraryapi.model.entity.Book;
+import com.books.libraryapi.model.entity.Loan;
+import com.books.libraryapi.model.repository.BookChangeRepository;
+import com.books.libraryapi.model.repository.BookRepository;
+import com.books.libraryapi.model.repository.LateLoanView;
+import com.books.libraryapi.model.repository.LoanRepository;
+import com.books.libraryapi.model.repository.LoanReturnView;
+import com.books.libraryapi.service.LoanService;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.books.libraryapi.service.impl.TransactionCallbacks.afterCompletion;
+import static com.books.libraryapi.service.impl.TransactionCallbacks.onCommit;
+
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class LoanServiceImpl implements LoanService {
+
+    private static final int RETURN_CHUNK_SIZE = 500;
+
+    private LoanRepository repository;
+    private BookRepository bookRepository;
+    private BookChangeRepository changeRepository;
+    private CheckoutClaims checkoutClaims;
+    private BookAvailabilityIndex availabilityIndex;
+    private Counter conflicts;
+    private Counter batchConflicts;
+
+    public LoanServiceImpl(LoanRepository repository, BookRepository bookRepository,
+                           BookChangeRepository changeRepository, CheckoutClaims checkoutClaims,
+                           BookAvailabilityIndex availabilityIndex, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.bookRepository = bookRepository;
+        this.changeRepository = changeRepository;
+        this.checkoutClaims = checkoutClaims;
+        this.availabilityIndex = availabilityIndex;
+        this.conflicts = meterRegistry.counter("library.loans.conflicts", "operation", "save");
+        this.batchConflicts = meterRegistry.counter("library.loans.conflicts", "operation", "batch");
+    }
+
+    @Override
+    @Transactional
+    public Loan save(Loan loan) {
+        Long bookId = loan.getBook().getId();
+        if(!checkoutClaims.tryClaim(bookId)){
+            conflicts.increment();
+            throw new BusinessException("Book already loaned");
+        }
+        try {
+            // The book's row lock serializes checkouts across nodes, so the open loan check is authoritative.
+            // The caller's book may be a copy from the isbn cache; the loan references the managed, locked one.
+            Book book = bookRepository.findForLoanById(bookId)
+                    .orElseThrow(() -> new BusinessException("Book not found"));
+            loan.setBook(book);
+            if(repository.existsByBookAndNotReturned(book)){
+                conflicts.increment();
+                throw new BusinessException("Book already loaned");
+            }
+            Loan saved = repository.save(loan);
+            changeRepository.record(List.of(bookId));
+            onCommit(() -> availabilityIndex.markLoaned(bookId));
+            return saved;
+        } finally {
+            checkoutClaims.release(bookId);
+        }
+    }
+
+    @Override
+    @Transactional
+    public List<LoanBatchResultDTO> saveAll(List<LoanDTO> loans) {
+        Set<String> isbns = loans.stream().map(LoanDTO::getIsbn).collect(Collectors.toSet());
+        if (isbns.isEmpty()) {
+            return List.of();
+        }
+        // Books are locked so concurrent batches for the same titles see each other's loans.
+        Map<String, Book> books = bookRepository.findForLoanByIsbnIn(isbns).stream()
+                .collect(Collectors.toMap(Book::getIsbn, Function.identity()));
+        Set<Long> loanedBookIds = books.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(repository.findBookIdsNotReturned(
+                        books.values().stream().map(Book::getId).toList()));
+
+        List<LoanBatchResultDTO> results = new ArrayList<>();
+        List<Loan> newLoans = new ArrayList<>();
+        List<LoanBatchResultDTO> created = new ArrayList<>();
+        List<Long> claimed = new ArrayList<>();
+        for (LoanDTO dto : loans) {
+            LoanBatchResultDTO result = LoanBatchResultDTO.builder()
+                    .isbn(dto.getIsbn())
+                    .customer(dto.getCustomer())
+                    .build();
+            results.add(result);
+
+            Book book = books.get(dto.getIsbn());
+            if (book == null) {
+                result.setStatus(LoanBatchResultDTO.Status.BOOK_NOT_FOUND);
+            } else if (loanedBookIds.contains(book.getId()) || !checkoutClaims.tryClaim(book.getId())) {
+                result.setStatus(LoanBatchResultDTO.Status.ALREADY_LOANED);
+                batchConflicts.increment();
+            } else {
+                claimed.add(book.getId());
+                newLoans.add(Loan.builder()
+                        .book(book)
+                        .customer(dto.getCustomer())
+                        .customerEmail(dto.getEmail())
+                        .loanDate(LocalDate.now())
+                        .build());
+                created.add(result);
+            }
+        }
+
+        afterCompletion(() -> claimed.forEach(checkoutClaims::release));
+        onCommit(() -> claimed.forEach(availabilityIndex::markLoaned));
+        List<Loan> saved = repository.saveAll(newLoans);
+        if (!claimed.isEmpty()) {
+            changeRepository.record(claimed);
+        }
+        for (int i = 0; i < saved.size(); i++) {
+            created.get(i).setStatus(LoanBatchResultDTO.Status.CREATED);
+            created.get(i).setId(saved.get(i).getId());
+        }
+        return results;
+    }
+
+    @Override
+    public Optional<Loan> getByID(Long id) {
+        return repository.findById(id);
+    }
+
+    @Override
+    @Transactional
+    public Loan update(Loan loan) {
+        Loan updated = repository.save(loan);
+        if (updated.getBook() != null) {
+            Long bookId = updated.getBook().getId();
+            changeRepository.record(List.of(bookId));
+            onCommit(() -> availabilityIndex.reload(List.of(bookId)));
+        }
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public List<LoanReturnResultDTO> returnAll(LoanReturnBatchDTO loanReturnBatchDTO) {
+        List<LoanReturnResultDTO> results = new ArrayList<>();
+        List<Long> returnedBookIds = new ArrayList<>();
+        for (List<Long> ids : chunks(loanReturnBatchDTO.getIds())) {
+            Map<Long, LoanReturnView> views = repository.findReturnViewsByIdIn(ids).stream()
+                    .collect(Collectors.toMap(LoanReturnView::getId, Function.identity()));
+            Set<Long> returned = markReturned(views.values().stream()
+                    .filter(view -> !Boolean.TRUE.equals(view.getReturned()))
+                    .map(LoanReturnView::getId)
+                    .toList());
+            for (Long id : ids) {
+                LoanReturnView view = views.get(id);
+                LoanReturnResultDTO.Status status;
+                if (view == null) {
+                    status = LoanReturnResultDTO.Status.NOT_FOUND;
+                } else if (returned.contains(id)) {
+                    status = LoanReturnResultDTO.Status.RETURNED;
+                    returnedBookIds.add(view.getBookId());
+                } else {
+                    status = LoanReturnResultDTO.Status.ALREADY_RETURNED;
+                }
+                results.add(LoanReturnResultDTO.builder()
+                        .id(id)
+                        .isbn(view == null ? null : view.getIsbn())
+                        .status(status)
+                        .build());
+            }
+        }
+
+        for (List<String> isbns : chunks(loanReturnBatchDTO.getIsbns())) {
+            List<LoanReturnView> found = repository.findReturnViewsNotReturnedByIsbnIn(isbns);
+            Map<String, List<LoanReturnView>> views = found.stream()
+                    .collect(Collectors.groupingBy(LoanReturnView::getIsbn));
+            Set<Long> returned = markReturned(found.stream().map(LoanReturnView::getId).toList());
+            for (String isbn : isbns) {
+                List<LoanReturnView> open = views.getOrDefault(isbn, List.of());
+                if (open.isEmpty()) {
+                    results.add(LoanReturnResultDTO.builder()
+                            .isbn(isbn)
+                            .status(LoanReturnResultDTO.Status.NOT_FOUND)
+                            .build());
+                }
+                open.forEach(view -> {
+                    boolean returnedHere = returned.contains(view.getId());
+                    if (returnedHere) {
+                        returnedBookIds.add(view.getBookId());
+                    }
+                    results.add(LoanReturnResultDTO.builder()
+                            .id(view.getId())
+                            .isbn(isbn)
+                            .status(returnedHere ? LoanReturnResultDTO.Status.RETURNED
+                                    : LoanReturnResultDTO.Status.ALREADY_RETURNED)
+                            .build());
+                });
+            }
+        }
+        if (!returnedBookIds.isEmpty()) {
+            changeRepository.record(returnedBookIds);
+        }
+        onCommit(() -> returnedBookIds.forEach(availabilityIndex::markAvailable));
+        return results;
+    }
+
+    @Override
+    public List<BookAvailabilityDTO> getAvailability(List<String> isbns) {
+        return isbns.stream()
+                .map(isbn -> availabilityIndex.getBookId(isbn)
+                        .map(bookId -> BookAvailabilityDTO.builder()
+                                .isbn(isbn)
+                                .bookId(bookId)
+                                .status(availabilityIndex.isLoaned(bookId)
+                                        ? BookAvailabilityDTO.Status.LOANED
+                                        : BookAvailabilityDTO.Status.AVAILABLE)
+                                .build())
+                        .orElseGet(() -> BookAvailabilityDTO.builder()
+                                .isbn(isbn)
+                                .status(BookAvailabilityDTO.Status.NOT_FOUND)
+                                .build()))
+                .toList();
+    }
+
+    // Returns the loans this transaction actually returned. The open ones are locked before the update, so a
+    // loan returned concurrently after the views were read is reported as already returned, not as returned twice.
+    private Set<Long> markReturned(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        Set<Long> open = new HashSet<>(repository.lockNotReturnedByIdIn(ids));
+        if (!open.isEmpty()) {
+            repository.markReturned(open);
+        }
+        return open;
+    }
+
+    private static <T> List<List<T>> chunks(List<T> values) {
+        List<T> distinct = values == null ? List.of() : new ArrayList<>(new LinkedHashSet<>(values));
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < distinct.size(); i += RETURN_CHUNK_SIZE) {
+            chunks.add(distinct.subList(i, Math.min(i + RETURN_CHUNK_SIZE, distinct.size())));
+        }
+        return chunks;
+    }
+
+    @Override
+    public Page<Loan> find(LoanFilterDTO loanFilterDTO, Pageable pageable) {
+        return repository.findByBookIsbnOrCustomer(loanFilterDTO.getIsbn(), loanFilterDTO.getCustomer(), pageable);
+    }
+
+    @Override
+    public Slice<Loan> findSlice(LoanFilterDTO loanFilterDTO, Pageable pageable) {
+        return repository.findSliceByBookIsbnOrCustomer(loanFilterDTO.getIsbn(), loanFilterDTO.getCustomer(), pageable);
+    }
+
+    @Override
+    public Window<Loan> scroll(LoanFilterDTO loanFilterDTO, ScrollPosition position, Sort sort, int limit) {
+        return repository.scrollByBookIsbnOrCustomer(loanFilterDTO.getIsbn(), loanFilterDTO.getCustomer(),
+                position, sort, limit);
+    }
+
+    @Override
+    public Page<Loan> getLoansByBook(Book book, Pageable pageable) {
+        return repository.findByBook(book, pageable);
+    }
+
+    @Override
+    public Slice<Loan> getLoanSliceByBook(Book book, Pageable pageable) {
+        return repository.findSliceByBook(book, pageable);
+    }
+
+    @Override
+    public long getLoansChangeCount(Long bookId) {
+        // Read on every call, like the book version, so the tag reflects writes made on any node.
+        return repository.changeCountByBookId(bookId);
+    }
+
+    @Override
+    public List<LateLoanView> getLateLoans(int partition, LocalDate today, String afterEmail, long afterId, int limit) {
+        return repository.findLateLoansAfter(partition, today.minusDays(LOAN_DAYS), afterEmail, afterId,
+                Limit.of(limit));
+    }
+}
@@ -0,0 +1,186 @@
+package com.books.libraryapi.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Slf4j
+public class MailDispatcher {
+
+    private static final String THREAD_PREFIX = "mail-dispatch-";
+
+    private final JavaMailSender mailSender;
+    private final BlockingQueue<Envelope> queue;
+    private final ExecutorService workers;
+    private final int messagesPerConnection;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter retried;
+    private final Timer connectionTimer;
+    private volatile boolean running = true;
+
+    public MailDispatcher(JavaMailSender mailSender,
+                          MeterRegistry meterRegistry,
+                          @Value("${application.mail.dispatch.workers:4}") int workers,
+                          @Value("${application.mail.dispatch.queue-capacity:1000}") int queueCapacity,
+                          @Value("${application.mail.dispatch.messages-per-connection:20}") int messagesPerConnection,
+                          @Value("${application.mail.dispatch.max-attempts:3}") int maxAttempts,
+                          @Value("${application.mail.dispatch.backoff:1s}") Duration backoff,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.mailSender = mailSender;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.messagesPerConnection = messagesPerConnection;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.sent = meterRegistry.counter("mail.dispatch.messages", "result", "sent");
+        this.failed = meterRegistry.counter("mail.dispatch.messages", "result", "failed");
+        this.retried = meterRegistry.counter("mail.dispatch.retries");
+        this.connectionTimer = meterRegistry.timer("mail.dispatch.connection");
+        meterRegistry.gauge("mail.dispatch.queue.size", queue, BlockingQueue::size);
+
+        // Workers block on SMTP round trips, which is what virtual threads are for; the pool size still caps connections.
+        ThreadFactory threadFactory = virtualThreads && JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)
+                ? new VirtualThreadTaskExecutor(THREAD_PREFIX).getVirtualThreadFactory()
+                : new CustomizableThreadFactory(THREAD_PREFIX);
+        this.workers = Executors.newFixedThreadPool(workers, threadFactory);
+        for (int i = 0; i < workers; i++) {
+            this.workers.execute(this::work);
+        }
+    }
+
+    // Blocks while the queue is full, so a large job is paced by the SMTP server instead of piling up in memory.
+    // The future completes with false when the message still failed after the last attempt; cancelling it
+    // drops the message unless a worker is already sending it.
+    public CompletableFuture<Boolean> submit(SimpleMailMessage message) {
+        if (!running) {
+            throw new IllegalStateException("Mail dispatcher is shut down");
+        }
+        Envelope envelope = new Envelope(message, new CompletableFuture<>());
+        try {
+            queue.put(envelope);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing a mail message", e);
+        }
+        return envelope.result();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        workers.shutdown();
+        if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Mail dispatcher stopped with {} messages still queued", queue.size());
+            workers.shutdownNow();
+        }
+    }
+
+    private void work() {
+        List<Envelope> batch = new ArrayList<>(messagesPerConnection);
+        while (running || !queue.isEmpty()) {
+            try {
+                Envelope first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, messagesPerConnection - 1);
+                deliver(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(envelope -> envelope.result().complete(false));
+                return;
+            } catch (RuntimeException e) {
+                // Keep the worker alive and never leave a caller waiting on a future.
+                log.error("Unexpected error while dispatching mail", e);
+                failed.increment(batch.stream().filter(envelope -> envelope.result().complete(false)).count());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void deliver(List<Envelope> batch) throws InterruptedException {
+        List<Envelope> pending = batch;
+        for (int attempt = 1; ; attempt++) {
+            // The caller may have cancelled a message while it waited, e.g. a job that lost its lease.
+            pending.removeIf(envelope -> envelope.result().isDone());
+            if (pending.isEmpty()) {
+                return;
+            }
+            pending = send(pending);
+            if (pending.isEmpty()) {
+                return;
+            }
+            if (attempt >= maxAttempts) {
+                failed.increment(pending.size());
+                for (Envelope envelope : pending) {
+                    log.warn("Giving up on mail to {} after {} attempts", List.of(envelope.message().getTo()), attempt);
+                    envelope.result().complete(false);
+                }
+                return;
+            }
+            retried.increment(pending.size());
+            Thread.sleep(backoff.toMillis() << (attempt - 1));
+        }
+    }
+
+    // JavaMailSender sends an array of messages over a single transport connection; returns the ones that failed.
+    private List<Envelope> send(List<Envelope> envelopes) {
+        SimpleMailMessage[] messages = envelopes.stream().map(Envelope::message).toArray(SimpleMailMessage[]::new);
+        Map<Object, Exception> failures;
+        try {
+            connectionTimer.record(() -> mailSender.send(messages));
+            failures = Map.of();
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                log.warn("Mail connection failed: {}", e.getMessage());
+                return new ArrayList<>(envelopes);
+            }
+        } catch (MailException e) {
+            log.warn("Mail connection failed: {}", e.getMessage());
+            return new ArrayList<>(envelopes);
+        }
+
+        List<Envelope> retry = new ArrayList<>();
+        for (Envelope envelope : envelopes) {
+            if (failures.containsKey(envelope.message())) {
+                retry.add(envelope);
+            } else {
+                sent.increment();
+                envelope.result().complete(true);
+            }
+        }
+        return retry;
+    }
+
+    private record Envelope(SimpleMailMessage message, CompletableFuture<Boolean> result) {
+    }
+}
@@ -0,0 +1,41 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// The partition is a Java hash of the email, so it cannot be computed in plain SQL. The hash is copied from
+// Loan.partitionOf as it was when this migration was written, so later changes to the entity leave it alone.
+public class V6__Backfill_loan_customer_partition extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int CUSTOMER_PARTITIONS = 16;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement select = context.getConnection().createStatement();
+             PreparedStatement update = context.getConnection().prepareStatement(
+                     "UPDATE loan SET customer_partition = ? WHERE id = ?")) {
+            select.setFetchSize(BATCH_SIZE);
+            try (ResultSet rows = select.executeQuery(
+                    "SELECT id, customer_email FROM loan WHERE customer_email IS NOT NULL")) {
+                int pending = 0;
+                while (rows.next()) {
+                    update.setInt(1, Math.floorMod(rows.getString(2).hashCode(), CUSTOMER_PARTITIONS));
+                    update.setLong(2, rows.getLong(1));
+                    update.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        update.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    update.executeBatch();
+                }
+            }
+        }
+    }
+}
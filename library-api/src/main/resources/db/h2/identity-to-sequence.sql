@@ -0,0 +1,13 @@
+-- Moves an existing H2 database from IDENTITY ids to the pooled book_seq/loan_seq sequences.
+-- Run once against file-based databases created before the switch, e.g.
+--   java -cp h2.jar org.h2.tools.RunScript -url jdbc:h2:file:./library -script identity-to-sequence.sql
+-- The pooled optimizer hands out (value - 49 .. value], so each sequence restarts 50 above the current max id.
+
+ALTER TABLE book ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE loan ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE IF NOT EXISTS book_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS loan_seq START WITH 1 INCREMENT BY 50;
+
+ALTER SEQUENCE book_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM book);
+ALTER SEQUENCE loan_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM loan);
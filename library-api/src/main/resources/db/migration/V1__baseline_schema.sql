@@ -0,0 +1,29 @@
+-- Schema as Hibernate generated it before migrations took over.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate);
+-- ones that still use IDENTITY ids need db/h2/identity-to-sequence.sql first.
+
+CREATE SEQUENCE book_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE loan_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE book (
+    id     BIGINT       NOT NULL,
+    author VARCHAR(255),
+    title  VARCHAR(255),
+    isbn   VARCHAR(255),
+    CONSTRAINT pk_book PRIMARY KEY (id)
+);
+
+CREATE TABLE loan (
+    id             BIGINT       NOT NULL,
+    customer       VARCHAR(100),
+    customer_email VARCHAR(255),
+    book_id        BIGINT,
+    loan_date      DATE,
+    returned       BOOLEAN,
+    CONSTRAINT pk_loan PRIMARY KEY (id),
+    CONSTRAINT fk_loan_book FOREIGN KEY (book_id) REFERENCES book (id)
+);
+
+CREATE INDEX idx_book_isbn ON book (isbn);
+CREATE INDEX idx_loan_loan_date ON loan (loan_date, id);
+CREATE INDEX idx_loan_customer ON loan (customer);
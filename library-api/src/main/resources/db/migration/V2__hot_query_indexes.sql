@@ -0,0 +1,14 @@
+-- Databases baselined at V1 come from the Hibernate generated schema, which had none of V1's indexes,
+-- so those are dropped and created conditionally here.
+CREATE INDEX IF NOT EXISTS idx_loan_loan_date ON loan (loan_date, id);
+CREATE INDEX IF NOT EXISTS idx_loan_customer ON loan (customer);
+
+-- Duplicate ISBNs are rejected by the database, not only by the service check.
+DROP INDEX IF EXISTS idx_book_isbn;
+ALTER TABLE book ADD CONSTRAINT ux_book_isbn UNIQUE (isbn);
+
+-- Open-loan lookups per book: existsByBookAndNotReturned, findBookIdsNotReturned.
+CREATE INDEX idx_loan_book_returned ON loan (book_id, returned);
+
+-- Late-loan scan: loan_date range, returned checked from the index entry.
+CREATE INDEX idx_loan_loan_date_returned ON loan (loan_date, returned);
@@ -0,0 +1,8 @@
+-- Progress of chunked batch jobs, so a run interrupted by a crash resumes after the last committed chunk.
+CREATE TABLE job_checkpoint (
+    job       VARCHAR(100) NOT NULL,
+    run_date  DATE         NOT NULL,
+    last_id   BIGINT       NOT NULL,
+    completed BOOLEAN      NOT NULL,
+    CONSTRAINT pk_job_checkpoint PRIMARY KEY (job)
+);
@@ -0,0 +1,5 @@
+-- Late-loan digests walk open loans grouped by customer email, in (customer_email, id) keyset order.
+CREATE INDEX idx_loan_customer_email ON loan (customer_email, id);
+
+-- Keyset position of the last committed row; jobs ordered by a string key store it next to the id.
+ALTER TABLE job_checkpoint ADD COLUMN last_key VARCHAR(255);
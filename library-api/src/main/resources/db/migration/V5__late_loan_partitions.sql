@@ -0,0 +1,10 @@
+-- The late-loan job is split into partitions by customer, so each digest is built by exactly one node.
+-- customer_partition is derived from customer_email by Loan.partitionOf; V6 fills it for existing rows.
+ALTER TABLE loan ADD COLUMN customer_partition INT;
+DROP INDEX idx_loan_customer_email;
+CREATE INDEX idx_loan_customer_partition ON loan (customer_partition, customer_email, id);
+
+-- Partition leases: the node named in owner holds the partition until lease_until.
+ALTER TABLE job_checkpoint ADD COLUMN owner VARCHAR(100);
+ALTER TABLE job_checkpoint ADD COLUMN lease_until TIMESTAMP(6);
+DELETE FROM job_checkpoint WHERE job = 'late-loans';
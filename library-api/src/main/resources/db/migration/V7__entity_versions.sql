@@ -0,0 +1,3 @@
+-- Optimistic-lock versions; they also tag the book and loan resources with strong ETags.
+ALTER TABLE book ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE loan ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,9 @@
+-- Books whose row or loans changed, written in the same transaction as the change, so every node can bring
+-- its BookAvailabilityIndex up to date. changed_at is the database clock, shared by all nodes.
+CREATE TABLE book_change (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    book_id    BIGINT       NOT NULL,
+    changed_at TIMESTAMP(6) DEFAULT LOCALTIMESTAMP NOT NULL,
+    CONSTRAINT pk_book_change PRIMARY KEY (id)
+);
+CREATE INDEX idx_book_change_changed_at ON book_change (changed_at);
@@ -0,0 +1,62 @@
+package com.books.libraryapi.api.mapper;
+
+import com.books.libraryapi.api.dto.BookDTO;
+import com.books.libraryapi.api.dto.LoanDTO;
+import com.books.libraryapi.model.entity.Book;
+import com.books.libraryapi.model.entity.Loan;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@ContextConfiguration(classes = {BookMapperImpl.class, LoanMapperImpl.class})
+class LoanMapperTest {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    BookMapper bookMapper;
+
+    @Autowired
+    LoanMapper loanMapper;
+
+    @Test
+    @DisplayName("Should map a loan to the same JSON ModelMapper produced")
+    void testLoanToDTO() throws Exception {
+        Book book = Book.builder().id(1L).isbn("123").title("Title").author("Author").build();
+        Loan loan = Loan.builder().id(2L).book(book).customer("Cliente").customerEmail("cliente@email.com")
+                .loanDate(LocalDate.now()).returned(false).build();
+
+        LoanDTO expected = modelMapper.map(loan, LoanDTO.class);
+        expected.setBook(modelMapper.map(book, BookDTO.class));
+        LoanDTO actual = loanMapper.toDTO(loan);
+
+        assertEquals(objectMapper.writeValueAsString(expected), objectMapper.writeValueAsString(actual));
+        assertNull(actual.getIsbn());
+        assertEquals("cliente@email.com", actual.getEmail());
+        assertEquals("123", actual.getBook().getIsbn());
+    }
+
+    @Test
+    @DisplayName("Should map books both ways like ModelMapper did")
+    void testBookMapping() {
+        Book book = Book.builder().id(1L).isbn("123").title("Title").author("Author").build();
+        BookDTO dto = BookDTO.builder().title("Title").build();
+
+        assertEquals(modelMapper.map(book, BookDTO.class), bookMapper.toDTO(book));
+        assertEquals(modelMapper.map(dto, Book.class), bookMapper.toEntity(dto));
+        assertNull(bookMapper.toDTO(null));
+    }
+}
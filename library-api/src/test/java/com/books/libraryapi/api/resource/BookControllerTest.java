@@ -0,0 +1,493 @@
+package com.books.libraryapi.api.resource;
+
+import com.books.libraryapi.api.dto.BookDTO;
+import com.books.libraryapi.exception.BusinessException;
+import com.books.libraryapi.api.mapper.BookMapperImpl;
+import com.books.libraryapi.api.mapper.LoanMapperImpl;
+import com.books.libraryapi.model.entity.Book;
+import com.books.libraryapi.model.entity.Loan;
+import com.books.libraryapi.api.dto.BookAvailabilityDTO;
+import com.books.libraryapi.api.dto.BookImportReportDTO;
+import com.books.libraryapi.api.dto.BookImportRowDTO;
+import com.books.libraryapi.service.BookImportService;
+import com.books.libraryapi.service.BookService;
+import com.books.libraryapi.service.ExportService;
+import com.books.libraryapi.service.LoanService;
+import com.books.libraryapi.service.RowFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.BDDMockito.*;
+import static org.mockito.Mockito.any;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(SpringExtension.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WebMvcTest(controllers = {BookController.class})
+@Import({BookMapperImpl.class, LoanMapperImpl.class})
+public class BookControllerTest {
+
+    private static final String BOOK_API = "/api/books";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    BookService service;
+
+    @MockBean
+    LoanService loanService;
+
+    @MockBean
+    ExportService exportService;
+
+    @MockBean
+    BookImportService importService;
+
+    @Test
+    @DisplayName("Should return success when create a new book")
+    void createBookTest()throws Exception{
+        BookDTO dto = BookDTO.builder().author("Author").title("New Book").isbn("1234").build();
+        Book savedBook = Book.builder().id(1L).author("Author").title("New Book").isbn("1234").build();
+
+        BDDMockito.given(service.save(any(Book.class))).willReturn(savedBook);
+        String json = new ObjectMapper().writeValueAsString(dto);
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(BOOK_API)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mockMvc.perform(request)
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("id").isNotEmpty())
+                .andExpect(jsonPath("title").value(dto.getTitle()))
+                .andExpect(jsonPath("author").value(dto.getAuthor()))
+                .andExpect(jsonPath("isbn").value(dto.getIsbn()));
+    }
+
+    @Test
+    @DisplayName("Should return error when create a new book with invalid fields")
+    void createInvalidBookTest() throws Exception{
+        String json = new ObjectMapper().writeValueAsString(new BookDTO());
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(BOOK_API)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mockMvc.perform(request)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors", hasSize(3)));
+    }
+
+    @Test
+    @DisplayName("Should throws an BusinessException when save a book with already isbn existent")
+    void testCreateBookWhenIsbnAlreadyExists() throws Exception{
+        BookDTO dto = BookDTO.builder().author("Author").title("New Book").isbn("1234").build();
+        String json = new ObjectMapper().writeValueAsString(dto);
+        String msg = "Isbn already exists.";
+        BDDMockito.given(service.save(any(Book.class)))
+                .willThrow(new BusinessException(msg));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(BOOK_API)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mockMvc.perform(request)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors", hasSize(1)))
+                .andExpect(jsonPath("errors[0]").value(msg));
+    }
+
+    @Test
+    @DisplayName("Should return details of found book")
+    void testGetBookDetails() throws Exception{
+        Long id = 1L;
+        Book book = Book.builder()
+                .id(1L)
+                .author("Author")
+                .title("New Book")
+                .isbn("1234")
+                .build();
+        given(service.getById(id)).willReturn(Optional.of(book));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("/"+id))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("id").value(1L))
+                .andExpect(jsonPath("title").value("New Book"))
+                .andExpect(jsonPath("author").value("Author"))
+                .andExpect(jsonPath("isbn").value("1234"));
+    }
+
+    @Test
+    @DisplayName("Should return an Not Found Exception when a book not found")
+    void testBookNotFound() throws Exception{
+
+        given(service.getById(anyLong())).willReturn(Optional.empty());
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("/"+1))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc.perform(request)
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should delete a book resource")
+    void testDeleteBook() throws Exception{
+        given(service.getById(anyLong())).willReturn(Optional.of(Book.builder().id(1L).build()));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .delete(BOOK_API.concat("/"+ 1));
+
+        mockMvc.perform(request)
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @DisplayName("Should return not found when delete a nonexistent book")
+    void testDeleteBookNotFound() throws Exception{
+        given(service.getById(anyLong())).willReturn(Optional.empty());
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .delete(BOOK_API.concat("/"+ 1));
+
+        mockMvc.perform(request)
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should return a updated book")
+    public void testUpdateBook() throws Exception{
+        Long id = 1L;
+        String json = new ObjectMapper().writeValueAsString(Book.builder().id(1L).author("Author").title("New Book").isbn("123445").build());
+        Book book = Book.builder().id(1L).title("Other Book").author("Other Author").isbn("123445").build();
+        given(service.getById(id)).willReturn(Optional.of(book));
+
+        given(service.update(book)).willReturn(Book.builder().id(1L).title("Other Book").author("Other Author").isbn("123445").build());
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .put(BOOK_API.concat("/"+ 1))
+                .content(json)
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON);
+
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("id").value(1L))
+                .andExpect(jsonPath("title").value("Other Book"))
+                .andExpect(jsonPath("author").value("Other Author"))
+                .andExpect(jsonPath("isbn").value("123445"));;
+    }
+
+    @Test
+    @DisplayName("Should return 404 when try a updated book")
+    public void testUpdateBookNotFound() throws Exception{
+
+        String json = new ObjectMapper().writeValueAsString(Book.builder().id(1L).author("Author").title("New Book").isbn("1234").build());
+        given(service.getById(anyLong())).willReturn(Optional.empty());
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .put(BOOK_API.concat("/"+ 1))
+                .content(json)
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON);
+
+        mockMvc.perform(request)
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should tag a book with its version and answer a matching If-None-Match with 304")
+    void testGetBookConditional() throws Exception{
+        Book book = Book.builder().id(1L).author("Author").title("New Book").isbn("1234").version(3L).build();
+        given(service.getVersion(1L)).willReturn(Optional.of(3L));
+        given(service.getById(1L)).willReturn(Optional.of(book));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/1")).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("version").doesNotExist());
+
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/1"))
+                        .header("If-None-Match", "\"3\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(service, times(1)).getById(1L);
+    }
+
+    @Test
+    @DisplayName("Should reject an update whose If-Match does not match the current version")
+    void testUpdateBookPreconditionFailed() throws Exception{
+        String json = new ObjectMapper().writeValueAsString(Book.builder().id(1L).author("Author").title("New Book").isbn("1234").build());
+        Book book = Book.builder().id(1L).title("Other Book").author("Other Author").isbn("1234").version(4L).build();
+        given(service.getById(1L)).willReturn(Optional.of(book));
+        given(service.update(book)).willReturn(Book.builder().id(1L).title("Other Book").author("Other Author").isbn("1234").version(5L).build());
+
+        mockMvc.perform(MockMvcRequestBuilders.put(BOOK_API.concat("/1"))
+                        .header("If-Match", "\"3\"")
+                        .content(json)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed());
+        verify(service, never()).update(any());
+
+        mockMvc.perform(MockMvcRequestBuilders.put(BOOK_API.concat("/1"))
+                        .header("If-Match", "\"4\"")
+                        .content(json)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5\""));
+    }
+
+    @Test
+    @DisplayName("Should map a concurrent update to 409 without If-Match")
+    void testUpdateBookConflict() throws Exception{
+        String json = new ObjectMapper().writeValueAsString(Book.builder().id(1L).author("Author").title("New Book").isbn("1234").build());
+        Book book = Book.builder().id(1L).title("Other Book").author("Other Author").isbn("1234").version(4L).build();
+        given(service.getById(1L)).willReturn(Optional.of(book));
+        given(service.update(book)).willThrow(new OptimisticLockingFailureException("stale"));
+
+        mockMvc.perform(MockMvcRequestBuilders.put(BOOK_API.concat("/1"))
+                        .content(json)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("Should return filtered books")
+    void testFindBookByFilter() throws Exception{
+        Long id = 1L;
+        Book book = Book.builder().id(1L).title("Other Book").author("Other Author").isbn("123445").build();
+
+        given(service.find(any(Book.class), any(Pageable.class)))
+                .willReturn(new PageImpl<Book>(Arrays.asList(book), PageRequest.of(0, 100), 1));
+
+        String queryString = String.format("?title=%s&author=%s&page=0&size=100",
+                book.getTitle(),
+                book.getAuthor());
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(BOOK_API.concat(queryString))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", Matchers.hasSize(1)))
+                .andExpect(jsonPath("totalElements").value(1))
+                .andExpect(jsonPath("pageable.pageSize").value(100))
+                .andExpect(jsonPath("pageable.pageNumber").value(0));
+    }
+
+    @Test
+    @DisplayName("Should import books from a CSV stream")
+    void testImportBooks() throws Exception{
+        BookImportReportDTO report = new BookImportReportDTO();
+        report.add(BookImportRowDTO.builder().line(2).isbn("123").id(1L).status(BookImportRowDTO.Status.CREATED).build());
+        given(importService.importBooks(any(), eq(RowFormat.CSV))).willReturn(report);
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(BOOK_API.concat("/import"))
+                .contentType(RowFormat.CSV_VALUE)
+                .accept(MediaType.APPLICATION_JSON)
+                .content("isbn,title,author\n123,New Book,Author\n");
+
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("total").value(1))
+                .andExpect(jsonPath("created").value(1))
+                .andExpect(jsonPath("rows", hasSize(1)))
+                .andExpect(jsonPath("rows[0].status").value("CREATED"));
+    }
+
+    @Test
+    @DisplayName("Should return the availability of a list of isbns")
+    void testBooksAvailability() throws Exception{
+        given(loanService.getAvailability(anyList())).willReturn(Arrays.asList(
+                BookAvailabilityDTO.builder().isbn("123").bookId(1L).status(BookAvailabilityDTO.Status.LOANED).build(),
+                BookAvailabilityDTO.builder().isbn("456").status(BookAvailabilityDTO.Status.NOT_FOUND).build()));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(BOOK_API.concat("/availability"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(Arrays.asList("123", "456")));
+
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("[0].status").value("LOANED"))
+                .andExpect(jsonPath("[1].status").value("NOT_FOUND"));
+    }
+
+    @Test
+    @DisplayName("Should page books with a continuation cursor")
+    void testFindBooksByCursor() throws Exception{
+        Book book = Book.builder().id(7L).title("Book").author("Author").isbn("123").build();
+        Sort sort = Sort.by("isbn").and(Sort.by("id"));
+        given(service.scroll(any(Book.class), any(ScrollPosition.class), eq(sort), eq(1)))
+                .willReturn(Window.from(List.of(book),
+                        index -> ScrollPosition.forward(Map.of("isbn", "123", "id", 7L)), true));
+
+        String body = mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("?cursor=&sort=isbn&size=1"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", hasSize(1)))
+                .andExpect(jsonPath("hasNext").value(true))
+                .andExpect(jsonPath("nextCursor").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String cursor = new ObjectMapper().readTree(body).get("nextCursor").asText();
+
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("?size=1&cursor=" + cursor))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<ScrollPosition> positions = ArgumentCaptor.forClass(ScrollPosition.class);
+        verify(service, times(2)).scroll(any(Book.class), positions.capture(), eq(sort), eq(1));
+        assertEquals(ScrollPosition.keyset(), positions.getAllValues().get(0));
+        assertEquals(Map.of("isbn", "123", "id", 7L),
+                ((KeysetScrollPosition) positions.getAllValues().get(1)).getKeys());
+    }
+
+    @Test
+    @DisplayName("Should reject cursor pagination sorted by a column without an index")
+    void testFindBooksByCursorWithUnsupportedSort() throws Exception{
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("?cursor=&sort=title"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("?cursor=not-a-cursor"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(service, never()).scroll(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should return filtered books as a slice without total count")
+    void testFindBookSlice() throws Exception{
+        Book book = Book.builder().id(1L).title("Other Book").author("Other Author").isbn("123445").build();
+        given(service.findSlice(any(Book.class), any(Pageable.class)))
+                .willReturn(new SliceImpl<>(Arrays.asList(book), PageRequest.of(0, 1), true));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("?title=Other&slice=true&page=0&size=1"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", hasSize(1)))
+                .andExpect(jsonPath("hasNext").value(true))
+                .andExpect(jsonPath("size").value(1))
+                .andExpect(jsonPath("page").value(0))
+                .andExpect(jsonPath("totalElements").doesNotExist());
+
+        verify(service, never()).find(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should return the loans of a book as a slice without total count")
+    void testLoanSliceByBook() throws Exception{
+        Book book = Book.builder().id(1L).isbn("123").build();
+        Loan loan = Loan.builder().id(2L).book(book).customer("Cliente").loanDate(LocalDate.now()).build();
+        given(service.getById(1L)).willReturn(Optional.of(book));
+        given(loanService.getLoanSliceByBook(eq(book), any(Pageable.class)))
+                .willReturn(new SliceImpl<>(List.of(loan), PageRequest.of(0, 10), false));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/1/loans?slice=true"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content[0].book.isbn").value("123"))
+                .andExpect(jsonPath("hasNext").value(false));
+
+        verify(loanService, never()).getLoansByBook(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should answer a matching If-None-Match on a book's loans without loading them")
+    void testLoansByBookNotModified() throws Exception{
+        given(service.getVersion(1L)).willReturn(Optional.of(2L));
+        given(loanService.getLoansChangeCount(1L)).willReturn(7L);
+
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/1/loans?slice=true"))
+                        .header("If-None-Match", "\"2-7\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+
+        verify(service, never()).getById(any());
+        verify(loanService, never()).getLoanSliceByBook(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should stream the books export as CSV when asked for text/csv")
+    void testExportBooksAsCsv() throws Exception{
+        given(exportService.exportBooks(eq(RowFormat.CSV), any())).willAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(1);
+            output.write("id\n1\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/export"))
+                        .accept(RowFormat.CSV_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"books.csv\""))
+                .andExpect(content().string("id\n1\n"));
+    }
+
+    @Test
+    @DisplayName("Should return ranked search results")
+    void testSearchBooks() throws Exception{
+        Book first = Book.builder().id(1L).title("Effective Java").author("Joshua Bloch").isbn("1").build();
+        Book second = Book.builder().id(2L).title("Java Puzzlers").author("Joshua Bloch").isbn("2").build();
+        given(service.search("java", 5)).willReturn(List.of(first, second));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/search?q=java&size=5"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("[0].id").value(1))
+                .andExpect(jsonPath("[1].title").value("Java Puzzlers"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/search?q=java&size=1000"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,347 @@
+package com.books.libraryapi.api.resource;
+
+import com.books.libraryapi.api.dto.LoanBatchResultDTO;
+import com.books.libraryapi.api.dto.LoanDTO;
+import com.books.libraryapi.api.dto.LoanFilterDTO;
+import com.books.libraryapi.api.dto.LoanReturnBatchDTO;
+import com.books.libraryapi.api.dto.LoanReturnResultDTO;
+import com.books.libraryapi.api.dto.ReturnedLoanDTO;
+import com.books.libraryapi.exception.BusinessException;
+import com.books.libraryapi.api.mapper.BookMapperImpl;
+import com.books.libraryapi.api.mapper.LoanMapperImpl;
+import com.books.libraryapi.model.entity.Book;
+import com.books.libraryapi.model.entity.Loan;
+import com.books.libraryapi.service.BookService;
+import com.books.libraryapi.service.ExportService;
+import com.books.libraryapi.service.LoanService;
+import com.books.libraryapi.service.RowFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(SpringExtension.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WebMvcTest(controllers = {LoanController.class})
+@Import({BookMapperImpl.class, LoanMapperImpl.class})
+public class LoanControllerTest {
+
+    static final String LOAN_API = "/api/loans";
+    private LoanDTO dto;
+    private Book book;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    BookService bookService;
+
+    @MockBean
+    LoanService loanService;
+
+    @MockBean
+    ExportService exportService;
+
+    @BeforeEach
+    void setup(){
+        dto = LoanDTO.builder().isbn("123").customer("Cliente").build();
+        book = Book.builder().id(1L).isbn("123").build();
+    }
+
+    @Test
+    @DisplayName("Should make a loan successfully")
+    void testCreateLoan() throws Exception{
+
+        String json = new ObjectMapper().writeValueAsString(dto);
+        given(bookService.getBookByIsbn("123")).willReturn(
+                Optional.of(book));
+
+        Loan loan = Loan.builder().id(1L).customer("Cliente").book(book).loanDate(LocalDate.now()).build();
+
+        given(loanService.save(any(Loan.class))).willReturn(loan);
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(LOAN_API)
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mockMvc.perform(request)
+                .andExpect(status().isCreated())
+                .andExpect(content().string("1"));
+    }
+
+    @Test
+    @DisplayName("Should return error when create loan with invalid isbn")
+    void testInvalidIsbnCreateLoan() throws Exception {
+        String json = new ObjectMapper().writeValueAsString(dto);
+
+        given(bookService.getBookByIsbn("123")).willReturn(
+                Optional.empty());
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(LOAN_API)
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mockMvc.perform(request)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors", Matchers.hasSize(1)))
+                .andExpect(jsonPath("errors[0]").value("Book not found for this isbn"));
+
+    }
+
+    @Test
+    @DisplayName("Should return error when create loan with loaned book")
+    void testLoanedBookCreateLoan() throws Exception {
+        String json = new ObjectMapper().writeValueAsString(dto);
+
+        given(bookService.getBookByIsbn("123")).willReturn(
+                Optional.of(book));
+
+        given(loanService.save(any(Loan.class))).willThrow(
+                new BusinessException("Book already loaned")
+        );
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(LOAN_API)
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mockMvc.perform(request)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors", Matchers.hasSize(1)))
+                .andExpect(jsonPath("errors[0]").value("Book already loaned"));
+
+    }
+
+    @Test
+    @DisplayName("Should return a book")
+    void testReturnBook() throws Exception{
+        ReturnedLoanDTO dto = ReturnedLoanDTO.builder().returned(true).build();
+        Loan loan = Loan.builder().id(1L).build();
+        given(loanService.getByID(anyLong())).willReturn(Optional.of(loan));
+
+        String json = new ObjectMapper().writeValueAsString(dto);
+
+        mockMvc.perform(
+                patch(LOAN_API.concat("/1"))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json)
+        ).andExpect(status().isOk());
+
+        verify(loanService, times(1)).update(loan);
+    }
+
+    @Test
+    @DisplayName("Should answer 409 when the loan was changed by a concurrent request")
+    void testReturnBookConflict() throws Exception{
+        Loan loan = Loan.builder().id(1L).build();
+        given(loanService.getByID(1L)).willReturn(Optional.of(loan));
+        given(loanService.update(loan)).willThrow(new ObjectOptimisticLockingFailureException(Loan.class, 1L));
+
+        mockMvc.perform(
+                patch(LOAN_API.concat("/1"))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(ReturnedLoanDTO.builder().returned(true).build()))
+        ).andExpect(status().isConflict())
+                .andExpect(jsonPath("errors[0]").exists());
+    }
+
+    @Test
+    @DisplayName("Should return not found when find a nonexistent book")
+    void testReturnNonExistentBook() throws Exception{
+
+        ReturnedLoanDTO dto = ReturnedLoanDTO.builder().returned(true).build();
+        String json = new ObjectMapper().writeValueAsString(dto);
+
+        given(loanService.getByID(anyLong())).willReturn(Optional.empty());
+
+        mockMvc.perform(
+                patch(LOAN_API.concat("/1"))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json)
+        ).andExpect(status().isNotFound());
+
+    }
+
+    @Test
+    @DisplayName("Should return filtered loans")
+    void testFindLoansByFilter() throws Exception{
+        Long id = 1L;
+
+        Loan loan = Loan.builder()
+                .book(book)
+                .loanDate(LocalDate.now())
+                .customer("Cliente")
+                .id(id)
+                .build();
+
+        given(loanService.find(any(LoanFilterDTO.class), any(Pageable.class)))
+                .willReturn(new PageImpl<Loan>(Arrays.asList(loan), PageRequest.of(0, 10), 1));
+
+        String queryString = String.format("?isbn=%s&customer=%s&page=0&size=10",
+                book.getIsbn(),
+                loan.getCustomer());
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(LOAN_API.concat(queryString))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", Matchers.hasSize(1)))
+                .andExpect(jsonPath("totalElements").value(1))
+                .andExpect(jsonPath("pageable.pageSize").value(10))
+                .andExpect(jsonPath("pageable.pageNumber").value(0));
+    }
+
+    @Test
+    @DisplayName("Should make loans in batch")
+    void testCreateBatchLoan() throws Exception{
+        List<LoanDTO> dtos = Arrays.asList(dto, LoanDTO.builder().isbn("456").customer("Cliente").build());
+        given(loanService.saveAll(anyList())).willReturn(Arrays.asList(
+                LoanBatchResultDTO.builder().isbn("123").customer("Cliente").id(1L)
+                        .status(LoanBatchResultDTO.Status.CREATED).build(),
+                LoanBatchResultDTO.builder().isbn("456").customer("Cliente")
+                        .status(LoanBatchResultDTO.Status.BOOK_NOT_FOUND).build()));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(LOAN_API.concat("/batch"))
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(dtos));
+
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", Matchers.hasSize(2)))
+                .andExpect(jsonPath("[0].id").value(1L))
+                .andExpect(jsonPath("[1].status").value("BOOK_NOT_FOUND"));
+    }
+
+    @Test
+    @DisplayName("Should return books in bulk")
+    void testReturnBooksInBulk() throws Exception{
+        LoanReturnBatchDTO returnDTO = LoanReturnBatchDTO.builder().ids(Arrays.asList(1L, 2L)).build();
+        given(loanService.returnAll(any(LoanReturnBatchDTO.class))).willReturn(Arrays.asList(
+                LoanReturnResultDTO.builder().id(1L).status(LoanReturnResultDTO.Status.RETURNED).build(),
+                LoanReturnResultDTO.builder().id(2L).status(LoanReturnResultDTO.Status.NOT_FOUND).build()));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(LOAN_API.concat("/returns"))
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(returnDTO));
+
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", Matchers.hasSize(2)))
+                .andExpect(jsonPath("[1].status").value("NOT_FOUND"));
+    }
+
+    @Test
+    @DisplayName("Should page loans by loan date with a continuation cursor")
+    void testFindLoansByCursor() throws Exception{
+        LocalDate loanDate = LocalDate.of(2024, 5, 1);
+        Loan loan = Loan.builder().id(9L).customer("Cliente").book(book).loanDate(loanDate).build();
+        Sort sort = Sort.by(Sort.Direction.DESC, "loanDate").and(Sort.by(Sort.Direction.DESC, "id"));
+        given(loanService.scroll(any(LoanFilterDTO.class), any(ScrollPosition.class), eq(sort), eq(1)))
+                .willReturn(Window.from(List.of(loan),
+                        index -> ScrollPosition.forward(Map.of("loanDate", loanDate, "id", 9L)), true));
+
+        String body = mockMvc.perform(MockMvcRequestBuilders
+                        .get(LOAN_API.concat("?customer=Cliente&cursor=&sort=loanDate,desc&size=1"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", Matchers.hasSize(1)))
+                .andExpect(jsonPath("content[0].book.isbn").value("123"))
+                .andExpect(jsonPath("hasNext").value(true))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = new ObjectMapper().readTree(body).get("nextCursor").asText();
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get(LOAN_API.concat("?customer=Cliente&size=1&sort=loanDate,desc&cursor=" + cursor))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get(LOAN_API.concat("?customer=Cliente&size=1&sort=id&cursor=" + cursor))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        ArgumentCaptor<ScrollPosition> positions = ArgumentCaptor.forClass(ScrollPosition.class);
+        verify(loanService, times(2)).scroll(any(LoanFilterDTO.class), positions.capture(), eq(sort), eq(1));
+        assertEquals(Map.of("loanDate", loanDate, "id", 9L),
+                ((KeysetScrollPosition) positions.getAllValues().get(1)).getKeys());
+    }
+
+    @Test
+    @DisplayName("Should return loans as a slice without total count")
+    void testFindLoanSlice() throws Exception{
+        Loan loan = Loan.builder().id(1L).customer("Cliente").book(book).loanDate(LocalDate.now()).build();
+        given(loanService.findSlice(any(LoanFilterDTO.class), any(Pageable.class)))
+                .willReturn(new SliceImpl<>(List.of(loan), PageRequest.of(0, 10), true));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(LOAN_API.concat("?isbn=123&customer=Cliente&slice=true"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", Matchers.hasSize(1)))
+                .andExpect(jsonPath("hasNext").value(true))
+                .andExpect(jsonPath("totalElements").doesNotExist());
+
+        verify(loanService, never()).find(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should stream the loans export as CSV when asked for text/csv")
+    void testExportLoansAsCsv() throws Exception{
+        given(exportService.exportLoans(any(LoanFilterDTO.class), eq(RowFormat.CSV), any())).willAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(2);
+            output.write("id\n1\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        mockMvc.perform(MockMvcRequestBuilders.get(LOAN_API.concat("/export"))
+                        .accept(RowFormat.CSV_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"loans.csv\""))
+                .andExpect(content().string("id\n1\n"));
+    }
+}
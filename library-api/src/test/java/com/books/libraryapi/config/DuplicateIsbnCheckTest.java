@@ -0,0 +1,58 @@
+package com.books.libraryapi.config;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DuplicateIsbnCheckTest {
+
+    private final String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+
+    @Test
+    @DisplayName("Should stop V2 with the duplicated isbns instead of failing on the unique constraint")
+    void testRejectDuplicates() throws Exception {
+        migrate("1");
+        execute("INSERT INTO book (id, isbn) VALUES (1, '123'), (2, '123'), (3, '456'), (4, NULL), (5, NULL)");
+
+        FlywayException ex = assertThrows(FlywayException.class, () -> migrate("2"));
+
+        assertTrue(ex.getMessage().contains("123 (2 books)"), ex.getMessage());
+        assertFalse(ex.getMessage().contains("456"), ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should let V2 run when every isbn is unique")
+    void testPassUnique() throws Exception {
+        migrate("1");
+        execute("INSERT INTO book (id, isbn) VALUES (1, '123'), (2, '456')");
+
+        migrate("2");
+
+        assertThrows(Exception.class, () -> execute("INSERT INTO book (id, isbn) VALUES (3, '123')"));
+    }
+
+    private void migrate(String target) {
+        Flyway.configure()
+                .dataSource(url, "sa", "")
+                .locations("classpath:db/migration")
+                .target(target)
+                .callbacks(new DuplicateIsbnCheck())
+                .load()
+                .migrate();
+    }
+
+    private void execute(String sql) throws Exception {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.books.libraryapi.config;
+
+import com.books.libraryapi.exception.BusinessException;
+import com.books.libraryapi.model.entity.Book;
+import com.books.libraryapi.service.BookService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class MetricsConfigTest {
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Should time service methods and repository queries with an outcome tag and SLO buckets")
+    void testTimers() {
+        bookService.getById(-1L);
+
+        Timer service = meterRegistry.get(MetricsConfig.SERVICE_TIMER)
+                .tag("method", "getById").tag("outcome", "SUCCESS").timer();
+        Timer repository = meterRegistry.get(MetricsConfig.REPOSITORY_TIMER)
+                .tag("repository", "BookRepository").tag("method", "findById").tag("outcome", "SUCCESS").timer();
+        assertTrue(service.count() >= 1);
+        assertTrue(repository.count() >= 1);
+        assertTrue(Arrays.stream(service.takeSnapshot().histogramCounts()).map(CountAtBucket::bucket)
+                .anyMatch(bucket -> bucket == Duration.ofMillis(25).toNanos()));
+    }
+
+    @Test
+    @DisplayName("Should tell business errors apart from other failures")
+    void testBusinessErrorOutcome() {
+        String isbn = UUID.randomUUID().toString();
+        bookService.save(Book.builder().isbn(isbn).title("Title").author("Author").build());
+
+        assertThrows(BusinessException.class,
+                () -> bookService.save(Book.builder().isbn(isbn).title("Title").author("Author").build()));
+
+        Timer failed = meterRegistry.get(MetricsConfig.SERVICE_TIMER)
+                .tag("method", "save").tag("outcome", "BUSINESS_ERROR").tag("exception", "BusinessException").timer();
+        assertEquals(1, failed.count());
+    }
+
+    @Test
+    @DisplayName("Should map exception tags to outcomes")
+    void testOutcome() {
+        assertEquals("SUCCESS", MetricsConfig.outcome("none"));
+        assertEquals("BUSINESS_ERROR", MetricsConfig.outcome("BusinessException"));
+        assertEquals("ERROR", MetricsConfig.outcome("DataIntegrityViolationException"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.books.libraryapi.diagnostics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiagnosticDataSourceTest {
+
+    private SqlDiagnostics diagnostics;
+    private DiagnosticDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        diagnostics = new SqlDiagnostics(true, Duration.ZERO, 2, false);
+        dataSource = new DiagnosticDataSource(new DriverManagerDataSource("jdbc:h2:mem:diagnostics;DB_CLOSE_DELAY=-1"),
+                diagnostics);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists item (name varchar(20), amount bigint, note varchar(20))");
+        }
+        diagnostics.clearSlowQueries();
+    }
+
+    @Test
+    @DisplayName("Should record slow statements with the shape of their parameters, not their values")
+    void testSlowQueryShapes() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("insert into item values (?, ?, ?)")) {
+            statement.setString(1, "abc");
+            statement.setLong(2, 7L);
+            statement.setNull(3, Types.VARCHAR);
+            statement.executeUpdate();
+        }
+
+        List<SqlDiagnostics.SlowQuery> slowQueries = diagnostics.slowQueries();
+        assertEquals(1, slowQueries.size());
+        assertEquals("insert into item values (?, ?, ?)", slowQueries.get(0).sql());
+        assertEquals(List.of("String(3)", "Long", "null"), slowQueries.get(0).parameters());
+    }
+
+    @Test
+    @DisplayName("Should count the statements of the current request, a batch as one with its size")
+    void testRequestCountsAndBatches() throws Exception {
+        SqlDiagnostics.RequestStats stats = diagnostics.beginRequest();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("insert into item values (?, ?, ?)")) {
+            for (int i = 0; i < 3; i++) {
+                statement.setString(1, "item" + i);
+                statement.setLong(2, i);
+                statement.setString(3, "");
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            connection.createStatement().executeQuery("select count(*) from item").close();
+        } finally {
+            diagnostics.endRequest();
+        }
+
+        assertEquals(2, stats.getStatements());
+        List<SqlDiagnostics.SlowQuery> slowQueries = diagnostics.slowQueries();
+        assertEquals(3, slowQueries.get(0).batchSize());
+        assertEquals("select count(*) from item", slowQueries.get(1).sql());
+    }
+
+    @Test
+    @DisplayName("Should keep only the latest slow queries and nothing while the log is off")
+    void testCapacityAndSwitch() throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("select 1");
+            statement.execute("select 2");
+            statement.execute("select 3");
+            diagnostics.setSlowQueryLog(false);
+            statement.execute("select 4");
+        }
+
+        assertEquals(List.of("select 2", "select 3"),
+                diagnostics.slowQueries().stream().map(SqlDiagnostics.SlowQuery::sql).toList());
+    }
+
+    @Test
+    @DisplayName("Should still unwrap to the pooled connection")
+    void testUnwrap() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            assertTrue(connection.isWrapperFor(org.h2.jdbc.JdbcConnection.class));
+            assertEquals(connection, connection);
+        }
+    }
+}
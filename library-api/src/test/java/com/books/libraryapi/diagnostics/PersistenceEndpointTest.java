@@ -0,0 +1,57 @@
+package com.books.libraryapi.diagnostics;
+
+import com.books.libraryapi.model.repository.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class PersistenceEndpointTest {
+
+    @Autowired
+    PersistenceEndpoint endpoint;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @AfterEach
+    void restore() {
+        endpoint.configure(false, true, Duration.ofMillis(200), false);
+        endpoint.reset();
+    }
+
+    @Test
+    @DisplayName("Should collect query statistics and slow queries once switched on at runtime")
+    void testSwitchOnAtRuntime() {
+        PersistenceEndpoint.Settings settings = endpoint.configure(true, null, Duration.ZERO, null);
+        assertTrue(settings.statistics());
+        assertEquals(Duration.ZERO, settings.slowQueryThreshold());
+
+        bookRepository.findByIsbn("9780000000000");
+
+        PersistenceEndpoint.Report report = endpoint.report();
+        assertTrue(report.queries().keySet().stream().anyMatch(query -> query.contains("isbn")), report.queries()::toString);
+        assertTrue(report.session().get("queriesExecuted") >= 1);
+        assertTrue(report.slowQueries().stream().anyMatch(slow -> slow.parameters().contains("String(13)")),
+                report.slowQueries()::toString);
+    }
+
+    @Test
+    @DisplayName("Should clear what was collected on reset")
+    void testReset() {
+        endpoint.configure(true, null, Duration.ZERO, null);
+        bookRepository.findByIsbn("9780000000000");
+
+        endpoint.reset();
+
+        PersistenceEndpoint.Report report = endpoint.report();
+        assertTrue(report.queries().isEmpty());
+        assertTrue(report.slowQueries().isEmpty());
+    }
+}
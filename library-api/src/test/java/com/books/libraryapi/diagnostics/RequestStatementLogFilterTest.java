@@ -0,0 +1,53 @@
+package com.books.libraryapi.diagnostics;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(OutputCaptureExtension.class)
+class RequestStatementLogFilterTest {
+
+    private final SqlDiagnostics diagnostics = new SqlDiagnostics(false, Duration.ofSeconds(1), 10, true);
+    private final RequestStatementLogFilter filter = new RequestStatementLogFilter(diagnostics);
+
+    @Test
+    @DisplayName("Should log the statements and entity loads of a request")
+    void testLogRequest(CapturedOutput output) throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/loans"), new MockHttpServletResponse(),
+                new MockFilterChain(new HttpServlet() {
+                    @Override
+                    protected void service(HttpServletRequest request, HttpServletResponse response) {
+                        diagnostics.executed("select 1", List.of(), 1, 1_000);
+                        diagnostics.executed("select 2", List.of(), 1, 1_000);
+                        diagnostics.entityLoaded();
+                    }
+                }));
+
+        assertTrue(output.getOut().contains("GET /api/loans 200: 2 statements in 0 ms, 1 entities loaded"),
+                output.getOut());
+    }
+
+    @Test
+    @DisplayName("Should stay silent while the request log is off")
+    void testSwitchedOff(CapturedOutput output) throws Exception {
+        diagnostics.setRequestLog(false);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/books"), new MockHttpServletResponse(),
+                new MockFilterChain());
+
+        assertFalse(output.getOut().contains("/api/books"));
+    }
+}
@@ -0,0 +1,55 @@
+package com.books.libraryapi.model.entity.repository;
+
+import com.books.libraryapi.model.entity.Book;
+import com.books.libraryapi.model.repository.BookChangeRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+class BookChangeRepositoryTest {
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    BookChangeRepository repository;
+
+    @Test
+    @DisplayName("Should record changes of existing books with the database time")
+    void testRecord() {
+        Book book = entityManager.persist(Book.builder().author("Author").title("Book").isbn("123").build());
+        LocalDateTime now = repository.now();
+
+        int recorded = repository.record(List.of(book.getId(), book.getId() + 1000));
+
+        assertEquals(1, recorded);
+        assertEquals(Set.of(book.getId()), repository.findBookIdsChangedAfter(now.minusSeconds(1)));
+        assertEquals(Set.of(), repository.findBookIdsChangedAfter(now.plusSeconds(1)));
+    }
+
+    @Test
+    @DisplayName("Should prune changes older than the given time")
+    void testDeleteChangedBefore() {
+        Book book = entityManager.persist(Book.builder().author("Author").title("Book").isbn("123").build());
+        repository.record(List.of(book.getId()));
+        LocalDateTime now = repository.now();
+
+        assertEquals(0, repository.deleteChangedBefore(now.minusSeconds(1)));
+        assertEquals(1, repository.deleteChangedBefore(now.plusSeconds(1)));
+        assertEquals(Set.of(), repository.findBookIdsChangedAfter(now.minusSeconds(1)));
+    }
+}
@@ -0,0 +1,164 @@
+package com.books.libraryapi.model.entity.repository;
+
+import com.books.libraryapi.model.entity.Book;
+import com.books.libraryapi.model.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+class BookRepositoryTest {
+
+    private Book book;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    BookRepository repository;
+
+    @BeforeEach
+    void setup(){
+        book = Book.builder().author("Author").title("New Book").isbn("123").build();
+    }
+
+    @Test
+    @DisplayName("Should return true when find a book by isbn")
+    void testExistsByIsbn() {
+
+        entityManager.persist(book);
+        String isbn = "123";
+        boolean exists = repository.existsByIsbn(isbn);
+
+        assertTrue(exists);
+    }
+
+    @Test
+    @DisplayName("Should return false when find a book by isbn")
+    void testNotExistsByIsbn() {
+
+        String isbn = "123";
+
+        boolean exists = repository.existsByIsbn(isbn);
+
+        assertFalse(exists);
+    }
+
+    @Test
+    @DisplayName("Should reject a second book with the same isbn")
+    void testUniqueIsbn() {
+        entityManager.persist(book);
+        Book duplicate = Book.builder().author("Other").title("Other Book").isbn("123").build();
+
+        assertThrows(DataIntegrityViolationException.class, () -> repository.saveAndFlush(duplicate));
+    }
+
+    @Test
+    @DisplayName("Should found a book by id")
+    void testFindBookById(){
+        entityManager.persist(book);
+
+        Optional<Book> foundBook = repository.findById(book.getId());
+
+        assertNotNull(foundBook);
+    }
+
+    @Test
+    @DisplayName("Should read a book's version and bump it on update")
+    void testFindVersionById(){
+        entityManager.persist(book);
+        entityManager.flush();
+
+        assertEquals(Optional.of(0L), repository.findVersionById(book.getId()));
+
+        book.setTitle("Other Book");
+        entityManager.flush();
+
+        assertEquals(Optional.of(1L), repository.findVersionById(book.getId()));
+        assertTrue(repository.findVersionById(book.getId() + 1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should save a book")
+    void testSaveBook(){
+        Book savedBook = repository.save(book);
+
+        assertNotNull(savedBook.getId());
+        assertEquals("Author", savedBook.getAuthor());
+    }
+
+    @Test
+    @DisplayName("Should delete a book")
+    void testDeleteBook(){
+        entityManager.persist(book);
+        Book foundBook = entityManager.find(Book.class, book.getId());
+
+        repository.delete(foundBook);
+
+        Book deletedBook = entityManager.find(Book.class, book.getId());
+
+        assertNull(deletedBook);
+    }
+
+    @Test
+    @DisplayName("Should return only the existing isbns of a set")
+    void testFindIsbnsByIsbnIn(){
+        entityManager.persist(book);
+
+        Set<String> isbns = repository.findIsbnsByIsbnIn(List.of("123", "456"));
+
+        assertEquals(Set.of("123"), isbns);
+    }
+
+    @Test
+    @DisplayName("Should save a chunk of books and detach them")
+    void testSaveAllInBatch(){
+        Book other = Book.builder().author("Author").title("Other Book").isbn("456").build();
+
+        repository.saveAllInBatch(List.of(book, other));
+
+        assertNotNull(book.getId());
+        assertNotNull(other.getId());
+        assertFalse(entityManager.getEntityManager().contains(book));
+        assertEquals(2, repository.count());
+    }
+
+    @Test
+    @DisplayName("Should return a slice of books matching an example")
+    void testFindSlice(){
+        for (int i = 0; i < 5; i++) {
+            entityManager.persist(Book.builder().author("Author").title("Book " + i).isbn("isbn-" + i).build());
+        }
+        entityManager.persist(Book.builder().author("Other").title("Other").isbn("other").build());
+        Example<Book> example = Example.of(Book.builder().author("author").build(),
+                ExampleMatcher.matching().withIgnoreCase().withIgnoreNullValues());
+
+        Slice<Book> first = repository.findSlice(example, PageRequest.of(0, 2, Sort.by("isbn")));
+        Slice<Book> last = repository.findSlice(example, PageRequest.of(2, 2, Sort.by("isbn")));
+
+        assertEquals(List.of("isbn-0", "isbn-1"), first.getContent().stream().map(Book::getIsbn).toList());
+        assertTrue(first.hasNext());
+        assertEquals(List.of("isbn-4"), last.getContent().stream().map(Book::getIsbn).toList());
+        assertFalse(last.hasNext());
+    }
+}
@@ -0,0 +1,121 @@
+package com.books.libraryapi.model.entity.repository;
+
+import com.books.libraryapi.model.entity.JobCheckpoint;
+import com.books.libraryapi.model.repository.JobCheckpointRepository;
+import com.books.libraryapi.service.impl.JobLeases;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+class JobCheckpointRepositoryTest {
+
+    private static final String JOB = "late-loans";
+
+    private final LocalDate today = LocalDate.now();
+    private JobLeases nodeA;
+    private JobLeases nodeB;
+
+    @Autowired
+    JobCheckpointRepository repository;
+
+    @BeforeEach
+    void setup(){
+        // Two nodes sharing the database.
+        nodeA = new JobLeases(repository, Duration.ofMinutes(5));
+        nodeB = new JobLeases(repository, Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("Should create the partitions once and restart them on the next day")
+    void testPrepare() {
+        nodeA.prepare(JOB, 4, today.minusDays(1));
+        nodeB.prepare(JOB, 4, today.minusDays(1));
+        JobCheckpoint done = nodeA.claimNext(JOB, today.minusDays(1)).orElseThrow();
+        done.setLastKey("z@email.com");
+        done.setLastId(9L);
+        done.setCompleted(true);
+        assertTrue(nodeA.checkpoint(done));
+
+        nodeB.prepare(JOB, 4, today);
+        nodeA.prepare(JOB, 4, today);
+
+        List<JobCheckpoint> partitions = repository.findAll();
+        assertEquals(4, partitions.size());
+        for (JobCheckpoint partition : partitions) {
+            assertEquals(today, partition.getRunDate());
+            assertEquals("", partition.getLastKey());
+            assertEquals(0L, partition.getLastId());
+            assertFalse(partition.getCompleted());
+            assertNull(partition.getOwner());
+        }
+    }
+
+    @Test
+    @DisplayName("Should hand every partition to exactly one node")
+    void testClaimPartitions() {
+        nodeA.prepare(JOB, 4, today);
+        Set<String> claimed = new HashSet<>();
+
+        for (int i = 0; i < 2; i++) {
+            assertTrue(claimed.add(nodeA.claimNext(JOB, today).orElseThrow().getJob()));
+            assertTrue(claimed.add(nodeB.claimNext(JOB, today).orElseThrow().getJob()));
+        }
+
+        assertEquals(Set.of("late-loans:0", "late-loans:1", "late-loans:2", "late-loans:3"), claimed);
+        assertEquals(Optional.empty(), nodeA.claimNext(JOB, today));
+        assertEquals(Optional.empty(), nodeB.claimNext(JOB, today));
+        assertEquals(2, repository.findAll().stream().filter(c -> nodeA.owner().equals(c.getOwner())).count());
+    }
+
+    @Test
+    @DisplayName("Should let another node take a partition over from its last checkpoint once the lease runs out")
+    void testTakeOverExpiredLease() {
+        nodeA.prepare(JOB, 1, today);
+        JobCheckpoint checkpoint = nodeA.claimNext(JOB, today).orElseThrow();
+        checkpoint.setLastKey("m@email.com");
+        checkpoint.setLastId(42L);
+        checkpoint.setCompleted(false);
+        assertTrue(nodeA.checkpoint(checkpoint));
+        assertTrue(nodeA.renew(checkpoint));
+        assertEquals(Optional.empty(), nodeB.claimNext(JOB, today));
+
+        // Node A stops renewing its lease.
+        JobCheckpoint expired = repository.findById(checkpoint.getJob()).orElseThrow();
+        expired.setLeaseUntil(LocalDateTime.now().minusSeconds(1));
+        repository.saveAndFlush(expired);
+
+        JobCheckpoint takenOver = nodeB.claimNext(JOB, today).orElseThrow();
+        assertEquals(nodeB.owner(), takenOver.getOwner());
+        assertEquals("m@email.com", takenOver.getLastKey());
+        assertEquals(42L, takenOver.getLastId());
+        assertFalse(nodeA.renew(checkpoint));
+        assertFalse(nodeA.checkpoint(checkpoint));
+        assertTrue(nodeB.renew(takenOver));
+        assertTrue(nodeB.checkpoint(takenOver));
+    }
+
+    @Test
+    @DisplayName("Should map partitions to job names and back")
+    void testPartitionJob() {
+        assertEquals("late-loans:11", JobLeases.partitionJob(JOB, 11));
+        assertEquals(11, JobLeases.partitionOf("late-loans:11"));
+    }
+}
@@ -0,0 +1,379 @@
+package com.books.libraryapi.model.entity.repository;
+
+import com.books.libraryapi.model.entity.Book;
+import com.books.libraryapi.model.entity.Loan;
+import com.books.libraryapi.model.repository.LateLoanView;
+import com.books.libraryapi.model.repository.LoanRepository;
+import com.books.libraryapi.model.repository.LoanReturnView;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+public class LoanRepositoryTest {
+
+    private Book book;
+    private Loan loan;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private LoanRepository repository;
+
+    @BeforeEach
+    void setup(){
+        book = Book.builder().author("Author").title("New Book").isbn("1234").build();
+        entityManager.persist(book);
+
+        loan = Loan.builder()
+                .book(book)
+                .loanDate(LocalDate.now())
+                .customer("Cliente")
+                .build();
+        entityManager.persist(loan);
+    }
+
+    @Test
+    @DisplayName("Should verify returned field for a book is true")
+    void testExistsByBookAndNotReturned(){
+
+        boolean exists = repository.existsByBookAndNotReturned(book);
+        assertTrue(exists);
+    }
+
+    @Test
+    @DisplayName("should find an page of loans by isbn or customer")
+    void testFindByBookOrCustomer(){
+        Page<Loan> actual = repository.findByBookIsbnOrCustomer("123", "Cliente", PageRequest.of(0, 10));
+
+        assertEquals(10, actual.getSize());
+        assertEquals(10, actual.getPageable().getPageSize());
+        assertEquals(0, actual.getPageable().getPageNumber());
+        assertEquals(1, actual.getTotalElements());
+
+    }
+
+    @Test
+    @DisplayName("Should return loans when date is less than three days ago")
+    void testFindLoansByDateLessThanAndNotReturned(){
+        loan.setLoanDate(LocalDate.now().minusDays(5));
+        loan.setCustomerEmail("customer@email.com");
+        List<LateLoanView> list = repository.findLateLoansAfter(Loan.partitionOf("customer@email.com"),
+                LocalDate.now().minusDays(4), "", 0L, Limit.of(10));
+
+        assertEquals(1, list.size());
+        assertEquals("customer@email.com", list.get(0).getCustomerEmail());
+    }
+
+    @Test
+    @DisplayName("Should return empty list when date is bigger than three days")
+    void testNotFoundLoansByDateLessThanAndNotReturned(){
+        loan.setLoanDate(LocalDate.now());
+        loan.setCustomerEmail("customer@email.com");
+        List<LateLoanView> list = repository.findLateLoansAfter(Loan.partitionOf("customer@email.com"),
+                LocalDate.now().minusDays(4), "", 0L, Limit.of(10));
+
+        assertTrue(list.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should return ids of books with loans not returned")
+    void testFindBookIdsNotReturned(){
+        Book other = Book.builder().author("Author").title("Other Book").isbn("456").build();
+        entityManager.persist(other);
+
+        Set<Long> ids = repository.findBookIdsNotReturned(List.of(book.getId(), other.getId()));
+
+        assertEquals(Set.of(book.getId()), ids);
+    }
+
+    @Test
+    @DisplayName("Should mark loans as returned with a bulk update")
+    void testMarkReturned(){
+        List<LoanReturnView> views = repository.findReturnViewsNotReturnedByIsbnIn(List.of("1234"));
+        assertEquals(1, views.size());
+        assertEquals(loan.getId(), views.get(0).getId());
+
+        int updated = repository.markReturned(List.of(loan.getId()));
+        entityManager.clear();
+
+        assertEquals(1, updated);
+        assertTrue(repository.findReturnViewsByIdIn(List.of(loan.getId())).get(0).getReturned());
+        assertTrue(repository.findReturnViewsNotReturnedByIsbnIn(List.of("1234")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should lock only the loans that are still open")
+    void testLockNotReturnedByIdIn(){
+        Loan returned = Loan.builder().book(book).loanDate(LocalDate.now()).customer("Cliente").returned(true).build();
+        entityManager.persist(returned);
+        entityManager.flush();
+
+        List<Long> open = repository.lockNotReturnedByIdIn(List.of(loan.getId(), returned.getId(), -1L));
+
+        assertEquals(List.of(loan.getId()), open);
+    }
+
+    @Test
+    @DisplayName("Should change a book's loan count when a loan is added or returned")
+    void testChangeCountByBookId(){
+        long initial = repository.changeCountByBookId(book.getId());
+
+        entityManager.persist(Loan.builder().book(book).loanDate(LocalDate.now()).customer("Other").build());
+        long afterInsert = repository.changeCountByBookId(book.getId());
+
+        repository.markReturned(List.of(loan.getId()));
+        entityManager.clear();
+        long afterReturn = repository.changeCountByBookId(book.getId());
+
+        assertEquals(1, initial);
+        assertTrue(afterInsert > initial);
+        assertTrue(afterReturn > afterInsert);
+        assertEquals(1L, entityManager.find(Loan.class, loan.getId()).getVersion());
+    }
+
+    @Test
+    @DisplayName("Should walk all loans by loan date with keyset windows")
+    void testScrollByBookIsbnOrCustomer(){
+        for (int i = 0; i < 6; i++) {
+            entityManager.persist(Loan.builder()
+                    .book(book)
+                    .loanDate(LocalDate.now().minusDays(i % 3))
+                    .customer("Cliente " + i)
+                    .build());
+        }
+        Sort sort = Sort.by(Sort.Direction.DESC, "loanDate").and(Sort.by(Sort.Direction.DESC, "id"));
+
+        List<Loan> seen = new ArrayList<>();
+        ScrollPosition position = ScrollPosition.keyset();
+        Window<Loan> window;
+        do {
+            window = repository.scrollByBookIsbnOrCustomer(null, null, position, sort, 3);
+            seen.addAll(window.getContent());
+            position = window.positionAt(window.size() - 1);
+        } while (window.hasNext());
+
+        assertEquals(7, seen.size());
+        assertEquals(7, seen.stream().map(Loan::getId).distinct().count());
+        for (int i = 1; i < seen.size(); i++) {
+            Loan previous = seen.get(i - 1);
+            Loan current = seen.get(i);
+            assertTrue(previous.getLoanDate().isAfter(current.getLoanDate())
+                    || (previous.getLoanDate().isEqual(current.getLoanDate()) && previous.getId() > current.getId()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should filter keyset windows by isbn or customer")
+    void testScrollByCustomer(){
+        Window<Loan> window = repository.scrollByBookIsbnOrCustomer(null, "Cliente", ScrollPosition.keyset(),
+                Sort.by("id"), 10);
+
+        assertEquals(1, window.size());
+        assertFalse(window.hasNext());
+        assertEquals(loan.getId(), window.getContent().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Should scroll the union of the isbn and customer matches, each loan once")
+    void testScrollByIsbnOrCustomer(){
+        Book other = Book.builder().author("Author").title("Other Book").isbn("456").build();
+        entityManager.persist(other);
+        Loan byIsbn = entityManager.persist(Loan.builder().book(other).loanDate(LocalDate.now()).customer("Outro").build());
+        Loan byCustomer = entityManager.persist(Loan.builder().book(other).loanDate(LocalDate.now()).customer("Cliente").build());
+        entityManager.persist(Loan.builder().book(book).loanDate(LocalDate.now()).customer("Outro").build());
+        entityManager.flush();
+
+        Window<Loan> first = repository.scrollByBookIsbnOrCustomer("456", "Cliente", ScrollPosition.keyset(),
+                Sort.by("id"), 2);
+        Window<Loan> second = repository.scrollByBookIsbnOrCustomer("456", "Cliente",
+                first.positionAt(first.size() - 1), Sort.by("id"), 2);
+
+        assertTrue(first.hasNext());
+        assertFalse(second.hasNext());
+        assertEquals(List.of(loan.getId(), byIsbn.getId(), byCustomer.getId()),
+                Stream.concat(first.stream(), second.stream()).map(Loan::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Should find a slice of loans by isbn or customer")
+    void testFindSliceByBookOrCustomer(){
+        entityManager.persist(Loan.builder().book(book).loanDate(LocalDate.now()).customer("Cliente").build());
+
+        Slice<Loan> first = repository.findSliceByBookIsbnOrCustomer("123", "Cliente", PageRequest.of(0, 1));
+        Slice<Loan> second = repository.findSliceByBookIsbnOrCustomer("123", "Cliente", PageRequest.of(1, 1));
+
+        assertEquals(1, first.getNumberOfElements());
+        assertTrue(first.hasNext());
+        assertEquals(1, second.getNumberOfElements());
+        assertFalse(second.hasNext());
+        assertEquals(2, repository.findSliceByBook(book, PageRequest.of(0, 10)).getNumberOfElements());
+    }
+
+    @Test
+    @DisplayName("Should stream loans by isbn or customer, or all loans without filters")
+    void testStreamByBookIsbnOrCustomer(){
+        Book other = Book.builder().author("Author").title("Other Book").isbn("456").build();
+        entityManager.persist(other);
+        entityManager.persist(Loan.builder().book(other).loanDate(LocalDate.now()).customer("Outro").build());
+        entityManager.flush();
+        entityManager.clear();
+
+        try (Stream<Loan> all = repository.streamByBookIsbnOrCustomer(null, null);
+             Stream<Loan> byIsbn = repository.streamByBookIsbnOrCustomer("456", null);
+             Stream<Loan> byCustomer = repository.streamByBookIsbnOrCustomer(null, "Cliente")) {
+            assertEquals(2, all.count());
+            assertEquals(List.of("Outro"), byIsbn.map(Loan::getCustomer).toList());
+            assertEquals(List.of("1234"), byCustomer.map(loan -> loan.getBook().getIsbn()).toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Should load loans and their books with a fixed number of statements")
+    void testLoanReadPathsStatementCount(){
+        for (int i = 0; i < 5; i++) {
+            Book other = Book.builder().author("Author").title("Book " + i).isbn("isbn-" + i).build();
+            entityManager.persist(other);
+            entityManager.persist(Loan.builder().book(other).loanDate(LocalDate.now().minusDays(10))
+                    .customer("Cliente").customerEmail("cliente@email.com").build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        repository.findByBookIsbnOrCustomer(null, "Cliente", PageRequest.of(0, 4))
+                .forEach(loan -> loan.getBook().getTitle());
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        repository.findSliceByBookIsbnOrCustomer(null, "Cliente", PageRequest.of(0, 4))
+                .forEach(loan -> loan.getBook().getTitle());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        entityManager.clear();
+        statistics.clear();
+        repository.scrollByBookIsbnOrCustomer(null, "Cliente", ScrollPosition.keyset(), Sort.by("id"), 4)
+                .forEach(loan -> loan.getBook().getTitle());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        entityManager.clear();
+        statistics.clear();
+        repository.findLateLoansAfter(0, LocalDate.now(), "", 0L, Limit.of(10))
+                .forEach(view -> assertNotNull(view.getBookTitle()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should insert loans in JDBC batches, drawing ids from the sequence once per allocation block")
+    void testLoanInsertStatementCount(){
+        entityManager.flush();
+        Statistics statistics = statistics();
+
+        int loans = 500;
+        for (int i = 0; i < loans; i++) {
+            entityManager.persist(Loan.builder().book(book).loanDate(LocalDate.now()).customer("Customer " + i)
+                    .customerEmail("customer" + i + "@email.com").returned(true).build());
+        }
+        entityManager.flush();
+
+        // One insert statement per batch of 50 and one sequence call per 50 ids; row by row this would be 1000.
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 2 * (loans / 50) + 2, statements + " statements");
+        assertEquals(loans, statistics.getEntityInsertCount());
+    }
+
+    @Test
+    @DisplayName("Should read a partition's late loans grouped by customer email in keyset chunks, skipping returned and recent ones")
+    void testFindLateLoansAfter(){
+        LocalDate late = LocalDate.now().minusDays(10);
+        // a@ and q@ hash to the same customer partition, b@ to another one.
+        assertEquals(Loan.partitionOf("a@email.com"), Loan.partitionOf("q@email.com"));
+        assertNotEquals(Loan.partitionOf("a@email.com"), Loan.partitionOf("b@email.com"));
+        Loan q1 = lateLoan("q@email.com", late);
+        Loan a1 = lateLoan("a@email.com", late);
+        Loan b1 = lateLoan("b@email.com", late);
+        Loan q2 = lateLoan("q@email.com", late);
+        Loan a2 = lateLoan("a@email.com", late);
+        entityManager.persist(Loan.builder().book(book).loanDate(late).customerEmail("a@email.com").returned(true).build());
+        entityManager.persist(Loan.builder().book(book).loanDate(LocalDate.now()).customerEmail("a@email.com").build());
+        entityManager.flush();
+
+        LocalDate dueDate = LocalDate.now().minusDays(4);
+        int partition = Loan.partitionOf("a@email.com");
+        List<LateLoanView> first = repository.findLateLoansAfter(partition, dueDate, "", 0L, Limit.of(3));
+        LateLoanView end = first.get(2);
+        List<LateLoanView> second = repository.findLateLoansAfter(partition, dueDate, end.getCustomerEmail(), end.getId(),
+                Limit.of(3));
+        List<LateLoanView> other = repository.findLateLoansAfter(Loan.partitionOf("b@email.com"), dueDate, "", 0L,
+                Limit.of(3));
+
+        assertEquals(List.of(a1.getId(), a2.getId(), q1.getId()), first.stream().map(LateLoanView::getId).toList());
+        assertEquals(List.of(q2.getId()), second.stream().map(LateLoanView::getId).toList());
+        assertEquals(List.of(b1.getId()), other.stream().map(LateLoanView::getId).toList());
+        assertEquals("q@email.com", second.get(0).getCustomerEmail());
+        assertEquals("Customer q@email.com", second.get(0).getCustomer());
+        assertEquals("New Book", second.get(0).getBookTitle());
+        assertEquals(late, second.get(0).getLoanDate());
+    }
+
+    private Loan lateLoan(String email, LocalDate loanDate) {
+        Loan lateLoan = Loan.builder().book(book).loanDate(loanDate).customer("Customer " + email)
+                .customerEmail(email).build();
+        entityManager.persist(lateLoan);
+        return lateLoan;
+    }
+
+    @Test
+    @DisplayName("Should not load the loans collection from equals, hashCode or toString")
+    void testEntityMethodsDoNotLoadLoans(){
+        entityManager.flush();
+        entityManager.clear();
+
+        Book found = entityManager.find(Book.class, book.getId());
+        found.toString();
+        found.hashCode();
+        assertFalse(Hibernate.isInitialized(found.getLoans()));
+
+        entityManager.clear();
+        Loan foundLoan = entityManager.find(Loan.class, loan.getId());
+        foundLoan.toString();
+        foundLoan.hashCode();
+        foundLoan.equals(loan);
+        assertFalse(Hibernate.isInitialized(foundLoan.getBook()));
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        return statistics;
+    }
+}
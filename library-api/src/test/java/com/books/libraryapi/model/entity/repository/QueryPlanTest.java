@@ -0,0 +1,145 @@
+package com.books.libraryapi.model.entity.repository;
+
+import com.books.libraryapi.model.entity.Book;
+import com.books.libraryapi.model.repository.BookRepository;
+import com.books.libraryapi.model.repository.LoanRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the hot repository queries, then asks H2 to EXPLAIN the exact SQL Hibernate sent.
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.books.libraryapi.model.entity.repository.QueryPlanTest$SqlRecorder")
+class QueryPlanTest {
+
+    private Book book;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    LoanRepository loanRepository;
+
+    @Autowired
+    DataSource dataSource;
+
+    @BeforeEach
+    void setup() {
+        book = Book.builder().author("Author").title("New Book").isbn("123").build();
+        entityManager.persistAndFlush(book);
+        SqlRecorder.STATEMENTS.clear();
+    }
+
+    @Test
+    @DisplayName("Isbn lookups should use the unique isbn index")
+    void testIsbnLookups() throws Exception {
+        bookRepository.existsByIsbn("123");
+        bookRepository.findByIsbn("123");
+        bookRepository.findIsbnsByIsbnIn(List.of("123", "456"));
+
+        assertNoTableScan(3);
+    }
+
+    @Test
+    @DisplayName("Open loan checks for a book should use the book and returned index")
+    void testOpenLoansByBook() throws Exception {
+        loanRepository.existsByBookAndNotReturned(book);
+        loanRepository.findBookIdsNotReturned(List.of(book.getId()));
+
+        assertNoTableScan(2);
+    }
+
+    @Test
+    @DisplayName("Loans of a book should be paged through an index")
+    void testLoansByBook() throws Exception {
+        loanRepository.findByBook(book, PageRequest.of(1, 10));
+        loanRepository.findSliceByBook(book, PageRequest.of(0, 10));
+
+        assertNoTableScan(3);
+    }
+
+    @Test
+    @DisplayName("The late loan scan should walk its partition of the customer email index in order, chunk by chunk")
+    void testLateLoans() throws Exception {
+        loanRepository.findLateLoansAfter(1, LocalDate.now().minusDays(4), "customer@email.com", 10L, Limit.of(500));
+
+        String plan = assertNoTableScan(1).get(0);
+        assertTrue(plan.contains("IDX_LOAN_CUSTOMER_PARTITION") && plan.contains("index sorted"), plan);
+    }
+
+    @Test
+    @DisplayName("The isbn or customer filter should use the isbn and customer indexes")
+    void testIsbnOrCustomerFilter() throws Exception {
+        loanRepository.findByBookIsbnOrCustomer("123", "Customer", PageRequest.of(1, 10));
+        loanRepository.findSliceByBookIsbnOrCustomer("123", "Customer", PageRequest.of(0, 10));
+        loanRepository.findReturnViewsNotReturnedByIsbnIn(List.of("123"));
+
+        assertNoTableScan(4);
+    }
+
+    private List<String> assertNoTableScan(int expectedQueries) throws Exception {
+        List<String> queries = SqlRecorder.STATEMENTS.stream()
+                .filter(sql -> sql.trim().toLowerCase(Locale.ROOT).startsWith("select"))
+                .toList();
+        assertEquals(expectedQueries, queries.size(), () -> "Unexpected queries: " + queries);
+        List<String> plans = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            for (String sql : queries) {
+                String plan = explain(connection, sql);
+                assertFalse(plan.contains("tableScan"), () -> "Table scan in plan of " + sql + "\n" + plan);
+                plans.add(plan);
+            }
+        }
+        return plans;
+    }
+
+    // H2 plans at prepare time, so any value will do for the parameters.
+    private String explain(Connection connection, String sql) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                statement.setString(i, "1");
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getString(1);
+            }
+        }
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
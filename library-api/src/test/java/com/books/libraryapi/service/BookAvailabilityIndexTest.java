@@ -0,0 +1,128 @@
+package com.books.libraryapi.service;
+
+import com.books.libraryapi.model.repository.BookChangeRepository;
+import com.books.libraryapi.model.repository.BookIdentityView;
+import com.books.libraryapi.model.repository.BookRepository;
+import com.books.libraryapi.model.repository.LoanRepository;
+import com.books.libraryapi.service.impl.BookAvailabilityIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+class BookAvailabilityIndexTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    private BookAvailabilityIndex index;
+
+    @MockBean
+    BookRepository bookRepository;
+
+    @MockBean
+    LoanRepository loanRepository;
+
+    @MockBean
+    BookChangeRepository changeRepository;
+
+    @BeforeEach
+    void setup() {
+        index = new BookAvailabilityIndex(bookRepository, loanRepository, changeRepository,
+                mock(PlatformTransactionManager.class), Duration.ofMinutes(1), Duration.ofHours(1));
+        when(changeRepository.now()).thenReturn(START);
+        when(bookRepository.streamAllIdentities()).thenReturn(Stream.of(identity(1L, "123"), identity(70_000L, "456")));
+        when(loanRepository.streamBookIdsNotReturned()).thenReturn(Stream.of(70_000L));
+        index.load();
+    }
+
+    @Test
+    @DisplayName("Should seed books and active loans from the repositories")
+    void testLoad() {
+        assertEquals(Optional.of(1L), index.getBookId("123"));
+        assertEquals(Optional.empty(), index.getBookId("999"));
+        assertFalse(index.isLoaned(1L));
+        assertTrue(index.isLoaned(70_000L));
+    }
+
+    @Test
+    @DisplayName("Should apply the books other nodes changed since the last refresh, looking back the grace period")
+    void testRefresh() {
+        when(changeRepository.now()).thenReturn(START.plusSeconds(1));
+        when(changeRepository.findBookIdsChangedAfter(START.minusMinutes(1))).thenReturn(Set.of(1L, 70_000L, 2L));
+        when(bookRepository.findIdentitiesByIdIn(anyCollection()))
+                .thenReturn(List.of(identity(1L, "124"), identity(2L, "789")));
+        when(loanRepository.findBookIdsNotReturned(anyCollection())).thenReturn(Set.of(1L));
+
+        index.refresh();
+
+        assertEquals(Optional.of(1L), index.getBookId("124"));
+        assertEquals(Optional.empty(), index.getBookId("123"));
+        assertTrue(index.isLoaned(1L));
+        assertEquals(Optional.of(2L), index.getBookId("789"));
+        assertFalse(index.isLoaned(2L));
+        assertEquals(Optional.empty(), index.getBookId("456"));
+        assertFalse(index.isLoaned(70_000L));
+
+        when(changeRepository.now()).thenReturn(START.plusSeconds(2));
+        index.refresh();
+
+        verify(changeRepository).findBookIdsChangedAfter(START.plusSeconds(1).minusMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Should rebuild when the change log no longer reaches back to the last refresh")
+    void testRefreshAfterRetention() {
+        when(changeRepository.now()).thenReturn(START.plusHours(2));
+        when(bookRepository.streamAllIdentities()).thenReturn(Stream.of(identity(2L, "789")));
+        when(loanRepository.streamBookIdsNotReturned()).thenReturn(Stream.of(2L));
+
+        index.refresh();
+
+        verify(changeRepository, never()).findBookIdsChangedAfter(any());
+        assertEquals(Optional.empty(), index.getBookId("123"));
+        assertEquals(Optional.of(2L), index.getBookId("789"));
+        assertTrue(index.isLoaned(2L));
+        assertFalse(index.isLoaned(70_000L));
+    }
+
+    @Test
+    @DisplayName("Should apply this node's changes directly")
+    void testLocalChanges() {
+        index.markLoaned(1L);
+        index.putBook(1L, "124");
+        index.removeBook(70_000L);
+
+        assertTrue(index.isLoaned(1L));
+        assertEquals(Optional.of(1L), index.getBookId("124"));
+        assertEquals(Optional.empty(), index.getBookId("123"));
+        assertEquals(Optional.empty(), index.getBookId("456"));
+        assertFalse(index.isLoaned(70_000L));
+
+        index.markAvailable(1L);
+
+        assertFalse(index.isLoaned(1L));
+    }
+
+    private BookIdentityView identity(Long id, String isbn) {
+        return new BookIdentityView() {
+            public Long getId() { return id; }
+            public String getIsbn() { return isbn; }
+        };
+    }
+}
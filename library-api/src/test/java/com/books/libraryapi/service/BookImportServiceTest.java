@@ -0,0 +1,165 @@
+package com.books.libraryapi.service;
+
+import com.books.libraryapi.api.dto.BookImportReportDTO;
+import com.books.libraryapi.api.dto.BookImportRowDTO;
+import com.books.libraryapi.model.entity.Book;
+import com.books.libraryapi.model.repository.BookChangeRepository;
+import com.books.libraryapi.model.repository.BookRepository;
+import com.books.libraryapi.model.repository.LoanRepository;
+import com.books.libraryapi.service.impl.BookAvailabilityIndex;
+import com.books.libraryapi.service.impl.BookImportServiceImpl;
+import com.books.libraryapi.service.impl.BookSearchIndex;
+import com.books.libraryapi.service.impl.IsbnBloomFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+class BookImportServiceTest {
+
+    private BookImportService service;
+    private final AtomicLong ids = new AtomicLong();
+    private BookSearchIndex searchIndex;
+    private BookAvailabilityIndex availabilityIndex;
+
+    @MockBean
+    BookRepository repository;
+
+    @MockBean
+    LoanRepository loanRepository;
+
+    @MockBean
+    BookChangeRepository changeRepository;
+
+    @BeforeEach
+    void setup() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        IsbnBloomFilter isbnFilter = new IsbnBloomFilter(repository, transactionManager, true, 1000, 0.01);
+        this.searchIndex = new BookSearchIndex(repository, transactionManager);
+        this.availabilityIndex = new BookAvailabilityIndex(repository, loanRepository, changeRepository,
+                transactionManager, Duration.ofMinutes(1), Duration.ofHours(1));
+        this.service = new BookImportServiceImpl(repository, changeRepository, isbnFilter, searchIndex,
+                availabilityIndex, new TransactionTemplate(transactionManager),
+                new ObjectMapper(), 2);
+
+        doAnswer(invocation -> {
+            List<Book> books = invocation.getArgument(0);
+            books.forEach(book -> book.setId(ids.incrementAndGet()));
+            return null;
+        }).when(repository).saveAllInBatch(anyList());
+    }
+
+    @Test
+    @DisplayName("Should import books from a NDJSON stream in chunks")
+    void testImportNdjson() throws Exception {
+        when(repository.findIsbnsByIsbnIn(anyCollection())).thenReturn(Set.of());
+        String body = """
+                {"isbn":"1","title":"Book 1","author":"Author"}
+                {"isbn":"2","title":"Book 2","author":"Author"}
+
+                {"isbn":"3","title":"Book 3","author":"Author"}
+                """;
+
+        BookImportReportDTO report = service.importBooks(stream(body), RowFormat.NDJSON);
+
+        assertEquals(3, report.getTotal());
+        assertEquals(3, report.getCreated());
+        assertEquals(4, report.getRows().get(2).getLine());
+        assertEquals(3L, report.getRows().get(2).getId());
+        verify(repository, times(2)).findIsbnsByIsbnIn(anyCollection());
+        verify(repository, times(2)).saveAllInBatch(anyList());
+        verify(repository, never()).existsByIsbn(anyString());
+        assertEquals(List.of(3L), searchIndex.search("book 3", 10));
+        assertEquals(Optional.of(3L), availabilityIndex.getBookId("3"));
+        verify(changeRepository).record(List.of(3L));
+    }
+
+    @Test
+    @DisplayName("Should report duplicated and invalid rows of a CSV stream")
+    void testImportCsvWithRejectedRows() throws Exception {
+        when(repository.findIsbnsByIsbnIn(anyCollection())).thenReturn(Set.of("1")).thenReturn(Set.of("2"));
+        String body = """
+                title,author,isbn
+                Book 1,Author,1
+                "Book, 2",Author,2
+                Book 3,,3
+                Book 2 again,Author,2
+                """;
+
+        BookImportReportDTO report = service.importBooks(stream(body), RowFormat.CSV);
+        List<BookImportRowDTO> rows = report.getRows();
+
+        assertEquals(4, report.getTotal());
+        assertEquals(1, report.getCreated());
+        assertEquals(2, report.getDuplicated());
+        assertEquals(1, report.getInvalid());
+        assertEquals(BookImportRowDTO.Status.DUPLICATED, rows.get(0).getStatus());
+        assertEquals(BookImportRowDTO.Status.CREATED, rows.get(1).getStatus());
+        assertEquals(BookImportRowDTO.Status.INVALID, rows.get(2).getStatus());
+        assertEquals(BookImportRowDTO.Status.DUPLICATED, rows.get(3).getStatus());
+    }
+
+    @Test
+    @DisplayName("Should retry a chunk row by row when a concurrent insert trips the unique isbn")
+    void testImportConcurrentDuplicate() throws Exception {
+        when(repository.findIsbnsByIsbnIn(anyCollection())).thenReturn(Set.of());
+        // Another node inserted isbn 2 between the lookup and the batch.
+        doAnswer(invocation -> {
+            List<Book> books = invocation.getArgument(0);
+            if (books.stream().anyMatch(book -> "2".equals(book.getIsbn()))) {
+                throw new DataIntegrityViolationException("ux_book_isbn");
+            }
+            books.forEach(book -> book.setId(ids.incrementAndGet()));
+            return null;
+        }).when(repository).saveAllInBatch(anyList());
+        String body = """
+                {"isbn":"1","title":"Book 1","author":"Author"}
+                {"isbn":"2","title":"Book 2","author":"Author"}
+                """;
+
+        BookImportReportDTO report = service.importBooks(stream(body), RowFormat.NDJSON);
+        List<BookImportRowDTO> rows = report.getRows();
+
+        assertEquals(1, report.getCreated());
+        assertEquals(1, report.getDuplicated());
+        assertEquals(BookImportRowDTO.Status.CREATED, rows.get(0).getStatus());
+        assertEquals(1L, rows.get(0).getId());
+        assertEquals(BookImportRowDTO.Status.DUPLICATED, rows.get(1).getStatus());
+        assertNull(rows.get(1).getId());
+        verify(repository, times(3)).saveAllInBatch(anyList());
+        assertEquals(List.of(1L), searchIndex.search("book", 10));
+    }
+
+    @Test
+    @DisplayName("Should mark malformed NDJSON rows as invalid")
+    void testImportMalformedRow() throws Exception {
+        BookImportReportDTO report = service.importBooks(stream("{\"isbn\":\n"), RowFormat.NDJSON);
+
+        assertEquals(1, report.getInvalid());
+        assertEquals("Malformed row", report.getRows().get(0).getMessage());
+    }
+
+    private ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
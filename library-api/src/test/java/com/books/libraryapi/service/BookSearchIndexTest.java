@@ -0,0 +1,93 @@
+package com.books.libraryapi.service;
+
+import com.books.libraryapi.model.repository.BookRepository;
+import com.books.libraryapi.model.repository.BookTextView;
+import com.books.libraryapi.service.impl.BookSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+class BookSearchIndexTest {
+
+    private BookSearchIndex index;
+
+    @MockBean
+    BookRepository repository;
+
+    @BeforeEach
+    void setup() {
+        index = new BookSearchIndex(repository, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    @DisplayName("Should load the index from the catalog at startup")
+    void testLoad() {
+        when(repository.streamAllTexts()).thenReturn(Stream.of(text(1L, "Dom Casmurro", "Machado de Assis")));
+
+        index.load();
+
+        assertEquals(1, index.size());
+        assertEquals(List.of(1L), index.search("casmurro", 10));
+    }
+
+    @Test
+    @DisplayName("Should match words ignoring case and accents")
+    void testNormalization() {
+        index.put(1L, "Memórias Póstumas de Brás Cubas", "Machado de Assis");
+
+        assertEquals(List.of(1L), index.search("MEMORIAS bras", 10));
+        assertEquals(List.of(1L), index.search("  brás,  CUBAS! ", 10));
+        assertTrue(index.search("memoria", 10).isEmpty());
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should require every word and rank title matches and rare words first")
+    void testRanking() {
+        index.put(1L, "Java Concurrency in Practice", "Brian Goetz");
+        index.put(2L, "Effective Java", "Joshua Bloch");
+        index.put(3L, "Practical Guide", "Java Smith");
+        index.put(4L, "Cooking", "Someone");
+
+        assertEquals(List.of(1L, 2L, 3L), index.search("java", 10));
+        assertEquals(List.of(1L), index.search("java practice", 10));
+        assertEquals(List.of(1L, 2L), index.search("java", 2));
+        assertTrue(index.search("java cooking", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should replace the words of an updated book and drop a removed one")
+    void testUpdateAndRemove() {
+        index.put(1L, "Old Title", "Author");
+        index.put(1L, "New Title", "Author");
+
+        assertTrue(index.search("old", 10).isEmpty());
+        assertEquals(List.of(1L), index.search("new title", 10));
+
+        index.remove(1L);
+
+        assertTrue(index.search("title", 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    private BookTextView text(Long id, String title, String author) {
+        return new BookTextView() {
+            public Long getId() { return id; }
+            public String getTitle() { return title; }
+            public String getAuthor() { return author; }
+        };
+    }
+}
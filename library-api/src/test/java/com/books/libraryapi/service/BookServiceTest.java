@@ -0,0 +1,380 @@
+package com.books.libraryapi.service;
+
+import com.books.libraryapi.exception.BusinessException;
+import com.books.libraryapi.model.entity.Book;
+import com.books.libraryapi.model.repository.BookChangeRepository;
+import com.books.libraryapi.model.repository.BookRepository;
+import com.books.libraryapi.model.repository.LoanRepository;
+import com.books.libraryapi.service.impl.BookAvailabilityIndex;
+import com.books.libraryapi.service.impl.BookIsbnCache;
+import com.books.libraryapi.service.impl.BookSearchIndex;
+import com.books.libraryapi.service.impl.BookServiceImpl;
+import com.books.libraryapi.service.impl.IsbnBloomFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+class BookServiceTest {
+
+    private BookService service;
+    private Book book;
+    private IsbnBloomFilter isbnFilter;
+    private BookSearchIndex searchIndex;
+    private BookAvailabilityIndex availabilityIndex;
+
+    @MockBean
+    BookRepository repository;
+
+    @MockBean
+    LoanRepository loanRepository;
+
+    @MockBean
+    BookChangeRepository changeRepository;
+
+    @BeforeEach
+    void setup() {
+        this.isbnFilter = new IsbnBloomFilter(repository, mock(PlatformTransactionManager.class), true, 1000, 0.01);
+        this.searchIndex = new BookSearchIndex(repository, mock(PlatformTransactionManager.class));
+        this.availabilityIndex = new BookAvailabilityIndex(repository, loanRepository, changeRepository,
+                mock(PlatformTransactionManager.class), Duration.ofMinutes(1), Duration.ofHours(1));
+        this.service = new BookServiceImpl(repository, changeRepository, isbnCache(true), isbnFilter, searchIndex,
+                availabilityIndex);
+        book = Book.builder().author("Author").id(1L).title("New Book").isbn("1234").build();
+    }
+
+    @Test
+    @DisplayName("Should return success when save book")
+    void testSaveBook() {
+        when(repository.existsByIsbn(anyString())).thenReturn(false);
+        when(repository.save(book)).thenReturn(Book.builder().id(1L).isbn("1234").title("New Book").author("Author").build());
+
+        Book savedBook = service.save(book);
+
+        assertNotNull(savedBook.getId());
+        assertEquals("1234", savedBook.getIsbn());
+        assertEquals("New Book", savedBook.getTitle());
+        assertEquals("Author", savedBook.getAuthor());
+    }
+
+    @Test
+    @DisplayName("Should throws an Exception when save a book with isbn existent")
+    void testSaveBookWithIsbnExistent() {
+        when(repository.existsByIsbn(anyString())).thenReturn(true);
+
+        Throwable exception = Assertions.catchThrowable(() -> service.save(book));
+        assertThat(exception).isInstanceOf(BusinessException.class)
+                .hasMessage("Isbn already exists.");
+
+        verify(repository, never()).save(book);
+    }
+
+    @Test
+    @DisplayName("Should report a duplicated isbn rejected by the unique constraint")
+    void testSaveBookRejectedByConstraint() {
+        when(repository.existsByIsbn(anyString())).thenReturn(false);
+        when(repository.save(book)).thenThrow(new DataIntegrityViolationException("ux_book_isbn"));
+
+        Throwable exception = Assertions.catchThrowable(() -> service.save(book));
+        assertThat(exception).isInstanceOf(BusinessException.class)
+                .hasMessage("Isbn already exists.");
+    }
+
+    @Test
+    @DisplayName("Should return a book by id")
+    void testFindBookById() {
+        Long id = 1L;
+        book.setId(id);
+        when(repository.findById(id)).thenReturn(Optional.of(book));
+
+        Optional<Book> foundBook = service.getById(id);
+
+        assertNotNull(book.getId());
+        assertEquals(1L, book.getId());
+        assertEquals("Author", book.getAuthor());
+        assertEquals("New Book", book.getTitle());
+        assertEquals("1234", book.getIsbn());
+    }
+
+    @Test
+    @DisplayName("Should return empty when nonexistent book")
+    void testBookNotFoundByID() {
+        Long id = 1L;
+        when(repository.findById(id)).thenReturn(Optional.empty());
+
+        Optional<Book> foundBook = service.getById(id);
+
+        //assertNull(foundBook);
+        assertThat(foundBook.isPresent()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should delete a book")
+    void testDeleteBookById() {
+        BDDMockito.willDoNothing().given(repository).delete(book);
+
+        assertDoesNotThrow(() -> service.delete(book));
+
+        verify(repository, times(1)).delete(book);
+
+    }
+
+    @Test
+    @DisplayName("Should record book changes and keep the availability index in step")
+    void testSaveAndDeleteUpdateAvailabilityIndex() {
+        when(repository.save(book)).thenReturn(book);
+
+        service.save(book);
+
+        verify(changeRepository).record(List.of(1L));
+        assertEquals(Optional.of(1L), availabilityIndex.getBookId("1234"));
+
+        service.delete(book);
+
+        verify(changeRepository, times(2)).record(List.of(1L));
+        assertEquals(Optional.empty(), availabilityIndex.getBookId("1234"));
+    }
+
+    @Test
+    @DisplayName("Should throws an illegal argument exception when delete with nullable book or id")
+    void testDeleteNonExistentBook(){
+        var expectedMessage = "Book or id can be null";
+        Book book = null;
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> {service.delete(book);},
+                () -> "Should Throws an Exception");
+
+        assertEquals(expectedMessage, ex.getMessage());
+        verify(repository, never()).delete(book);
+    }
+
+    @Test
+    @DisplayName("Should return a updated book")
+    void testUpdatedBook(){
+        when(repository.save(book)).thenReturn(book);
+
+        Book updatedBook = service.update(book);
+
+        assertNotNull(updatedBook.getId());
+        assertEquals(book.getTitle(), updatedBook.getTitle());
+        assertEquals(book.getAuthor(), updatedBook.getAuthor());
+        assertEquals(book.getIsbn(), updatedBook.getIsbn());
+    }
+
+    @Test
+    @DisplayName("Should throws an illegal argument exception when update with nullable book or id")
+    void testUpdateNonexistentBook(){
+        var expectedMessage = "Book or id can be null";
+        Book book = null;
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> {service.update(book);},
+                () -> "Should Throws an Exception");
+
+        assertEquals(expectedMessage, ex.getMessage());
+        verify(repository, never()).save(book);
+    }
+
+    @Test
+    @DisplayName("Should find book with parameters")
+    void findBookTest(){
+
+        PageRequest pageable = PageRequest.of(0, 10);
+        List<Book> list = Arrays.asList(book);
+        Page<Book> page = new PageImpl<Book>(list, pageable, 1);
+        when(repository.findAll(any(Example.class), any(PageRequest.class)))
+                .thenReturn(page);
+
+        Page<Book> result = service.find(book, pageable);
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals(list, result.getContent());
+        assertEquals(0, result.getPageable().getPageNumber());
+        assertEquals(10, result.getPageable().getPageSize());
+    }
+
+    @Test
+    @DisplayName("Should return a book by isbn")
+    void testFindBookByIsbn(){
+        String isbn = "1234";
+        when(repository.findByIsbn(isbn)).thenReturn(Optional.of(book));
+
+        Optional<Book> returnedBook = service.getBookByIsbn(isbn);
+
+        assertNotNull(returnedBook);
+        assertEquals("1234", returnedBook.get().getIsbn());
+        assertEquals(1L, returnedBook.get().getId());
+
+        verify(repository, times(1)).findByIsbn(isbn);
+    }
+
+    @Test
+    @DisplayName("Should serve repeated isbn lookups from the cache")
+    void testFindBookByIsbnCached(){
+        String isbn = "1234";
+        when(repository.findByIsbn(isbn)).thenReturn(Optional.of(book));
+
+        service.getBookByIsbn(isbn);
+        Optional<Book> returnedBook = service.getBookByIsbn(isbn);
+
+        assertEquals(1L, returnedBook.get().getId());
+        verify(repository, times(1)).findByIsbn(isbn);
+    }
+
+    @Test
+    @DisplayName("Should give each isbn lookup its own copy of the cached book, without a version")
+    void testFindBookByIsbnCachedCopies(){
+        book.setVersion(3L);
+        when(repository.findByIsbn("1234")).thenReturn(Optional.of(book));
+
+        Book first = service.getBookByIsbn("1234").get();
+        first.setTitle("Changed by one request");
+        Book second = service.getBookByIsbn("1234").get();
+
+        assertNotSame(first, second);
+        assertNotSame(book, first);
+        assertEquals("New Book", second.getTitle());
+        assertNull(second.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should not cache isbn lookups that found nothing")
+    void testFindBookByIsbnNotFoundNotCached(){
+        String isbn = "1234";
+        when(repository.findByIsbn(isbn)).thenReturn(Optional.empty());
+
+        service.getBookByIsbn(isbn);
+        Optional<Book> returnedBook = service.getBookByIsbn(isbn);
+
+        assertThat(returnedBook.isPresent()).isFalse();
+        verify(repository, times(2)).findByIsbn(isbn);
+    }
+
+    @Test
+    @DisplayName("Should evict the cached isbn when a book is updated or deleted")
+    void testEvictCachedIsbn(){
+        String isbn = "1234";
+        when(repository.findByIsbn(isbn)).thenReturn(Optional.of(book));
+        when(repository.save(book)).thenReturn(book);
+
+        service.getBookByIsbn(isbn);
+        service.update(book);
+        service.getBookByIsbn(isbn);
+        service.delete(book);
+        service.getBookByIsbn(isbn);
+
+        verify(repository, times(3)).findByIsbn(isbn);
+    }
+
+    @Test
+    @DisplayName("Should reject a known isbn from the cache without querying the repository")
+    void testSaveBookWithCachedIsbn(){
+        when(repository.findByIsbn("1234")).thenReturn(Optional.of(book));
+        service.getBookByIsbn("1234");
+
+        Throwable exception = Assertions.catchThrowable(() -> service.save(book));
+
+        assertThat(exception).isInstanceOf(BusinessException.class);
+        verify(repository, never()).existsByIsbn(anyString());
+    }
+
+    @Test
+    @DisplayName("Should always query the repository when the cache is disabled")
+    void testFindBookByIsbnCacheDisabled(){
+        service = new BookServiceImpl(repository, changeRepository, isbnCache(false), isbnFilter, searchIndex,
+                availabilityIndex);
+        when(repository.findByIsbn("1234")).thenReturn(Optional.of(book));
+
+        service.getBookByIsbn("1234");
+        service.getBookByIsbn("1234");
+
+        verify(repository, times(2)).findByIsbn("1234");
+    }
+
+    @Test
+    @DisplayName("Should skip the isbn existence query when the filter has never seen the isbn")
+    void testSaveBookSkipsExistsForUnknownIsbn(){
+        when(repository.streamAllIsbns()).thenReturn(Stream.of("999"));
+        isbnFilter.rebuild();
+        when(repository.save(book)).thenReturn(book);
+
+        service.save(book);
+
+        verify(repository, never()).existsByIsbn(anyString());
+        assertTrue(isbnFilter.mightContain("1234"));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the isbn existence query when the filter might know the isbn")
+    void testSaveBookChecksExistsForKnownIsbn(){
+        when(repository.streamAllIsbns()).thenReturn(Stream.of("1234"));
+        isbnFilter.rebuild();
+        when(repository.existsByIsbn("1234")).thenReturn(true);
+
+        Throwable exception = Assertions.catchThrowable(() -> service.save(book));
+
+        assertThat(exception).isInstanceOf(BusinessException.class);
+        verify(repository, times(1)).existsByIsbn("1234");
+    }
+
+    private BookIsbnCache isbnCache(boolean enabled){
+        return new BookIsbnCache(enabled, 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should read the book version from the row on every call, so an update from another node shows at once")
+    void testGetVersionReadFromRow() {
+        when(repository.findVersionById(1L)).thenReturn(Optional.of(0L)).thenReturn(Optional.of(1L));
+
+        assertEquals(Optional.of(0L), service.getVersion(1L));
+        assertEquals(Optional.of(1L), service.getVersion(1L));
+        verify(repository, times(2)).findVersionById(1L);
+    }
+
+    @Test
+    @DisplayName("Should keep the search index in step with save, update and delete")
+    void testSearchFollowsWrites() {
+        Book book = Book.builder().isbn("1234").title("Dom Casmurro").author("Machado de Assis").build();
+        Book saved = Book.builder().id(1L).isbn("1234").title("Dom Casmurro").author("Machado de Assis").build();
+        when(repository.save(book)).thenReturn(saved);
+        when(repository.findAllById(List.of(1L))).thenReturn(List.of(saved));
+
+        service.save(book);
+        assertEquals(List.of(saved), service.search("machado", 10));
+
+        Book renamed = Book.builder().id(1L).isbn("1234").title("Memórias Póstumas").author("Machado de Assis").build();
+        when(repository.save(renamed)).thenReturn(renamed);
+        service.update(renamed);
+        assertTrue(service.search("casmurro", 10).isEmpty());
+        assertEquals(1, searchIndex.search("memorias postumas", 10).size());
+
+        service.delete(renamed);
+        assertTrue(searchIndex.search("machado", 10).isEmpty());
+        verify(repository, times(1)).findAllById(anyList());
+    }
+}
@@ -0,0 +1,67 @@
+package com.books.libraryapi.service;
+
+import com.books.libraryapi.service.impl.CheckoutClaims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckoutClaimsTest {
+
+    private CheckoutClaims claims;
+
+    @BeforeEach
+    void setup() {
+        claims = new CheckoutClaims();
+    }
+
+    @Test
+    @DisplayName("Should let only one of two claims on the same book succeed until it is released")
+    void testTryClaim() {
+        assertTrue(claims.tryClaim(42L));
+        assertFalse(claims.tryClaim(42L));
+        assertFalse(claims.isClaimed(43L));
+        assertTrue(claims.tryClaim(70_000L));
+
+        claims.release(42L);
+
+        assertFalse(claims.isClaimed(42L));
+        assertTrue(claims.isClaimed(70_000L));
+        assertTrue(claims.tryClaim(42L));
+    }
+
+    @Test
+    @DisplayName("Should give each book to exactly one of many concurrent claims")
+    void testConcurrentClaims() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(() -> {
+                    int claimed = 0;
+                    for (long id = 0; id < 10_000; id++) {
+                        if (claims.tryClaim(id)) {
+                            claimed++;
+                        }
+                    }
+                    return claimed;
+                }));
+            }
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get(30, TimeUnit.SECONDS);
+            }
+            assertEquals(10_000, total);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
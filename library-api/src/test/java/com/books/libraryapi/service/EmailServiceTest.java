@@ -0,0 +1,148 @@
+package com.books.libraryapi.service;
+
+import com.books.libraryapi.service.impl.EmailServiceImpl;
+import com.books.libraryapi.service.impl.MailDispatcher;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class EmailServiceTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MailDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should split recipients into messages and deliver them through the SMTP server")
+    void testSendEmailsInBatches() throws Exception {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        EmailService service = emailService(mailSender, 1);
+        List<String> mailList = IntStream.range(0, 120).mapToObj(i -> "customer" + i + "@email.com").toList();
+
+        service.sendEmails("Late!", mailList);
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(120, received.length);
+        assertEquals(3, Arrays.stream(received).map(this::messageId).distinct().count());
+        assertEquals("Late book return", received[0].getSubject());
+        assertEquals(3.0, meterRegistry.counter("mail.dispatch.messages", "result", "sent").count());
+    }
+
+    @Test
+    @DisplayName("Should send one message per recipient with its own text")
+    void testSendPersonalEmails() throws Exception {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        EmailService service = emailService(mailSender, 1);
+
+        Set<String> sent = service.sendEmails(Map.of("a@email.com", "Digest for a", "b@email.com", "Digest for b"))
+                .join();
+
+        assertEquals(Set.of("a@email.com", "b@email.com"), sent);
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(2, received.length);
+        for (MimeMessage message : received) {
+            String recipient = message.getAllRecipients()[0].toString();
+            assertEquals("Digest for " + recipient.charAt(0), GreenMailUtil.getBody(message).trim());
+        }
+    }
+
+    @Test
+    @DisplayName("Should retry the failed messages with backoff until they are sent")
+    void testRetryFailedMessages() {
+        JavaMailSender mailSender = mock(JavaMailSender.class);
+        doThrow(new MailSendException("Connection refused"))
+                .doNothing()
+                .when(mailSender).send(any(SimpleMailMessage[].class));
+        EmailService service = emailService(mailSender, 3);
+
+        service.sendEmails("Late!", List.of("customer@email.com"));
+
+        verify(mailSender, times(2)).send(any(SimpleMailMessage[].class));
+        assertEquals(1.0, meterRegistry.counter("mail.dispatch.retries").count());
+        assertEquals(1.0, meterRegistry.counter("mail.dispatch.messages", "result", "sent").count());
+    }
+
+    @Test
+    @DisplayName("Should give up on a message after the last attempt without blocking the caller")
+    void testGiveUpAfterMaxAttempts() {
+        JavaMailSender mailSender = mock(JavaMailSender.class);
+        doThrow(new MailSendException("Connection refused")).when(mailSender).send(any(SimpleMailMessage[].class));
+        EmailService service = emailService(mailSender, 2);
+
+        service.sendEmails("Late!", List.of("customer@email.com"));
+
+        verify(mailSender, times(2)).send(any(SimpleMailMessage[].class));
+        assertEquals(1.0, meterRegistry.counter("mail.dispatch.messages", "result", "failed").count());
+    }
+
+    @Test
+    @DisplayName("Should drop the messages of a cancelled send instead of retrying them")
+    void testCancelSend() {
+        JavaMailSender mailSender = mock(JavaMailSender.class);
+        doThrow(new MailSendException("Connection refused"))
+                .doNothing()
+                .when(mailSender).send(any(SimpleMailMessage[].class));
+        EmailService service = emailService(mailSender, 3, Duration.ofMillis(300));
+
+        CompletableFuture<Set<String>> sending = service.sendEmails(Map.of("a@email.com", "Digest for a"));
+        verify(mailSender, timeout(1000)).send(any(SimpleMailMessage[].class));
+        sending.cancel(false);
+
+        verify(mailSender, after(1000).times(1)).send(any(SimpleMailMessage[].class));
+        assertEquals(0.0, meterRegistry.counter("mail.dispatch.messages", "result", "sent").count());
+    }
+
+    private EmailService emailService(JavaMailSender mailSender, int maxAttempts) {
+        return emailService(mailSender, maxAttempts, Duration.ofMillis(1));
+    }
+
+    private EmailService emailService(JavaMailSender mailSender, int maxAttempts, Duration backoff) {
+        dispatcher = new MailDispatcher(mailSender, meterRegistry, 2, 10, 20, maxAttempts, backoff, false);
+        EmailServiceImpl service = new EmailServiceImpl(dispatcher);
+        ReflectionTestUtils.setField(service, "sender", "mail@library-api.com");
+        ReflectionTestUtils.setField(service, "recipientsPerMessage", 50);
+        return service;
+    }
+
+    private String messageId(MimeMessage message) {
+        try {
+            return message.getMessageID();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.books.libraryapi.service;
+
+import com.books.libraryapi.api.dto.LoanFilterDTO;
+import com.books.libraryapi.api.mapper.BookMapper;
+import com.books.libraryapi.api.mapper.BookMapperImpl;
+import com.books.libraryapi.api.mapper.LoanMapper;
+import com.books.libraryapi.api.mapper.LoanMapperImpl;
+import com.books.libraryapi.model.entity.Book;
+import com.books.libraryapi.model.entity.Loan;
+import com.books.libraryapi.model.repository.BookRepository;
+import com.books.libraryapi.model.repository.LoanRepository;
+import com.books.libraryapi.service.impl.ExportServiceImpl;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@ContextConfiguration(classes = {BookMapperImpl.class, LoanMapperImpl.class})
+class ExportServiceTest {
+
+    private ExportService service;
+    private EntityManager entityManager;
+
+    @MockBean
+    BookRepository bookRepository;
+
+    @MockBean
+    LoanRepository loanRepository;
+
+    @Autowired
+    BookMapper bookMapper;
+
+    @Autowired
+    LoanMapper loanMapper;
+
+    @BeforeEach
+    void setup() {
+        entityManager = mock(EntityManager.class);
+        service = new ExportServiceImpl(bookRepository, loanRepository, bookMapper, loanMapper,
+                entityManager, Jackson2ObjectMapperBuilder.json()
+                        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build());
+    }
+
+    @Test
+    @DisplayName("Should write books as CSV with quoted fields and detach each row")
+    void testExportBooksAsCsv() throws Exception {
+        Book first = Book.builder().id(1L).isbn("123").title("Title, with comma").author("Author").build();
+        Book second = Book.builder().id(2L).isbn("456").title("Say \"hi\"").author("Author").build();
+        when(bookRepository.streamAll()).thenReturn(Stream.of(first, second));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = service.exportBooks(RowFormat.CSV, output);
+
+        assertEquals(2, rows);
+        assertEquals("id,isbn,title,author\n"
+                + "1,123,\"Title, with comma\",Author\n"
+                + "2,456,\"Say \"\"hi\"\"\",Author\n", output.toString(StandardCharsets.UTF_8));
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+    }
+
+    @Test
+    @DisplayName("Should write filtered loans as NDJSON with the nested book")
+    void testExportLoansAsNdjson() throws Exception {
+        Book book = Book.builder().id(1L).isbn("123").title("Title").author("Author").build();
+        Loan loan = Loan.builder().id(5L).book(book).customer("Cliente").customerEmail("cliente@email.com")
+                .loanDate(LocalDate.of(2024, 5, 1)).returned(false).build();
+        when(loanRepository.streamByBookIsbnOrCustomer(null, "Cliente")).thenReturn(Stream.of(loan, loan));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = service.exportLoans(LoanFilterDTO.builder().customer("Cliente").build(), RowFormat.NDJSON, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, rows);
+        assertEquals(2, lines.length);
+        assertEquals("{\"id\":5,\"customer\":\"Cliente\",\"email\":\"cliente@email.com\",\"loanDate\":\"2024-05-01\","
+                + "\"returned\":false,\"book\":{\"id\":1,\"title\":\"Title\",\"author\":\"Author\",\"isbn\":\"123\"}}",
+                lines[0]);
+        verify(entityManager, times(2)).detach(loan);
+        verify(entityManager, times(2)).detach(book);
+    }
+
+    @Test
+    @DisplayName("Should write loans as CSV with the same fields as NDJSON, the book flattened")
+    void testExportLoansAsCsv() throws Exception {
+        Book book = Book.builder().id(1L).isbn("123").title("Title").author("Author").build();
+        Loan loan = Loan.builder().id(5L).book(book).customer("Cliente").customerEmail("cliente@email.com")
+                .loanDate(LocalDate.of(2024, 5, 1)).returned(true).build();
+        when(loanRepository.streamByBookIsbnOrCustomer("123", null)).thenReturn(Stream.of(loan));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = service.exportLoans(LoanFilterDTO.builder().isbn("123").build(), RowFormat.CSV, output);
+
+        assertEquals(1, rows);
+        assertEquals("id,customer,email,loan_date,returned,book_id,isbn,title,author\n"
+                + "5,Cliente,cliente@email.com,2024-05-01,true,1,123,Title,Author\n", output.toString(StandardCharsets.UTF_8));
+    }
+}
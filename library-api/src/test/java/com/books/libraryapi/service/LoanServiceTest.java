@@ -0,0 +1,381 @@
+package com.books.libraryapi.service;
+
+import com.books.libraryapi.api.dto.BookAvailabilityDTO;
+import com.books.libraryapi.api.dto.LoanBatchResultDTO;
+import com.books.libraryapi.api.dto.LoanDTO;
+import com.books.libraryapi.api.dto.LoanFilterDTO;
+import com.books.libraryapi.api.dto.LoanReturnBatchDTO;
+import com.books.libraryapi.api.dto.LoanReturnResultDTO;
+import com.books.libraryapi.exception.BusinessException;
+import com.books.libraryapi.model.entity.Book;
+import com.books.libraryapi.model.entity.Loan;
+import com.books.libraryapi.model.repository.BookChangeRepository;
+import com.books.libraryapi.model.repository.BookRepository;
+import com.books.libraryapi.model.repository.LoanRepository;
+import com.books.libraryapi.model.repository.LoanReturnView;
+import com.books.libraryapi.service.impl.BookAvailabilityIndex;
+import com.books.libraryapi.service.impl.CheckoutClaims;
+import com.books.libraryapi.service.impl.LoanServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.mockito.Mockito.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class LoanServiceTest {
+
+    private LoanService service;
+    private CheckoutClaims checkoutClaims;
+    private BookAvailabilityIndex availabilityIndex;
+    private SimpleMeterRegistry meterRegistry;
+    private Book book;
+    private Loan loan;
+
+    @MockBean
+    LoanRepository repository;
+
+    @MockBean
+    BookRepository bookRepository;
+
+    @MockBean
+    BookChangeRepository changeRepository;
+
+    @BeforeEach
+    void setUp(){
+        this.checkoutClaims = new CheckoutClaims();
+        this.availabilityIndex = new BookAvailabilityIndex(bookRepository, repository, changeRepository,
+                mock(PlatformTransactionManager.class), Duration.ofMinutes(1), Duration.ofHours(1));
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.service = new LoanServiceImpl(repository, bookRepository, changeRepository, checkoutClaims,
+                availabilityIndex, meterRegistry);
+        book = Book.builder().id(1L).build();
+        loan = Loan.builder()
+                .book(book)
+                .loanDate(LocalDate.now())
+                .customer("Cliente")
+                .id(1L)
+                .build();
+        when(bookRepository.findForLoanById(1L)).thenReturn(Optional.of(book));
+    }
+
+    @Test
+    @DisplayName("Should save a loan")
+    void testSaveLoan() {
+        Loan savingLoan = Loan.builder()
+                .book(book)
+                .loanDate(LocalDate.now())
+                .customer("Cliente")
+                .build();
+
+        when(repository.existsByBookAndNotReturned(book)).thenReturn(false);
+        when(repository.save(savingLoan)).thenReturn(loan);
+
+        Loan loan = service.save(savingLoan);
+
+        assertNotNull(loan);
+        assertEquals(1L, loan.getId());
+        assertEquals(1L, loan.getBook().getId());
+        assertEquals("Cliente", loan.getCustomer());
+
+        verify(repository, times(1)).save(savingLoan);
+
+    }
+
+    @Test
+    @DisplayName("Should recount a book's loans on every call, so a loan saved on another node shows at once")
+    void testLoansChangeCountReadEveryCall() {
+        when(repository.changeCountByBookId(1L)).thenReturn(0L, 1L);
+
+        assertEquals(0L, service.getLoansChangeCount(1L));
+        assertEquals(1L, service.getLoansChangeCount(1L));
+        verify(repository, times(2)).changeCountByBookId(1L);
+    }
+
+    @Test
+    @DisplayName("Should throw an exception when create a new loan for loaned book")
+    void testThrowExceptionLoanedBook() {
+        Loan savingLoan = Loan.builder()
+                .book(book)
+                .loanDate(LocalDate.now())
+                .customer("Cliente")
+                .build();
+
+        when(repository.existsByBookAndNotReturned(book)).thenReturn(true);
+
+        Throwable ex = catchThrowable(() -> service.save(savingLoan));
+        assertThat(ex).isInstanceOf(BusinessException.class)
+                .hasMessage("Book already loaned");
+
+        verify(repository, never()).save(savingLoan);
+        assertEquals(1, meterRegistry.counter("library.loans.conflicts", "operation", "save").count());
+    }
+
+    @Test
+    @DisplayName("Should return a loan by id")
+    void testGetLoanDetails(){
+        long id = 1L;
+
+        when(repository.findById(id)).thenReturn(Optional.of(loan));
+
+        Optional<Loan> actual = service.getByID(id);
+
+        assertNotNull(actual);
+        assertEquals(actual.get().getId(), 1L);
+        assertEquals(actual.get().getCustomer(), loan.getCustomer());
+        assertEquals(actual.get().getBook(), loan.getBook());
+        assertEquals(actual.get().getLoanDate(), loan.getLoanDate());
+
+        verify(repository).findById(id);
+    }
+
+    @Test
+    @DisplayName("Should update a loan")
+    void testUpdateLoan(){
+        loan.setReturned(true);
+
+        when(repository.save(loan)).thenReturn(loan);
+
+        Loan actual = service.update(loan);
+
+        assertTrue(actual.getReturned());
+
+    }
+
+    @Test
+    @DisplayName("Should find loans with parameters")
+    void findLoanTest(){
+
+        LoanFilterDTO loanFilterDTO = LoanFilterDTO.builder()
+                .customer("Cliente")
+                .isbn("123").build();
+
+        PageRequest pageable = PageRequest.of(0, 10);
+        List<Loan> list = Arrays.asList(loan);
+
+        Page<Loan> page = new PageImpl<Loan>(list, pageable, list.size());
+        when(repository.findByBookIsbnOrCustomer(anyString(), anyString(), any(PageRequest.class)))
+                .thenReturn(page);
+
+        Page<Loan> result = service.find(loanFilterDTO, pageable);
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals(list, result.getContent());
+        assertEquals(0, result.getPageable().getPageNumber());
+        assertEquals(10, result.getPageable().getPageSize());
+    }
+
+    @Test
+    @DisplayName("Should create loans in batch reporting missing and loaned books")
+    void testSaveAllLoans(){
+        Book loanedBook = Book.builder().id(2L).isbn("456").build();
+        List<LoanDTO> dtos = Arrays.asList(
+                LoanDTO.builder().isbn("123").customer("Cliente").build(),
+                LoanDTO.builder().isbn("456").customer("Cliente").build(),
+                LoanDTO.builder().isbn("789").customer("Cliente").build(),
+                LoanDTO.builder().isbn("123").customer("Outro").build());
+
+        book.setIsbn("123");
+        when(bookRepository.findForLoanByIsbnIn(anyCollection())).thenReturn(Arrays.asList(book, loanedBook));
+        when(repository.findBookIdsNotReturned(anyCollection())).thenReturn(Set.of(2L));
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Loan> loans = invocation.getArgument(0);
+            loans.forEach(saving -> saving.setId(10L));
+            return loans;
+        });
+
+        List<LoanBatchResultDTO> results = service.saveAll(dtos);
+
+        assertEquals(4, results.size());
+        assertEquals(LoanBatchResultDTO.Status.CREATED, results.get(0).getStatus());
+        assertEquals(10L, results.get(0).getId());
+        assertEquals(LoanBatchResultDTO.Status.ALREADY_LOANED, results.get(1).getStatus());
+        assertEquals(LoanBatchResultDTO.Status.BOOK_NOT_FOUND, results.get(2).getStatus());
+        assertEquals(LoanBatchResultDTO.Status.ALREADY_LOANED, results.get(3).getStatus());
+        assertEquals(2, meterRegistry.counter("library.loans.conflicts", "operation", "batch").count());
+        verify(repository, times(1)).saveAll(anyList());
+        verify(repository, never()).existsByBookAndNotReturned(any());
+    }
+
+    @Test
+    @DisplayName("Should return loans in bulk reporting missing and returned loans")
+    void testReturnAllLoans(){
+        LoanReturnBatchDTO dto = LoanReturnBatchDTO.builder()
+                .ids(Arrays.asList(1L, 2L, 3L))
+                .isbns(Arrays.asList("123", "456"))
+                .build();
+
+        when(repository.findReturnViewsByIdIn(anyCollection()))
+                .thenReturn(Arrays.asList(view(1L, "111", null), view(2L, "222", true)));
+        when(repository.findReturnViewsNotReturnedByIsbnIn(anyCollection()))
+                .thenReturn(Arrays.asList(view(4L, "123", false)));
+        when(repository.lockNotReturnedByIdIn(anyCollection())).thenAnswer(invocation -> new ArrayList<>(
+                invocation.<Collection<Long>>getArgument(0)));
+
+        List<LoanReturnResultDTO> results = service.returnAll(dto);
+
+        assertEquals(5, results.size());
+        assertEquals(LoanReturnResultDTO.Status.RETURNED, results.get(0).getStatus());
+        assertEquals(LoanReturnResultDTO.Status.ALREADY_RETURNED, results.get(1).getStatus());
+        assertEquals(LoanReturnResultDTO.Status.NOT_FOUND, results.get(2).getStatus());
+        assertEquals(4L, results.get(3).getId());
+        assertEquals(LoanReturnResultDTO.Status.NOT_FOUND, results.get(4).getStatus());
+        verify(repository).markReturned(Set.of(1L));
+        verify(repository).markReturned(Set.of(4L));
+        verify(repository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should report loans returned by another transaction after they were read as already returned")
+    void testReturnAllConcurrentlyReturned(){
+        LoanReturnBatchDTO dto = LoanReturnBatchDTO.builder()
+                .ids(Arrays.asList(1L, 2L))
+                .isbns(List.of("123"))
+                .build();
+        when(repository.findReturnViewsByIdIn(anyCollection()))
+                .thenReturn(Arrays.asList(view(1L, "111", false), view(2L, "222", false)));
+        when(repository.findReturnViewsNotReturnedByIsbnIn(anyCollection()))
+                .thenReturn(List.of(view(4L, "123", false)));
+        // Loans 2 and 4 were returned elsewhere between the read and the lock.
+        when(repository.lockNotReturnedByIdIn(anyCollection())).thenReturn(List.of(1L)).thenReturn(List.of());
+
+        List<LoanReturnResultDTO> results = service.returnAll(dto);
+
+        assertEquals(LoanReturnResultDTO.Status.RETURNED, results.get(0).getStatus());
+        assertEquals(LoanReturnResultDTO.Status.ALREADY_RETURNED, results.get(1).getStatus());
+        assertEquals(4L, results.get(2).getId());
+        assertEquals(LoanReturnResultDTO.Status.ALREADY_RETURNED, results.get(2).getStatus());
+        verify(repository).markReturned(Set.of(1L));
+        verify(repository, times(1)).markReturned(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should reject a checkout while another one of the same book is in flight on this node")
+    void testThrowExceptionClaimedBook() {
+        checkoutClaims.tryClaim(book.getId());
+        Loan savingLoan = Loan.builder().book(book).loanDate(LocalDate.now()).customer("Cliente").build();
+
+        Throwable ex = catchThrowable(() -> service.save(savingLoan));
+
+        assertThat(ex).isInstanceOf(BusinessException.class).hasMessage("Book already loaned");
+        verify(bookRepository, never()).findForLoanById(anyLong());
+        verify(repository, never()).save(savingLoan);
+    }
+
+    @Test
+    @DisplayName("Should lock the book before checking its open loans and release the claim afterwards")
+    void testSaveLocksBook() {
+        Loan savingLoan = Loan.builder().book(book).loanDate(LocalDate.now()).customer("Cliente").build();
+        when(repository.existsByBookAndNotReturned(book)).thenReturn(false);
+        when(repository.save(savingLoan)).thenReturn(loan);
+
+        service.save(savingLoan);
+
+        InOrder inOrder = inOrder(bookRepository, repository);
+        inOrder.verify(bookRepository).findForLoanById(book.getId());
+        inOrder.verify(repository).existsByBookAndNotReturned(book);
+        inOrder.verify(repository).save(savingLoan);
+        assertFalse(checkoutClaims.isClaimed(book.getId()));
+    }
+
+    @Test
+    @DisplayName("Should save the loan with the managed book rather than the caller's copy")
+    void testSaveAttachesManagedBook() {
+        Book copy = Book.builder().id(1L).isbn("123").build();
+        Loan savingLoan = Loan.builder().book(copy).loanDate(LocalDate.now()).customer("Cliente").build();
+        when(repository.save(savingLoan)).thenReturn(loan);
+
+        service.save(savingLoan);
+
+        assertSame(book, savingLoan.getBook());
+        verify(repository).existsByBookAndNotReturned(book);
+    }
+
+    @Test
+    @DisplayName("Should refuse a loan for a book that no longer exists")
+    void testSaveDeletedBook() {
+        Loan savingLoan = Loan.builder().book(book).loanDate(LocalDate.now()).customer("Cliente").build();
+        when(bookRepository.findForLoanById(1L)).thenReturn(Optional.empty());
+
+        Throwable exception = catchThrowable(() -> service.save(savingLoan));
+
+        assertThat(exception).isInstanceOf(BusinessException.class).hasMessage("Book not found");
+        verify(repository, never()).save(any(Loan.class));
+        assertFalse(checkoutClaims.isClaimed(book.getId()));
+    }
+
+    @Test
+    @DisplayName("Should record the checkout in the change log and the availability index")
+    void testSaveMarksLoaned() {
+        Loan savingLoan = Loan.builder().book(book).loanDate(LocalDate.now()).customer("Cliente").build();
+        when(repository.save(savingLoan)).thenReturn(loan);
+
+        service.save(savingLoan);
+
+        verify(changeRepository).record(List.of(1L));
+        assertTrue(availabilityIndex.isLoaned(1L));
+    }
+
+    @Test
+    @DisplayName("Should answer availability from the index without querying the database")
+    void testGetAvailability() {
+        availabilityIndex.putBook(1L, "123");
+        availabilityIndex.putBook(2L, "456");
+        availabilityIndex.markLoaned(1L);
+
+        List<BookAvailabilityDTO> availability = service.getAvailability(Arrays.asList("123", "456", "999"));
+
+        assertEquals(BookAvailabilityDTO.Status.LOANED, availability.get(0).getStatus());
+        assertEquals(1L, availability.get(0).getBookId());
+        assertEquals(BookAvailabilityDTO.Status.AVAILABLE, availability.get(1).getStatus());
+        assertEquals(BookAvailabilityDTO.Status.NOT_FOUND, availability.get(2).getStatus());
+        verifyNoInteractions(bookRepository, repository);
+    }
+
+    @Test
+    @DisplayName("Should release the claim when the open loan check or the insert fails")
+    void testReleaseClaimOnFailedSave() {
+        Loan savingLoan = Loan.builder().book(book).loanDate(LocalDate.now()).customer("Cliente").build();
+        when(repository.existsByBookAndNotReturned(book)).thenThrow(new IllegalStateException("query failed"));
+
+        assertThrows(IllegalStateException.class, () -> service.save(savingLoan));
+        assertFalse(checkoutClaims.isClaimed(book.getId()));
+
+        doReturn(false).when(repository).existsByBookAndNotReturned(book);
+        when(repository.save(savingLoan)).thenThrow(new IllegalStateException("insert failed"));
+
+        assertThrows(IllegalStateException.class, () -> service.save(savingLoan));
+        assertFalse(checkoutClaims.isClaimed(book.getId()));
+    }
+
+    private LoanReturnView view(Long id, String isbn, Boolean returned){
+        return new LoanReturnView() {
+            public Long getId() { return id; }
+            public Long getBookId() { return id; }
+            public String getIsbn() { return isbn; }
+            public Boolean getReturned() { return returned; }
+        };
+    }
+}
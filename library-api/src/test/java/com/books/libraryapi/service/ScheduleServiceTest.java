@@ -0,0 +1,281 @@
+package com.books.libraryapi.service;
+
+import com.books.libraryapi.model.entity.JobCheckpoint;
+import com.books.libraryapi.model.entity.Loan;
+import com.books.libraryapi.model.repository.LateLoanView;
+import com.books.libraryapi.service.impl.JobLeases;
+import com.books.libraryapi.service.impl.LateLoanDigest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+class ScheduleServiceTest {
+
+    private ScheduleService service;
+    private final LocalDate today = LocalDate.now();
+    private final List<String> savedKeys = new ArrayList<>();
+    private final List<Map<String, String>> sent = new ArrayList<>();
+    // Each entry fails one send to that recipient.
+    private final List<String> bounces = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private int openTransactions;
+    private final List<Integer> openTransactionsWhileSending = new ArrayList<>();
+
+    @MockBean
+    LoanService loanService;
+
+    @MockBean
+    EmailService emailService;
+
+    @MockBean
+    JobLeases leases;
+
+    @BeforeEach
+    void setup() throws Exception {
+        LateLoanDigest digest = new LateLoanDigest(new ClassPathResource("templates/mail/late-loans-digest.mustache"),
+                "Please return them.");
+        service = new ScheduleService(loanService, emailService, digest, leases,
+                new TransactionTemplate(transactionManager), meterRegistry, 2);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            openTransactions++;
+            return mock(TransactionStatus.class);
+        });
+        doAnswer(invocation -> openTransactions--).when(transactionManager).commit(any());
+        when(leases.checkpoint(any())).thenAnswer(invocation -> {
+            JobCheckpoint checkpoint = invocation.getArgument(0);
+            savedKeys.add(checkpoint.getJob() + "/" + checkpoint.getLastKey() + "#" + checkpoint.getLastId());
+            return true;
+        });
+        when(leases.renew(any())).thenReturn(true);
+        when(leases.renewInterval()).thenReturn(Duration.ofMillis(20));
+        when(leases.claimNext(ScheduleService.LATE_LOANS_JOB, today)).thenReturn(Optional.empty());
+        when(emailService.sendEmails(anyMap())).thenAnswer(invocation -> {
+            Map<String, String> digests = invocation.getArgument(0);
+            openTransactionsWhileSending.add(openTransactions);
+            sent.add(Map.copyOf(digests));
+            return CompletableFuture.completedFuture(
+                    digests.keySet().stream().filter(email -> !bounces.remove(email)).collect(Collectors.toSet()));
+        });
+    }
+
+    @Test
+    @DisplayName("Should send one digest per customer, holding back a customer split across chunks")
+    void testSendDigestsInChunks() {
+        when(leases.claimNext(ScheduleService.LATE_LOANS_JOB, today))
+                .thenReturn(Optional.of(checkpoint(3, "", 0L)), Optional.empty());
+        when(loanService.getLateLoans(3, today, "", 0L, 2))
+                .thenReturn(List.of(late(2L, "a@email.com", "Dom Casmurro", 6), late(5L, "b@email.com", "Iracema", 10)));
+        when(loanService.getLateLoans(3, today, "b@email.com", 5L, 2))
+                .thenReturn(List.of(late(1L, "b@email.com", "O Cortiço", 4), late(3L, "c@email.com", "Memórias", 5)));
+        when(loanService.getLateLoans(3, today, "c@email.com", 3L, 2)).thenReturn(List.of());
+
+        service.sendEmailToLateLoans();
+
+        verify(leases).prepare(ScheduleService.LATE_LOANS_JOB, Loan.CUSTOMER_PARTITIONS, today);
+        assertEquals(List.of(Set.of("a@email.com"), Set.of("b@email.com"), Set.of("c@email.com")),
+                sent.stream().map(Map::keySet).toList());
+        String digest = sent.get(1).get("b@email.com");
+        assertTrue(digest.startsWith("Hello Customer 5,"), digest);
+        assertTrue(digest.contains("Please return them."), digest);
+        assertTrue(digest.contains("- Iracema: 6 day(s) overdue"), digest);
+        assertTrue(digest.contains("- O Cortiço: 0 day(s) overdue"), digest);
+        assertEquals(List.of("late-loans:3/a@email.com#2", "late-loans:3/b@email.com#1", "late-loans:3/c@email.com#3"),
+                savedKeys);
+        assertEquals(3, meterRegistry.counter("library.lateloans.emails", "result", "sent").count());
+        assertEquals(0, meterRegistry.counter("library.lateloans.emails", "result", "failed").count());
+        // Mail goes out between the read and the checkpoint transactions, never inside one.
+        assertEquals(List.of(0, 0, 0), openTransactionsWhileSending);
+        assertEquals(0, openTransactions);
+    }
+
+    @Test
+    @DisplayName("Should keep the checkpoint before a failed digest and send it again, skipping the ones sent after it")
+    void testRetryFailedDigest() {
+        when(leases.claimNext(ScheduleService.LATE_LOANS_JOB, today))
+                .thenReturn(Optional.of(checkpoint(3, "", 0L)), Optional.empty());
+        when(loanService.getLateLoans(3, today, "", 0L, 2))
+                .thenReturn(List.of(late(2L, "a@email.com", "Dom Casmurro", 6), late(5L, "b@email.com", "Iracema", 10)));
+        when(loanService.getLateLoans(3, today, "b@email.com", 5L, 2))
+                .thenReturn(List.of(late(3L, "c@email.com", "Memórias", 5), late(4L, "d@email.com", "O Ateneu", 5)));
+        when(loanService.getLateLoans(3, today, "a@email.com", 2L, 2))
+                .thenReturn(List.of(late(5L, "b@email.com", "Iracema", 10), late(3L, "c@email.com", "Memórias", 5)));
+        when(loanService.getLateLoans(3, today, "c@email.com", 3L, 2))
+                .thenReturn(List.of(late(4L, "d@email.com", "O Ateneu", 5)));
+        bounces.add("b@email.com");
+
+        service.sendEmailToLateLoans();
+
+        assertEquals(List.of(Set.of("a@email.com"), Set.of("b@email.com", "c@email.com"), Set.of("b@email.com"),
+                Set.of("d@email.com")), sent.stream().map(Map::keySet).toList());
+        assertEquals(List.of("late-loans:3/a@email.com#2", "late-loans:3/a@email.com#2", "late-loans:3/b@email.com#5",
+                "late-loans:3/d@email.com#4"), savedKeys);
+        assertEquals(4, meterRegistry.counter("library.lateloans.emails", "result", "sent").count());
+        assertEquals(0, meterRegistry.counter("library.lateloans.emails", "result", "failed").count());
+    }
+
+    @Test
+    @DisplayName("Should count a digest as failed and move past it once its attempts are used up")
+    void testCountFailedEmails() {
+        when(leases.claimNext(ScheduleService.LATE_LOANS_JOB, today))
+                .thenReturn(Optional.of(checkpoint(3, "", 0L)), Optional.empty());
+        when(loanService.getLateLoans(3, today, "", 0L, 2))
+                .thenReturn(List.of(late(2L, "a@email.com", "Dom Casmurro", 6), late(5L, "b@email.com", "Iracema", 10)));
+        when(loanService.getLateLoans(3, today, "b@email.com", 5L, 2)).thenReturn(List.of());
+        when(loanService.getLateLoans(3, today, "a@email.com", 2L, 2))
+                .thenReturn(List.of(late(5L, "b@email.com", "Iracema", 10)));
+        for (int i = 0; i < ScheduleService.DIGEST_ATTEMPTS; i++) {
+            bounces.add("b@email.com");
+        }
+
+        service.sendEmailToLateLoans();
+
+        assertEquals(1 + ScheduleService.DIGEST_ATTEMPTS, sent.size());
+        assertEquals("late-loans:3/b@email.com#5", savedKeys.get(savedKeys.size() - 1));
+        assertTrue(savedKeys.subList(0, savedKeys.size() - 1).stream()
+                .allMatch("late-loans:3/a@email.com#2"::equals), savedKeys.toString());
+        assertEquals(1, meterRegistry.counter("library.lateloans.emails", "result", "sent").count());
+        assertEquals(1, meterRegistry.counter("library.lateloans.emails", "result", "failed").count());
+    }
+
+    @Test
+    @DisplayName("Should work through every partition it claims, resuming each after its last checkpoint")
+    void testClaimedPartitions() {
+        when(leases.claimNext(ScheduleService.LATE_LOANS_JOB, today))
+                .thenReturn(Optional.of(checkpoint(7, "b@email.com", 7L)), Optional.of(checkpoint(12, "", 0L)),
+                        Optional.empty());
+        when(loanService.getLateLoans(7, today, "b@email.com", 7L, 2))
+                .thenReturn(List.of(late(4L, "c@email.com", "Memórias", 5)));
+        when(loanService.getLateLoans(12, today, "", 0L, 2)).thenReturn(List.of());
+
+        service.takeOverLateLoans();
+
+        verify(loanService, never()).getLateLoans(7, today, "", 0L, 2);
+        assertEquals(1, sent.size());
+        assertTrue(sent.get(0).get("c@email.com").contains("- Memórias: 1 day(s) overdue"));
+        assertEquals(List.of("late-loans:7/c@email.com#4", "late-loans:12/#0"), savedKeys);
+    }
+
+    @Test
+    @DisplayName("Should leave a partition as soon as another node has taken its lease over")
+    void testLostLease() {
+        when(leases.claimNext(ScheduleService.LATE_LOANS_JOB, today))
+                .thenReturn(Optional.of(checkpoint(5, "", 0L)), Optional.empty());
+        doReturn(false).when(leases).checkpoint(any());
+        when(loanService.getLateLoans(5, today, "", 0L, 2))
+                .thenReturn(List.of(late(2L, "a@email.com", "Dom Casmurro", 6), late(5L, "b@email.com", "Iracema", 10)));
+
+        service.sendEmailToLateLoans();
+
+        verify(loanService, times(1)).getLateLoans(anyInt(), any(), any(), anyLong(), anyInt());
+        assertEquals(1, sent.size());
+        verify(leases, times(2)).claimNext(ScheduleService.LATE_LOANS_JOB, today);
+    }
+
+    @Test
+    @DisplayName("Should not mail a chunk when the lease was lost before sending it")
+    void testLostLeaseBeforeSending() {
+        when(leases.claimNext(ScheduleService.LATE_LOANS_JOB, today))
+                .thenReturn(Optional.of(checkpoint(5, "", 0L)), Optional.empty());
+        doReturn(false).when(leases).renew(any());
+        when(loanService.getLateLoans(5, today, "", 0L, 2))
+                .thenReturn(List.of(late(2L, "a@email.com", "Dom Casmurro", 6), late(5L, "b@email.com", "Iracema", 10)));
+
+        service.sendEmailToLateLoans();
+
+        assertTrue(sent.isEmpty());
+        verify(leases, never()).checkpoint(any());
+    }
+
+    @Test
+    @DisplayName("Should keep renewing the lease while a slow chunk is being mailed")
+    void testRenewLeaseWhileSending() {
+        when(leases.claimNext(ScheduleService.LATE_LOANS_JOB, today))
+                .thenReturn(Optional.of(checkpoint(5, "", 0L)), Optional.empty());
+        when(loanService.getLateLoans(5, today, "", 0L, 2))
+                .thenReturn(List.of(late(2L, "a@email.com", "Dom Casmurro", 6)));
+        when(emailService.sendEmails(anyMap())).thenReturn(CompletableFuture.supplyAsync(() -> Set.of("a@email.com"),
+                CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS)));
+
+        service.sendEmailToLateLoans();
+
+        verify(leases, atLeast(3)).renew(any());
+        assertEquals(List.of("late-loans:5/a@email.com#2"), savedKeys);
+    }
+
+    @Test
+    @DisplayName("Should stop mailing a chunk when the lease is lost while it is being sent")
+    void testLostLeaseWhileSending() {
+        when(leases.claimNext(ScheduleService.LATE_LOANS_JOB, today))
+                .thenReturn(Optional.of(checkpoint(5, "", 0L)), Optional.empty());
+        when(leases.renew(any())).thenReturn(true, true, false);
+        when(loanService.getLateLoans(5, today, "", 0L, 2))
+                .thenReturn(List.of(late(2L, "a@email.com", "Dom Casmurro", 6)));
+        CompletableFuture<Set<String>> sending = new CompletableFuture<>();
+        when(emailService.sendEmails(anyMap())).thenReturn(sending);
+
+        service.sendEmailToLateLoans();
+
+        assertTrue(sending.isCancelled());
+        verify(leases, times(3)).renew(any());
+        verify(leases, never()).checkpoint(any());
+    }
+
+    @Test
+    @DisplayName("Should do nothing when there is no partition left to claim")
+    void testNothingToClaim() {
+        service.takeOverLateLoans();
+
+        verify(leases).prepare(ScheduleService.LATE_LOANS_JOB, Loan.CUSTOMER_PARTITIONS, today);
+        verifyNoInteractions(loanService, emailService);
+    }
+
+    private JobCheckpoint checkpoint(int partition, String lastKey, long lastId) {
+        return JobCheckpoint.builder()
+                .job(JobLeases.partitionJob(ScheduleService.LATE_LOANS_JOB, partition))
+                .runDate(today)
+                .lastKey(lastKey)
+                .lastId(lastId)
+                .completed(false)
+                .build();
+    }
+
+    private LateLoanView late(Long id, String email, String title, int daysOld) {
+        LocalDate loanDate = today.minusDays(daysOld);
+        return new LateLoanView() {
+            public Long getId() { return id; }
+            public String getCustomer() { return "Customer " + id; }
+            public String getCustomerEmail() { return email; }
+            public String getBookTitle() { return title; }
+            public LocalDate getLoanDate() { return loanDate; }
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package db.migration;
+
+import com.books.libraryapi.config.DuplicateIsbnCheck;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A database from before the migrations: the schema Hibernate generated with IDENTITY ids, moved to sequences
+// by db/h2/identity-to-sequence.sql, then baselined at V1 and migrated to the latest version on startup.
+class BaselinedDatabaseMigrationTest {
+
+    private final String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+
+    @Test
+    @DisplayName("Should baseline a Hibernate generated schema and migrate it to the latest version")
+    void testMigrateBaselinedDatabase() throws Exception {
+        execute("CREATE TABLE book (id BIGINT GENERATED BY DEFAULT AS IDENTITY, author VARCHAR(255), "
+                + "isbn VARCHAR(255), title VARCHAR(255), PRIMARY KEY (id))");
+        execute("CREATE TABLE loan (id BIGINT GENERATED BY DEFAULT AS IDENTITY, book_id BIGINT, "
+                + "customer VARCHAR(100), customer_email VARCHAR(255), loan_date DATE, returned BOOLEAN, "
+                + "PRIMARY KEY (id))");
+        execute("ALTER TABLE loan ADD CONSTRAINT fk_generated FOREIGN KEY (book_id) REFERENCES book");
+        execute("INSERT INTO book (author, isbn, title) VALUES ('Author', '123', 'Book')");
+        execute("INSERT INTO loan (book_id, customer, customer_email, loan_date, returned) "
+                + "VALUES (1, 'Customer', 'customer@email.com', CURRENT_DATE, FALSE)");
+        execute("RUNSCRIPT FROM 'classpath:db/h2/identity-to-sequence.sql'");
+
+        MigrateResult result = Flyway.configure()
+                .dataSource(url, "sa", "")
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .callbacks(new DuplicateIsbnCheck())
+                .load()
+                .migrate();
+
+        assertTrue(result.success);
+        assertEquals("8", result.targetSchemaVersion);
+        Set<String> indexes = indexes();
+        assertTrue(indexes.containsAll(Set.of("IDX_LOAN_LOAN_DATE", "IDX_LOAN_CUSTOMER", "IDX_LOAN_BOOK_RETURNED",
+                "IDX_LOAN_CUSTOMER_PARTITION")), indexes.toString());
+        assertFalse(indexes.contains("IDX_BOOK_ISBN"), indexes.toString());
+        assertEquals(Math.floorMod("customer@email.com".hashCode(), 16),
+                queryLong("SELECT customer_partition FROM loan WHERE id = 1"));
+        assertThrows(Exception.class, () -> execute("INSERT INTO book (id, isbn) VALUES (100, '123')"));
+    }
+
+    private Set<String> indexes() throws Exception {
+        Set<String> indexes = new HashSet<>();
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(
+                     "SELECT index_name FROM information_schema.indexes WHERE table_schema = 'PUBLIC'")) {
+            while (rows.next()) {
+                indexes.add(rows.getString(1));
+            }
+        }
+        return indexes;
+    }
+
+    private long queryLong(String sql) throws Exception {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(sql)) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    private void execute(String sql) throws Exception {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -1,113 +0,0 @@
-package com.books.libraryapi.api.resource;
-
-import com.books.libraryapi.api.dto.BookDTO;
-import com.books.libraryapi.api.dto.LoanDTO;
-import com.books.libraryapi.model.entity.Book;
-import com.books.libraryapi.model.entity.Loan;
-import com.books.libraryapi.service.BookService;
-import com.books.libraryapi.service.LoanService;
-import io.swagger.v3.oas.annotations.Operation;
-import jakarta.validation.Valid;
-import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
-import org.springframework.http.HttpStatus;
-import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
-
-import java.util.List;
-import java.util.stream.Collectors;
-
-
-@RestController
-@RequestMapping("/api/books")
-@Slf4j
-public class BookController {
-
-    private final BookService service;
-    private final ModelMapper modelMapper;
-    private final LoanService loanService;
-
-    public BookController(BookService service, ModelMapper modelMapper, LoanService loanService) {
-        this.service = service;
-        this.modelMapper = modelMapper;
-        this.loanService = loanService;
-    }
-
-    @PostMapping
-    @ResponseStatus(HttpStatus.CREATED)
-    @Operation(description = "Create a new Book")
-    public BookDTO create(@RequestBody @Valid BookDTO dto){
-        log.info("Create a book for ISBN: {}", dto.getIsbn());
-        Book entity = modelMapper.map(dto, Book.class);
-        entity = service.save(entity);
-        return modelMapper.map(entity, BookDTO.class);
-    }
-
-    @GetMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    @Operation(description = "Get book by Id")
-    public BookDTO get(@PathVariable Long id){
-        log.info("Getting a book with id: {}", id);
-        return service
-                .getById(id).map(book -> modelMapper.map(book, BookDTO.class))
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-    }
-
-    @PutMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    @Operation(description = "Update Book by Id")
-    public BookDTO update(@PathVariable Long id, @RequestBody @Valid BookDTO bookDTO){
-        log.info("Updating a book with id: {}", id);
-        return service.getById(id).map( book -> {
-            book.setAuthor(bookDTO.getAuthor());
-            book.setTitle(bookDTO.getTitle());
-            book = service.update(book);
-            return modelMapper.map(book, BookDTO.class);
-        }).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-
-    }
-
-    @DeleteMapping("/{id}")
-    @ResponseStatus(HttpStatus.NO_CONTENT)
-    @Operation(description = "Delete book by Id")
-    public void delete(@PathVariable long id) throws Exception{
-        log.info("Deleting a book with id: {}", id);
-        Book book = service.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        service.delete(book);
-    }
-
-    @GetMapping
-    @Operation(description = "Get Books as list")
-    public PageImpl<BookDTO> find(BookDTO dto, Pageable pageable){
-        log.info("Getting a list of books");
-        Book filter = modelMapper.map(dto, Book.class);
-        Page<Book> result = service.find(filter, pageable);
-        List<BookDTO> list = result.getContent().stream()
-                .map(entity -> modelMapper.map(entity, BookDTO.class))
-                .collect(Collectors.toList());
-
-        return new PageImpl<BookDTO>(list, pageable, result.getTotalElements());
-    }
-
-    @GetMapping("/{id}/loans")
-    @Operation(description = "Get loans by Book")
-    public Page<LoanDTO> loansByBook(@PathVariable Long id, Pageable pageable){
-        log.info("Getting a list of loans for a specific book ");
-        Book book = service.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        Page<Loan> result = loanService.getLoansByBook(book, pageable);
-        List<LoanDTO> list = result.getContent()
-                .stream()
-                .map(loan -> {
-                    Book loanBook = loan.getBook();
-                    BookDTO bookDTO = modelMapper.map(loanBook, BookDTO.class);
-                    LoanDTO loanDTO = modelMapper.map(loan, LoanDTO.class);
-                    loanDTO.setBook(bookDTO);
-                    return loanDTO;
-                }).collect(Collectors.toList());
-        return new PageImpl<LoanDTO>(list, pageable, result.getTotalElements());
-    }
-
-}
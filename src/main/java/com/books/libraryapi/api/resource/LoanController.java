@@ -1,83 +0,0 @@
-package com.books.libraryapi.api.resource;
-
-import com.books.libraryapi.api.dto.BookDTO;
-import com.books.libraryapi.api.dto.LoanDTO;
-import com.books.libraryapi.api.dto.LoanFilterDTO;
-import com.books.libraryapi.api.dto.ReturnedLoanDTO;
-import com.books.libraryapi.model.entity.Book;
-import com.books.libraryapi.model.entity.Loan;
-import com.books.libraryapi.service.BookService;
-import com.books.libraryapi.service.LoanService;
-import io.swagger.v3.oas.annotations.Operation;
-import org.modelmapper.ModelMapper;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
-import org.springframework.http.HttpStatus;
-import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
-
-import java.time.LocalDate;
-import java.util.List;
-import java.util.stream.Collectors;
-
-@RestController
-@RequestMapping("/api/loans")
-public class LoanController {
-
-    private LoanService service;
-    private BookService bookService;
-    private ModelMapper modelMapper;
-
-    public LoanController(LoanService service, BookService bookService, ModelMapper modelMapper) {
-        this.service = service;
-        this.bookService = bookService;
-        this.modelMapper = modelMapper;
-    }
-
-    @PostMapping
-    @ResponseStatus(HttpStatus.CREATED)
-    @Operation(description = "Create a new Loan")
-    public Long create(@RequestBody LoanDTO dto){
-        Book book = bookService.getBookByIsbn(dto.getIsbn()).orElseThrow(
-                () -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Book not found for this isbn")
-        );
-
-        Loan entity = Loan.builder()
-                .book(book)
-                .customer(dto.getCustomer())
-                .loanDate(LocalDate.now())
-                .build();
-
-        entity = service.save(entity);
-
-        return entity.getId();
-    }
-
-    @PatchMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    @Operation(description = "Get a loan by Id")
-    public void returnBook(@PathVariable Long id, @RequestBody ReturnedLoanDTO dto){
-        Loan loan = service.getByID(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        loan.setReturned(dto.getReturned());
-
-        service.update(loan);
-    }
-
-    @GetMapping
-    @Operation(description = "Get loans as list")
-    public Page<LoanDTO> find(LoanFilterDTO dto, Pageable pageable){
-        Page<Loan> result = service.find(dto, pageable);
-
-        List<LoanDTO> loans = result.getContent().stream()
-                .map(entity -> {
-                    Book book = entity.getBook();
-                    BookDTO bookDTO = modelMapper.map(book, BookDTO.class);
-                    LoanDTO loanDTO = modelMapper.map(entity, LoanDTO.class);
-                    loanDTO.setBook(bookDTO);
-                    return loanDTO;
-                }).collect(Collectors.toList());
-        return new PageImpl<LoanDTO>(loans, pageable, result.getTotalElements());
-    }
-
-}
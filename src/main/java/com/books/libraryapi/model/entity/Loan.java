@@ -1,44 +0,0 @@
-package com.books.libraryapi.model.entity;
-
-
-import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-import java.io.Serial;
-import java.io.Serializable;
-import java.time.LocalDate;
-
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-@Entity
-public class Loan implements Serializable {
-    @Serial
-    private static final long serialVersionUID = 1L;
-
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
-    @Column(length = 100)
-    private String customer;
-
-    @Column(name = "customer_email")
-    private String customerEmail;
-
-    @JoinColumn(name = "book_id")
-    @ManyToOne
-    private Book book;
-
-    @Column
-    private LocalDate loanDate;
-
-    @Column
-    private Boolean returned;
-
-
-}
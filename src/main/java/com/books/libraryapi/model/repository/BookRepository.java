@@ -1,14 +0,0 @@
-package com.books.libraryapi.model.repository;
-
-import com.books.libraryapi.model.entity.Book;
-import org.springframework.data.jpa.repository.JpaRepository;
-
-import java.util.Optional;
-
-public interface BookRepository extends JpaRepository<Book, Long> {
-
-    boolean existsByIsbn(String isbn);
-
-    Optional<Book> findByIsbn(String isbn);
-
-}
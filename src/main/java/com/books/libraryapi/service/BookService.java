@@ -1,22 +0,0 @@
-package com.books.libraryapi.service;
-
-import com.books.libraryapi.model.entity.Book;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-
-
-import java.util.Optional;
-
-public interface BookService {
-    Book save(Book any);
-
-    Optional<Book> getById(Long id);
-
-    void delete(Book book);
-
-    Book update(Book book);
-
-    Page<Book> find(Book filter, Pageable pageable);
-
-    Optional<Book> getBookByIsbn(String isbn);
-}
@@ -1,235 +0,0 @@
-package com.books.libraryapi.api.resource;
-
-import com.books.libraryapi.api.dto.BookDTO;
-import com.books.libraryapi.exception.BusinessException;
-import com.books.libraryapi.model.entity.Book;
-import com.books.libraryapi.service.BookService;
-import com.books.libraryapi.service.LoanService;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import org.hamcrest.Matchers;
-import org.junit.jupiter.api.DisplayName;
-import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.BDDMockito;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
-import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
-import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.http.MediaType;
-import org.springframework.test.context.ActiveProfiles;
-import org.springframework.test.context.junit.jupiter.SpringExtension;
-import org.springframework.test.web.servlet.MockMvc;
-import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
-import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
-
-import java.util.Arrays;
-import java.util.Optional;
-
-import static org.hamcrest.Matchers.*;
-import static org.mockito.BDDMockito.*;
-import static org.mockito.Mockito.any;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
-
-@ExtendWith(SpringExtension.class)
-@AutoConfigureMockMvc
-@ActiveProfiles("test")
-@WebMvcTest(controllers = {BookController.class})
-public class BookControllerTest {
-
-    private static final String BOOK_API = "/api/books";
-
-    @Autowired
-    MockMvc mockMvc;
-
-    @MockBean
-    BookService service;
-
-    @MockBean
-    LoanService loanService;
-
-    @Test
-    @DisplayName("Should return success when create a new book")
-    void createBookTest()throws Exception{
-        BookDTO dto = BookDTO.builder().author("Author").title("New Book").isbn("1234").build();
-        Book savedBook = Book.builder().id(1L).author("Author").title("New Book").isbn("1234").build();
-
-        BDDMockito.given(service.save(any(Book.class))).willReturn(savedBook);
-        String json = new ObjectMapper().writeValueAsString(dto);
-
-        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(BOOK_API)
-                .contentType(MediaType.APPLICATION_JSON)
-                .accept(MediaType.APPLICATION_JSON)
-                .content(json);
-
-        mockMvc.perform(request)
-                .andExpect(status().isCreated())
-                .andExpect(jsonPath("id").isNotEmpty())
-                .andExpect(jsonPath("title").value(dto.getTitle()))
-                .andExpect(jsonPath("author").value(dto.getAuthor()))
-                .andExpect(jsonPath("isbn").value(dto.getIsbn()));
-    }
-
-    @Test
-    @DisplayName("Should return error when create a new book with invalid fields")
-    void createInvalidBookTest() throws Exception{
-        String json = new ObjectMapper().writeValueAsString(new BookDTO());
-        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(BOOK_API)
-                .contentType(MediaType.APPLICATION_JSON)
-                .accept(MediaType.APPLICATION_JSON)
-                .content(json);
-
-        mockMvc.perform(request)
-                .andExpect(status().isBadRequest())
-                .andExpect(jsonPath("errors", hasSize(3)));
-    }
-
-    @Test
-    @DisplayName("Should throws an BusinessException when save a book with already isbn existent")
-    void testCreateBookWhenIsbnAlreadyExists() throws Exception{
-        BookDTO dto = BookDTO.builder().author("Author").title("New Book").isbn("1234").build();
-        String json = new ObjectMapper().writeValueAsString(dto);
-        String msg = "Isbn already exists.";
-        BDDMockito.given(service.save(any(Book.class)))
-                .willThrow(new BusinessException(msg));
-
-        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(BOOK_API)
-                .contentType(MediaType.APPLICATION_JSON)
-                .accept(MediaType.APPLICATION_JSON)
-                .content(json);
-
-        mockMvc.perform(request)
-                .andExpect(status().isBadRequest())
-                .andExpect(jsonPath("errors", hasSize(1)))
-                .andExpect(jsonPath("errors[0]").value(msg));
-    }
-
-    @Test
-    @DisplayName("Should return details of found book")
-    void testGetBookDetails() throws Exception{
-        Long id = 1L;
-        Book book = Book.builder()
-                .id(1L)
-                .author("Author")
-                .title("New Book")
-                .isbn("1234")
-                .build();
-        given(service.getById(id)).willReturn(Optional.of(book));
-
-        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
-                .get(BOOK_API.concat("/"+id))
-                .accept(MediaType.APPLICATION_JSON);
-
-        mockMvc.perform(request)
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("id").value(1L))
-                .andExpect(jsonPath("title").value("New Book"))
-                .andExpect(jsonPath("author").value("Author"))
-                .andExpect(jsonPath("isbn").value("1234"));
-    }
-
-    @Test
-    @DisplayName("Should return an Not Found Exception when a book not found")
-    void testBookNotFound() throws Exception{
-
-        given(service.getById(anyLong())).willReturn(Optional.empty());
-
-        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
-                .get(BOOK_API.concat("/"+1))
-                .accept(MediaType.APPLICATION_JSON);
-
-        mockMvc.perform(request)
-                .andExpect(status().isNotFound());
-    }
-
-    @Test
-    @DisplayName("Should delete a book resource")
-    void testDeleteBook() throws Exception{
-        given(service.getById(anyLong())).willReturn(Optional.of(Book.builder().id(1L).build()));
-
-        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
-                .delete(BOOK_API.concat("/"+ 1));
-
-        mockMvc.perform(request)
-                .andExpect(status().isNoContent());
-    }
-
-    @Test
-    @DisplayName("Should return not found when delete a nonexistent book")
-    void testDeleteBookNotFound() throws Exception{
-        given(service.getById(anyLong())).willReturn(Optional.empty());
-
-        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
-                .delete(BOOK_API.concat("/"+ 1));
-
-        mockMvc.perform(request)
-                .andExpect(status().isNotFound());
-    }
-
-    @Test
-    @DisplayName("Should return a updated book")
-    public void testUpdateBook() throws Exception{
-        Long id = 1L;
-        String json = new ObjectMapper().writeValueAsString(Book.builder().id(1L).author("Author").title("New Book").isbn("123445").build());
-        Book book = Book.builder().id(1L).title("Other Book").author("Other Author").isbn("123445").build();
-        given(service.getById(id)).willReturn(Optional.of(book));
-
-        given(service.update(book)).willReturn(Book.builder().id(1L).title("Other Book").author("Other Author").isbn("123445").build());
-
-        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
-                .put(BOOK_API.concat("/"+ 1))
-                .content(json)
-                .accept(MediaType.APPLICATION_JSON)
-                .contentType(MediaType.APPLICATION_JSON);
-
-        mockMvc.perform(request)
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("id").value(1L))
-                .andExpect(jsonPath("title").value("Other Book"))
-                .andExpect(jsonPath("author").value("Other Author"))
-                .andExpect(jsonPath("isbn").value("123445"));;
-    }
-
-    @Test
-    @DisplayName("Should return 404 when try a updated book")
-    public void testUpdateBookNotFound() throws Exception{
-
-        String json = new ObjectMapper().writeValueAsString(Book.builder().id(1L).author("Author").title("New Book").isbn("1234").build());
-        given(service.getById(anyLong())).willReturn(Optional.empty());
-
-        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
-                .put(BOOK_API.concat("/"+ 1))
-                .content(json)
-                .accept(MediaType.APPLICATION_JSON)
-                .contentType(MediaType.APPLICATION_JSON);
-
-        mockMvc.perform(request)
-                .andExpect(status().isNotFound());
-    }
-
-    @Test
-    @DisplayName("Should return filtered books")
-    void testFindBookByFilter() throws Exception{
-        Long id = 1L;
-        Book book = Book.builder().id(1L).title("Other Book").author("Other Author").isbn("123445").build();
-
-        given(service.find(any(Book.class), any(Pageable.class)))
-                .willReturn(new PageImpl<Book>(Arrays.asList(book), PageRequest.of(0, 100), 1));
-
-        String queryString = String.format("?title=%s&author=%s&page=0&size=100",
-                book.getTitle(),
-                book.getAuthor());
-
-        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(BOOK_API.concat(queryString))
-                .accept(MediaType.APPLICATION_JSON);
-
-        mockMvc.perform(request)
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("content", Matchers.hasSize(1)))
-                .andExpect(jsonPath("totalElements").value(1))
-                .andExpect(jsonPath("pageable.pageSize").value(100))
-                .andExpect(jsonPath("pageable.pageNumber").value(0));
-    }
-}
@@ -1,197 +0,0 @@
-package com.books.libraryapi.api.resource;
-
-import com.books.libraryapi.api.dto.LoanDTO;
-import com.books.libraryapi.api.dto.LoanFilterDTO;
-import com.books.libraryapi.api.dto.ReturnedLoanDTO;
-import com.books.libraryapi.exception.BusinessException;
-import com.books.libraryapi.model.entity.Book;
-import com.books.libraryapi.model.entity.Loan;
-import com.books.libraryapi.service.BookService;
-import com.books.libraryapi.service.LoanService;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import org.hamcrest.Matchers;
-import org.junit.jupiter.api.BeforeEach;
-import org.junit.jupiter.api.DisplayName;
-import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
-import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
-import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.http.MediaType;
-import org.springframework.test.context.ActiveProfiles;
-import org.springframework.test.context.junit.jupiter.SpringExtension;
-import org.springframework.test.web.servlet.MockMvc;
-import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
-import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
-
-import java.time.LocalDate;
-import java.util.Arrays;
-import java.util.Optional;
-
-import static org.mockito.BDDMockito.given;
-import static org.mockito.Mockito.*;
-import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
-
-@ExtendWith(SpringExtension.class)
-@AutoConfigureMockMvc
-@ActiveProfiles("test")
-@WebMvcTest(controllers = {LoanController.class})
-public class LoanControllerTest {
-
-    static final String LOAN_API = "/api/loans";
-    private LoanDTO dto;
-    private Book book;
-
-    @Autowired
-    MockMvc mockMvc;
-
-    @MockBean
-    BookService bookService;
-
-    @MockBean
-    LoanService loanService;
-
-    @BeforeEach
-    void setup(){
-        dto = LoanDTO.builder().isbn("123").customer("Cliente").build();
-        book = Book.builder().id(1L).isbn("123").build();
-    }
-
-    @Test
-    @DisplayName("Should make a loan successfully")
-    void testCreateLoan() throws Exception{
-
-        String json = new ObjectMapper().writeValueAsString(dto);
-        given(bookService.getBookByIsbn("123")).willReturn(
-                Optional.of(book));
-
-        Loan loan = Loan.builder().id(1L).customer("Cliente").book(book).loanDate(LocalDate.now()).build();
-
-        given(loanService.save(any(Loan.class))).willReturn(loan);
-
-        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(LOAN_API)
-                .accept(MediaType.APPLICATION_JSON)
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(json);
-
-        mockMvc.perform(request)
-                .andExpect(status().isCreated())
-                .andExpect(content().string("1"));
-    }
-
-    @Test
-    @DisplayName("Should return error when create loan with invalid isbn")
-    void testInvalidIsbnCreateLoan() throws Exception {
-        String json = new ObjectMapper().writeValueAsString(dto);
-
-        given(bookService.getBookByIsbn("123")).willReturn(
-                Optional.empty());
-
-        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(LOAN_API)
-                .accept(MediaType.APPLICATION_JSON)
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(json);
-
-        mockMvc.perform(request)
-                .andExpect(status().isBadRequest())
-                .andExpect(jsonPath("errors", Matchers.hasSize(1)))
-                .andExpect(jsonPath("errors[0]").value("Book not found for this isbn"));
-
-    }
-
-    @Test
-    @DisplayName("Should return error when create loan with loaned book")
-    void testLoanedBookCreateLoan() throws Exception {
-        String json = new ObjectMapper().writeValueAsString(dto);
-
-        given(bookService.getBookByIsbn("123")).willReturn(
-                Optional.of(book));
-
-        given(loanService.save(any(Loan.class))).willThrow(
-                new BusinessException("Book already loaned")
-        );
-
-        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(LOAN_API)
-                .accept(MediaType.APPLICATION_JSON)
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(json);
-
-        mockMvc.perform(request)
-                .andExpect(status().isBadRequest())
-                .andExpect(jsonPath("errors", Matchers.hasSize(1)))
-                .andExpect(jsonPath("errors[0]").value("Book already loaned"));
-
-    }
-
-    @Test
-    @DisplayName("Should return a book")
-    void testReturnBook() throws Exception{
-        ReturnedLoanDTO dto = ReturnedLoanDTO.builder().returned(true).build();
-        Loan loan = Loan.builder().id(1L).build();
-        given(loanService.getByID(anyLong())).willReturn(Optional.of(loan));
-
-        String json = new ObjectMapper().writeValueAsString(dto);
-
-        mockMvc.perform(
-                patch(LOAN_API.concat("/1"))
-                        .accept(MediaType.APPLICATION_JSON)
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(json)
-        ).andExpect(status().isOk());
-
-        verify(loanService, times(1)).update(loan);
-    }
-
-    @Test
-    @DisplayName("Should return not found when find a nonexistent book")
-    void testReturnNonExistentBook() throws Exception{
-
-        ReturnedLoanDTO dto = ReturnedLoanDTO.builder().returned(true).build();
-        String json = new ObjectMapper().writeValueAsString(dto);
-
-        given(loanService.getByID(anyLong())).willReturn(Optional.empty());
-
-        mockMvc.perform(
-                patch(LOAN_API.concat("/1"))
-                        .accept(MediaType.APPLICATION_JSON)
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(json)
-        ).andExpect(status().isNotFound());
-
-    }
-
-    @Test
-    @DisplayName("Should return filtered loans")
-    void testFindLoansByFilter() throws Exception{
-        Long id = 1L;
-
-        Loan loan = Loan.builder()
-                .book(book)
-                .loanDate(LocalDate.now())
-                .customer("Cliente")
-                .id(id)
-                .build();
-
-        given(loanService.find(any(LoanFilterDTO.class), any(Pageable.class)))
-                .willReturn(new PageImpl<Loan>(Arrays.asList(loan), PageRequest.of(0, 10), 1));
-
-        String queryString = String.format("?isbn=%s&customer=%s&page=0&size=10",
-                book.getIsbn(),
-                loan.getCustomer());
-
-        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(LOAN_API.concat(queryString))
-                .accept(MediaType.APPLICATION_JSON);
-
-        mockMvc.perform(request)
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("content", Matchers.hasSize(1)))
-                .andExpect(jsonPath("totalElements").value(1))
-                .andExpect(jsonPath("pageable.pageSize").value(10))
-                .andExpect(jsonPath("pageable.pageNumber").value(0));
-    }
-}